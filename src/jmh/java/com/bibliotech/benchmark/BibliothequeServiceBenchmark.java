@@ -0,0 +1,126 @@
+package com.bibliotech.benchmark;
+
+import com.bibliotech.model.Categorie;
+import com.bibliotech.model.Livre;
+import com.bibliotech.service.BibliothequeService;
+import com.bibliotech.service.CatalogueColonnes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare les versions "Collections" (boucles), "Streams" et "Colonnes" des helpers de BibliothequeService,
+ * du petit catalogue (1K) au très gros (10M).
+ *
+ * Lancement : mvn -Pjmh verify
+ *   - débit (ops/s) pour chaque paire et chaque taille
+ *   - allocation (gc.alloc.rate.norm = octets alloués par opération) grâce à -prof gc
+ *   - tout est écrit dans target/jmh-resultats.json pour comparer deux versions
+ * Pour une seule taille : java -cp ... org.openjdk.jmh.Main BibliothequeServiceBenchmark -p taille=10000
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// -Xmx seulement : un plafond, pas 12 Go réservés d'office pour les petites tailles.
+// Les 10M livres en ont besoin ; sur une machine plus petite, ne garder que les petites tailles (-p taille=...).
+@Fork(value = 1, jvmArgsAppend = { "-Xmx12g" })
+public class BibliothequeServiceBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int taille;
+
+    private final BibliothequeService service = new BibliothequeService();
+    private List<Livre> livres;
+    private CatalogueColonnes colonnes;
+
+    @Setup
+    public void preparer() {
+        livres = CatalogueSynthetique.generer(taille, 42L);
+        colonnes = new CatalogueColonnes(livres);
+    }
+
+    // --- FILTRE ---
+    @Benchmark
+    public List<Livre> filtrerParCategorie() {
+        return service.filtrerParCategorie(livres, Categorie.INFORMATIQUE);
+    }
+
+    @Benchmark
+    public List<Livre> filtrerParCategorieStream() {
+        return service.filtrerParCategorieStream(livres, Categorie.INFORMATIQUE);
+    }
+
+    @Benchmark
+    public List<Livre> filtrerParCategorieColonnes() {
+        return service.filtrerParCategorie(colonnes, Categorie.INFORMATIQUE);
+    }
+
+    // --- SET ---
+    @Benchmark
+    public Set<Categorie> obtenirCategoriesUniques() {
+        return service.obtenirCategoriesUniques(livres);
+    }
+
+    @Benchmark
+    public Set<Categorie> obtenirCategoriesUniquesStream() {
+        return service.obtenirCategoriesUniquesStream(livres);
+    }
+
+    @Benchmark
+    public Set<Categorie> obtenirCategoriesUniquesColonnes() {
+        return service.obtenirCategoriesUniques(colonnes);
+    }
+
+    // --- MAP ---
+    @Benchmark
+    public Map<String, Livre> indexerLivresParTitre() {
+        return service.indexerLivresParTitre(livres);
+    }
+
+    @Benchmark
+    public Map<String, Livre> indexerLivresParTitreStream() {
+        return service.indexerLivresParTitreStream(livres);
+    }
+
+    // --- TRI ---
+    // Les versions "Collections" trient la liste SUR PLACE : on trie une copie,
+    // comme les versions Stream qui construisent une nouvelle liste (comparaison équitable)
+    @Benchmark
+    public List<Livre> trierLivresParTitre() {
+        List<Livre> copie = new ArrayList<>(livres);
+        service.trierLivresParTitre(copie);
+        return copie;
+    }
+
+    @Benchmark
+    public List<Livre> trierLivresParTitreStream() {
+        return service.trierLivresParTitreStream(livres);
+    }
+
+    @Benchmark
+    public List<Livre> trierLivresParId() {
+        List<Livre> copie = new ArrayList<>(livres);
+        service.trierLivresParId(copie);
+        return copie;
+    }
+
+    @Benchmark
+    public List<Livre> trierLivresParNumeroIDStream() {
+        return service.trierLivresParNumeroIDStream(livres);
+    }
+}
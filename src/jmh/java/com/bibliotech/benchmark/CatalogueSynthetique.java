@@ -0,0 +1,45 @@
+package com.bibliotech.benchmark;
+
+import com.bibliotech.model.Auteur;
+import com.bibliotech.model.Categorie;
+import com.bibliotech.model.Livre;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Génère un catalogue de test reproductible (même graine = mêmes données).
+ * Les titres sont uniques (indexerLivresParTitreStream refuse les doublons)
+ * et mélangés, pour que les tris aient du vrai travail à faire.
+ */
+public final class CatalogueSynthetique {
+
+    // En moyenne 50 livres par auteur
+    private static final int LIVRES_PAR_AUTEUR = 50;
+
+    private CatalogueSynthetique() {
+    }
+
+    public static List<Livre> generer(int taille, long graine) {
+        Random aleatoire = new Random(graine);
+        Categorie[] categories = Categorie.values();
+
+        int nbAuteurs = Math.max(1, taille / LIVRES_PAR_AUTEUR);
+        List<Auteur> auteurs = new ArrayList<>(nbAuteurs);
+        for (int i = 1; i <= nbAuteurs; i++) {
+            auteurs.add(new Auteur(i, "Nom" + i, "Prénom" + i));
+        }
+
+        List<Livre> livres = new ArrayList<>(taille);
+        for (int i = 1; i <= taille; i++) {
+            livres.add(new Livre(
+                    i,
+                    "Titre " + Integer.toString(aleatoire.nextInt(1_000_000), 36) + " n°" + i,
+                    auteurs.get(aleatoire.nextInt(nbAuteurs)),
+                    categories[aleatoire.nextInt(categories.length)]));
+        }
+        Collections.shuffle(livres, aleatoire);
+        return livres;
+    }
+}
@@ -0,0 +1,97 @@
+package com.bibliotech.benchmark;
+
+import com.bibliotech.model.Categorie;
+import com.bibliotech.model.Livre;
+import com.bibliotech.service.BibliothequeService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Séquentiel vs parallèle (ForkJoinPool dédié) pour chaque opération, taille par taille.
+ * Le point de bascule = la plus petite taille où "parallele" dépasse "sequentiel" :
+ * c'est la valeur à donner à BibliothequeService.activerModeParallele(seuil).
+ *
+ * Lancement : mvn -Pjmh verify -Djmh.filtre=ParalleleBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+// Même plafond que BibliothequeServiceBenchmark (sans -Xms : le tas grandit selon la taille testée)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx12g" })
+public class ParalleleBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000", "10000000" })
+    public int taille;
+
+    @Param({ "sequentiel", "parallele" })
+    public String mode;
+
+    private final BibliothequeService service = new BibliothequeService();
+    private List<Livre> livres;
+
+    @Setup
+    public void preparer() {
+        livres = CatalogueSynthetique.generer(taille, 42L);
+        if ("parallele".equals(mode)) {
+            service.activerModeParallele(0); // Seuil 0 : toujours en parallèle
+        }
+    }
+
+    @TearDown
+    public void terminer() {
+        service.desactiverModeParallele();
+    }
+
+    @Benchmark
+    public List<Livre> filtrer() {
+        return service.filtrerParCategorieStream(livres, Categorie.INFORMATIQUE);
+    }
+
+    @Benchmark
+    public Set<Categorie> categoriesUniques() {
+        return service.obtenirCategoriesUniquesStream(livres);
+    }
+
+    @Benchmark
+    public Map<String, Livre> indexer() {
+        return service.indexerLivresParTitreStream(livres);
+    }
+
+    @Benchmark
+    public List<Livre> trierParTitre() {
+        return service.trierLivresParTitreStream(livres);
+    }
+
+    // Tri en place : on trie une copie pour garder la liste d'origine mélangée
+    @Benchmark
+    public List<Livre> trierParTitreEnPlace() {
+        List<Livre> copie = new ArrayList<>(livres);
+        service.trierLivresParTitre(copie);
+        return copie;
+    }
+
+    // Suppression en place : même principe, sur une copie
+    @Benchmark
+    public List<Livre> supprimerParMotCle() {
+        List<Livre> copie = new ArrayList<>(livres);
+        service.supprimerLivresParMotCle(copie, "a1");
+        return copie;
+    }
+}
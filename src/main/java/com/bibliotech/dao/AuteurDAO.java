@@ -1,26 +1,51 @@
 package com.bibliotech.dao;
 
+import com.bibliotech.journal.JournalAsync;
+import com.bibliotech.metriques.MetriquesOperation;
+import com.bibliotech.metriques.RegistreMetriques;
 import com.bibliotech.model.Auteur;
+import com.bibliotech.model.Categorie;
+import com.bibliotech.model.Livre;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.Map;
 import java.sql.Statement;
 import java.sql.ResultSet;
 
 public class AuteurDAO {
 
+    // Métriques par requête (durées, lignes, erreurs, attente du pool), visibles en JMX
+    private static final MetriquesOperation M_AJOUTER = RegistreMetriques.operation("dao", "AuteurDAO.ajouterAuteur");
+    private static final MetriquesOperation M_AJOUTER_LOT = RegistreMetriques.operation("dao", "AuteurDAO.ajouterAuteurs");
+    private static final MetriquesOperation M_LISTER_TOUS = RegistreMetriques.operation("dao", "AuteurDAO.listerTousLesAuteurs");
+    private static final MetriquesOperation M_PAGE = RegistreMetriques.operation("dao", "AuteurDAO.listerAuteurs");
+    private static final MetriquesOperation M_PAR_ID = RegistreMetriques.operation("dao", "AuteurDAO.trouverAuteurParId");
+    private static final MetriquesOperation M_AVEC_LIVRES = RegistreMetriques.operation("dao", "AuteurDAO.listerAuteursAvecLivres");
+    private static final MetriquesOperation M_PAGE_AVEC_LIVRES = RegistreMetriques.operation("dao", "AuteurDAO.listerAuteursAvecLivres(page)");
+
+    // Colonnes de la jointure auteur/livre, triée par auteur puis par livre
+    private static final String SQL_COLONNES_AUTEUR_LIVRES =
+            "SELECT a.id AS auteur_id, a.nom, a.prenom, l.id, l.titre, l.categorie ";
+
+    // Journal asynchrone : le thread qui insère ne fait pas la queue devant la console
+    private static final JournalAsync JOURNAL = JournalAsync.getInstance();
+
 	// AJOUTER UN AUTEUR
 	// On ajoute "throws SQLException" : 
 	// On prévient que cette méthode peut échouer techniquement
     public void ajouterAuteur(Auteur auteur) throws SQLException {
         String sql = "INSERT INTO auteur (nom, prenom) VALUES (?, ?)";
+        long debut = System.nanoTime();
 
         // try-with-resources : ouvre et ferme la connexion automatiquement
         // Le try-with-resources reste là pour la FERMETURE automatique
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(M_AJOUTER);
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             // On remplace les "?" par les vraies valeurs de l'objet auteur
             pstmt.setString(1, auteur.getNom());
@@ -28,12 +53,40 @@ public class AuteurDAO {
 
             // On exécute la requête
             pstmt.executeUpdate();
-            System.out.println("✅ Auteur ajouté avec succès : " + auteur.getNom());
 
+            // On recopie l'ID généré par MySQL dans l'objet
+            try (ResultSet cles = pstmt.getGeneratedKeys()) {
+                if (cles.next()) {
+                    auteur.setId(cles.getInt(1));
+                }
+            }
+            JOURNAL.info("AuteurDAO.ajouterAuteur", "✅ Auteur ajouté avec succès", auteur.getNom(), auteur.getId(), System.nanoTime() - debut);
+
+        } catch (SQLException | RuntimeException e) {
+            M_AJOUTER.echec(debut); // On compte l'erreur...
+            throw e;                // ...et on la laisse remonter au Service.
         }
-        
-        // PLUS DE CATCH ICI ! 
-        // On laisse l'erreur remonter au Service.
+        M_AJOUTER.succes(debut, 0, 1);
+    }
+    
+    
+    // AJOUTER PLUSIEURS AUTEURS D'UN COUP (insertion par lots)
+    // Une seule connexion, une transaction par tranche, et les ID générés
+    // sont recopiés dans les objets Auteur. Les lignes refusées sont listées dans le résultat.
+    public ResultatLot<Auteur> ajouterAuteurs(Collection<Auteur> auteurs) throws SQLException {
+        return ajouterAuteurs(auteurs, ExecuteurLot.TAILLE_LOT_DEFAUT);
+    }
+
+    public ResultatLot<Auteur> ajouterAuteurs(Collection<Auteur> auteurs, int tailleLot) throws SQLException {
+        String sql = "INSERT INTO auteur (nom, prenom) VALUES (?, ?)";
+
+        return ExecuteurLot.executer(sql, auteurs, tailleLot,
+                (pstmt, auteur) -> {
+                    pstmt.setString(1, auteur.getNom());
+                    pstmt.setString(2, auteur.getPrenom());
+                },
+                Auteur::setId,
+                M_AJOUTER_LOT);
     }
     
     
@@ -42,10 +95,11 @@ public class AuteurDAO {
     public List<Auteur> listerTousLesAuteurs() throws SQLException {
         List<Auteur> auteurs = new ArrayList<>();
         String sql = "SELECT id, nom, prenom FROM auteur";
+        long debut = System.nanoTime();
 
         // On utilise Statement car la requête est fixe
         // Le try-with-resources reste pour assurer la fermeture (conn, stmt, rs)
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getConnectionLecture(M_LISTER_TOUS);
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
 
@@ -59,11 +113,47 @@ public class AuteurDAO {
                 );
                 auteurs.add(a);
             }
-        } 
+        } catch (SQLException | RuntimeException e) {
+            M_LISTER_TOUS.echec(debut);
+            throw e;
+        }
         
-        // PLUS DE CATCH : Si la base est injoignable, on ne renvoie pas une liste vide.
+        // LE CATCH RELANCE L'ERREUR : Si la base est injoignable, on ne renvoie pas une liste vide.
         // L'exception est lancée et interrompt la méthode.
         
+        M_LISTER_TOUS.succes(debut, auteurs.size(), 0);
+        return auteurs;
+    }
+    
+    
+    // RECUPERER UNE PAGE D'AUTEURS (pagination par clé)
+    // On repart du dernier ID vu au lieu d'utiliser OFFSET : 
+    // la clé primaire permet d'aller directement au bon endroit, quelle que soit la page.
+    public List<Auteur> listerAuteurs(int apresId, int taille) throws SQLException {
+        List<Auteur> auteurs = new ArrayList<>();
+        String sql = "SELECT id, nom, prenom FROM auteur WHERE id > ? ORDER BY id LIMIT ?";
+        long debut = System.nanoTime();
+
+        try (Connection conn = DatabaseConnection.getConnectionLecture(M_PAGE);
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, apresId);
+            pstmt.setInt(2, taille);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    auteurs.add(new Auteur(
+                        rs.getInt("id"),
+                        rs.getString("nom"),
+                        rs.getString("prenom")
+                    ));
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            M_PAGE.echec(debut);
+            throw e;
+        }
+        M_PAGE.succes(debut, auteurs.size(), 0);
         return auteurs;
     }
     
@@ -72,28 +162,119 @@ public class AuteurDAO {
     // On propage l'exception technique
     public Auteur trouverAuteurParId(int id) throws SQLException {
         String sql = "SELECT id, nom, prenom FROM auteur WHERE id = ?";
+        long debut = System.nanoTime();
+        Auteur auteur = null;
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getConnectionLecture(M_PAR_ID);
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, id);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) { // On utilise 'if' car un ID est unique
-                    return new Auteur(
+                    auteur = new Auteur(
                         rs.getInt("id"),
                         rs.getString("nom"),
                         rs.getString("prenom")
                     );
                 }
             }
+        } catch (SQLException | RuntimeException e) {
+            M_PAR_ID.echec(debut); // Si la base crash, on compte puis on relance l'exception.
+            throw e;
         }
         
-        // PLUS DE CATCH : Si la base crash, on lance l'exception.
-        
         // ON GARDE LE NULL : Mais uniquement pour dire "L'ID n'existe pas"
         
-        return null; // On retourne null si aucun auteur n'a cet ID
+        M_PAR_ID.succes(debut, auteur == null ? 0 : 1, 0);
+        return auteur; // null si aucun auteur n'a cet ID
+    }
+    
+    
+    // LES AUTEURS AVEC LEURS LIVRES (une seule requête au lieu de N+1)
+    // Avant : chargerTousLesAuteurs() puis, pour chaque auteur, un filtre sur tous les livres
+    // (ou une requête par auteur). Ici : UNE jointure triée par auteur, puis par livre.
+    // Les lignes d'un même auteur se suivent : on les regroupe en lisant le curseur, sans second passage.
+    // inclureSansLivre = true : LEFT JOIN, les auteurs sans livre sont présents avec une liste vide.
+    // Résultat dans l'ordre des ID d'auteurs ; les Livre partagent l'objet Auteur de leur clé.
+    public Map<Auteur, List<Livre>> listerAuteursAvecLivres(boolean inclureSansLivre) throws SQLException {
+        String sql = SQL_COLONNES_AUTEUR_LIVRES +
+                     "FROM auteur a " + (inclureSansLivre ? "LEFT" : "INNER") + " JOIN livre l ON l.id_auteur = a.id " +
+                     "ORDER BY a.id, l.id";
+        Map<Auteur, List<Livre>> resultat = new LinkedHashMap<>();
+        long debut = System.nanoTime();
+        int nbLignes;
+
+        try (Connection conn = DatabaseConnection.getConnectionLecture(M_AVEC_LIVRES);
+             Statement stmt = conn.createStatement()) {
+
+            // Lignes reçues au fil de l'eau : le driver ne garde pas toute la jointure en plus du résultat
+            stmt.setFetchSize(LivreDAO.TAILLE_FETCH_STREAMING);
+            try (ResultSet rs = stmt.executeQuery(sql)) {
+                nbLignes = regrouper(rs, resultat);
+            }
+        } catch (SQLException | RuntimeException e) {
+            M_AVEC_LIVRES.echec(debut);
+            throw e;
+        }
+        M_AVEC_LIVRES.succes(debut, nbLignes, 0);
+        return resultat;
+    }
+
+
+    // UNE PAGE D'AUTEURS AVEC LEURS LIVRES (pagination par clé sur l'ID de l'auteur)
+    // Le LIMIT porte sur les AUTEURS (sous-requête), pas sur les lignes de la jointure :
+    // un auteur n'est jamais coupé entre deux pages, quel que soit son nombre de livres.
+    public Map<Auteur, List<Livre>> listerAuteursAvecLivres(int apresId, int nbAuteurs, boolean inclureSansLivre)
+            throws SQLException {
+        String sql = SQL_COLONNES_AUTEUR_LIVRES +
+                     "FROM (SELECT au.id, au.nom, au.prenom FROM auteur au WHERE au.id > ?" +
+                     (inclureSansLivre ? "" : " AND EXISTS (SELECT 1 FROM livre li WHERE li.id_auteur = au.id)") +
+                     " ORDER BY au.id LIMIT ?) a " +
+                     (inclureSansLivre ? "LEFT" : "INNER") + " JOIN livre l ON l.id_auteur = a.id " +
+                     "ORDER BY a.id, l.id";
+        Map<Auteur, List<Livre>> resultat = new LinkedHashMap<>();
+        long debut = System.nanoTime();
+        int nbLignes;
+
+        try (Connection conn = DatabaseConnection.getConnectionLecture(M_PAGE_AVEC_LIVRES);
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, apresId);
+            pstmt.setInt(2, nbAuteurs);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                nbLignes = regrouper(rs, resultat);
+            }
+        } catch (SQLException | RuntimeException e) {
+            M_PAGE_AVEC_LIVRES.echec(debut);
+            throw e;
+        }
+        M_PAGE_AVEC_LIVRES.succes(debut, nbLignes, 0);
+        return resultat;
+    }
+
+    // Regroupe les lignes (triées par auteur) : un nouvel auteur commence quand auteur_id change.
+    // Avec un LEFT JOIN, un auteur sans livre donne une ligne dont les colonnes du livre sont NULL.
+    // Renvoie le nombre de lignes lues.
+    private static int regrouper(ResultSet rs, Map<Auteur, List<Livre>> resultat) throws SQLException {
+        int nbLignes = 0;
+        Auteur auteur = null;
+        List<Livre> livres = null;
+
+        while (rs.next()) {
+            nbLignes++;
+            int idAuteur = rs.getInt("auteur_id");
+            if (auteur == null || auteur.getId() != idAuteur) {
+                auteur = new Auteur(idAuteur, rs.getString("nom"), rs.getString("prenom"));
+                livres = new ArrayList<>();
+                resultat.put(auteur, livres);
+            }
+            int idLivre = rs.getInt("id");
+            if (!rs.wasNull()) {
+                livres.add(new Livre(idLivre, rs.getString("titre"), auteur, Categorie.valueOf(rs.getString("categorie"))));
+            }
+        }
+        return nbLignes;
     }
     
-}
\ No newline at end of file
+}
@@ -0,0 +1,403 @@
+package com.bibliotech.dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool de connexions JDBC borné.
+ * Au lieu d'ouvrir une connexion TCP + authentification MySQL à chaque appel,
+ * on garde des connexions physiques ouvertes et on les "prête" aux DAO.
+ * Le DAO reçoit un proxy : quand il fait close() (try-with-resources),
+ * la connexion retourne dans le pool au lieu d'être fermée.
+ */
+public class ConnectionPool {
+
+    // Paramètres de connexion
+    private final String url;
+    private final String user;
+    private final String password;
+
+    // Paramètres du pool
+    private final int tailleMin;
+    private final int tailleMax;
+    private final long delaiEmpruntMs;   // Temps max d'attente pour obtenir une connexion
+    private final long dureeInactiviteMs; // Au-delà, une connexion inactive est fermée (si > tailleMin)
+    private final long seuilFuiteMs;     // Au-delà, une connexion empruntée est signalée comme "fuite"
+
+    // Les connexions physiques libres (la plus récemment rendue en tête : LIFO)
+    private final LinkedBlockingDeque<ConnexionPhysique> libres = new LinkedBlockingDeque<>();
+
+    // Un permis = le droit d'avoir une connexion empruntée. Il y en a tailleMax.
+    // "true" = équitable : les threads sont servis dans l'ordre d'arrivée
+    private final Semaphore permis;
+
+    // Pile d'appels de chaque emprunteur, affichée avec une fuite. Une Exception par emprunt coûte cher :
+    // désactivée par défaut, à activer le temps de chercher une fuite (-Dbibliotech.pool.pileEmprunts=true)
+    private static final boolean PILE_EMPRUNTS = Boolean.getBoolean("bibliotech.pool.pileEmprunts");
+
+    // Les connexions actuellement prêtées (pour la détection des fuites)
+    private final Map<ConnexionPhysique, Emprunt> empruntees = new ConcurrentHashMap<>();
+
+    // Tâche de fond : éviction des connexions inactives + détection des fuites
+    private final ScheduledExecutorService maintenance;
+
+    private final AtomicBoolean ferme = new AtomicBoolean(false);
+
+    // Action lancée quand une connexion empruntée pour écrire est rendue (null = aucune)
+    private volatile Runnable auRetourEcriture;
+
+    // Compteurs pour les statistiques
+    private final AtomicInteger totalPhysiques = new AtomicInteger();
+    private final AtomicLong nbEmprunts = new AtomicLong();
+    private final AtomicLong nbCreations = new AtomicLong();
+    private final AtomicLong nbTimeouts = new AtomicLong();
+    private final AtomicLong nbEvictions = new AtomicLong();
+    private final AtomicLong nbInvalides = new AtomicLong();
+    private final AtomicLong nbFuites = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password,
+                          int tailleMin, int tailleMax,
+                          long delaiEmpruntMs, long dureeInactiviteMs, long seuilFuiteMs) {
+        if (tailleMin < 0 || tailleMax <= 0 || tailleMin > tailleMax) {
+            throw new IllegalArgumentException("Tailles de pool invalides : min=" + tailleMin + ", max=" + tailleMax);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.tailleMin = tailleMin;
+        this.tailleMax = tailleMax;
+        this.delaiEmpruntMs = delaiEmpruntMs;
+        this.dureeInactiviteMs = dureeInactiviteMs;
+        this.seuilFuiteMs = seuilFuiteMs;
+        this.permis = new Semaphore(tailleMax, true);
+
+        // Thread "démon" : il n'empêche pas la JVM de s'arrêter à la fin d'un main()
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "pool-maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        long periode = Math.max(1000, Math.min(dureeInactiviteMs, seuilFuiteMs) / 2);
+        maintenance.scheduleWithFixedDelay(this::maintenir, periode, periode, TimeUnit.MILLISECONDS);
+    }
+
+    // EMPRUNTER UNE CONNEXION
+    // Bloque au plus "delaiEmpruntMs", puis lance une SQLTimeoutException
+    public Connection emprunter() throws SQLException {
+        return emprunter(true);
+    }
+
+    // Même chose pour une lecture seule : l'action "auRetourEcriture" ne sera pas lancée au retour
+    public Connection emprunterPourLecture() throws SQLException {
+        return emprunter(false);
+    }
+
+    // Sans attendre : null si les tailleMax connexions sont déjà prêtées.
+    // Pour un appelant qui a un autre endroit où aller (répliques : la suivante, ou la principale).
+    public Connection emprunterSansAttendre() throws SQLException {
+        if (ferme.get()) {
+            throw new SQLException("Le pool de connexions est fermé.");
+        }
+        if (!permis.tryAcquire()) {
+            return null;
+        }
+        return preter(false);
+    }
+
+    private Connection emprunter(boolean ecriture) throws SQLException {
+        if (ferme.get()) {
+            throw new SQLException("Le pool de connexions est fermé.");
+        }
+        try {
+            if (!permis.tryAcquire(delaiEmpruntMs, TimeUnit.MILLISECONDS)) {
+                nbTimeouts.incrementAndGet();
+                throw new SQLTimeoutException("Aucune connexion disponible après " + delaiEmpruntMs
+                        + " ms (pool plein : " + tailleMax + " connexions).");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompu pendant l'attente d'une connexion.", e);
+        }
+        return preter(ecriture);
+    }
+
+    // Appelé avec un permis en main : on DOIT le rendre si quelque chose échoue ensuite
+    private Connection preter(boolean ecriture) throws SQLException {
+        try {
+            ConnexionPhysique physique = prendreConnexionValide();
+            empruntees.put(physique, new Emprunt(Thread.currentThread().getName(),
+                    PILE_EMPRUNTS ? new Exception("Emprunt de la connexion") : null));
+            nbEmprunts.incrementAndGet();
+            return physique.creerProxy(ecriture);
+        } catch (SQLException | RuntimeException e) {
+            permis.release();
+            throw e;
+        }
+    }
+
+    // Validation à l'emprunt : on teste les connexions libres, on jette les mortes
+    private ConnexionPhysique prendreConnexionValide() throws SQLException {
+        ConnexionPhysique physique;
+        while ((physique = libres.pollFirst()) != null) {
+            if (physique.estValide()) {
+                return physique;
+            }
+            nbInvalides.incrementAndGet();
+            detruire(physique);
+        }
+        return creer();
+    }
+
+    private ConnexionPhysique creer() throws SQLException {
+        Connection brute = DriverManager.getConnection(url, user, password);
+        totalPhysiques.incrementAndGet();
+        nbCreations.incrementAndGet();
+        return new ConnexionPhysique(brute);
+    }
+
+    private void detruire(ConnexionPhysique physique) {
+        totalPhysiques.decrementAndGet();
+        try {
+            physique.brute.close();
+        } catch (SQLException e) {
+            // La connexion est déjà cassée : rien de plus à faire
+        }
+    }
+
+    // RENDRE UNE CONNEXION (appelé par le proxy lors du close())
+    private void rendre(ConnexionPhysique physique) {
+        empruntees.remove(physique);
+        try {
+            if (ferme.get() || !physique.reinitialiser()) {
+                detruire(physique);
+            } else {
+                physique.derniereUtilisation = System.currentTimeMillis();
+                libres.offerFirst(physique);
+            }
+        } finally {
+            permis.release();
+        }
+    }
+
+    // TÂCHE DE FOND
+    private void maintenir() {
+        long maintenant = System.currentTimeMillis();
+
+        // 1. Éviction : on ferme les connexions inactives depuis trop longtemps,
+        //    en gardant au moins "tailleMin" connexions physiques
+        //    (les plus anciennes sont en queue de la deque)
+        ConnexionPhysique physique;
+        while (totalPhysiques.get() > tailleMin && (physique = libres.pollLast()) != null) {
+            if (maintenant - physique.derniereUtilisation < dureeInactiviteMs) {
+                libres.offerLast(physique);
+                break;
+            }
+            nbEvictions.incrementAndGet();
+            detruire(physique);
+        }
+
+        // 2. Pré-chauffage : on remonte jusqu'à "tailleMin" connexions
+        while (!ferme.get() && totalPhysiques.get() < tailleMin) {
+            try {
+                ConnexionPhysique nouvelle = creer();
+                nouvelle.derniereUtilisation = maintenant;
+                libres.offerLast(nouvelle);
+            } catch (SQLException e) {
+                break; // La base est injoignable : on réessaiera au prochain passage
+            }
+        }
+
+        // 3. Détection des fuites : une connexion empruntée depuis trop longtemps
+        //    n'a probablement jamais été fermée (oubli du try-with-resources)
+        for (Emprunt emprunt : empruntees.values()) {
+            if (!emprunt.signale && maintenant - emprunt.debut > seuilFuiteMs) {
+                emprunt.signale = true;
+                nbFuites.incrementAndGet();
+                System.err.println("⚠️ [Pool] Fuite probable : connexion empruntée par [" + emprunt.thread
+                        + "] depuis " + (maintenant - emprunt.debut) + " ms.");
+                if (emprunt.origine != null) {
+                    emprunt.origine.printStackTrace();
+                } else {
+                    System.err.println("   (relancer avec -Dbibliotech.pool.pileEmprunts=true pour voir où elle a été empruntée)");
+                }
+            }
+        }
+    }
+
+    // STATISTIQUES
+    public StatistiquesPool getStatistiques() {
+        int actives = empruntees.size();
+        return new StatistiquesPool(
+                totalPhysiques.get(),
+                actives,
+                libres.size(),
+                permis.getQueueLength(),
+                tailleMin,
+                tailleMax,
+                nbEmprunts.get(),
+                nbCreations.get(),
+                nbTimeouts.get(),
+                nbEvictions.get(),
+                nbInvalides.get(),
+                nbFuites.get());
+    }
+
+    // L'action est lancée par le thread qui rend la connexion, APRÈS son commit éventuel
+    // (DatabaseConnection s'en sert pour "lire ses propres écritures")
+    public void setAuRetourEcriture(Runnable action) {
+        this.auRetourEcriture = action;
+    }
+
+    // Nombre de connexions prêtées en ce moment (sans construire toute la photo des statistiques)
+    public int getNbActives() {
+        return empruntees.size();
+    }
+
+    // FERMETURE DU POOL
+    // Les connexions libres sont fermées tout de suite,
+    // les connexions empruntées seront fermées quand on les rendra.
+    public void fermer() {
+        if (!ferme.compareAndSet(false, true)) {
+            return;
+        }
+        maintenance.shutdownNow();
+        ConnexionPhysique physique;
+        while ((physique = libres.pollFirst()) != null) {
+            detruire(physique);
+        }
+    }
+
+    // Photo des compteurs du pool à un instant donné
+    public record StatistiquesPool(int total, int actives, int inactives, int enAttente,
+                                   int tailleMin, int tailleMax,
+                                   long emprunts, long creations, long timeouts,
+                                   long evictions, long invalides, long fuites) {
+        @Override
+        public String toString() {
+            return "Pool[total=" + total + ", actives=" + actives + ", inactives=" + inactives
+                    + ", enAttente=" + enAttente + ", min=" + tailleMin + ", max=" + tailleMax
+                    + ", emprunts=" + emprunts + ", créations=" + creations + ", timeouts=" + timeouts
+                    + ", évictions=" + evictions + ", invalides=" + invalides + ", fuites=" + fuites + "]";
+        }
+    }
+
+    // Infos sur un emprunt en cours (qui, depuis quand, d'où)
+    private static class Emprunt {
+        final long debut = System.currentTimeMillis();
+        final String thread;
+        final Exception origine; // Pile d'appels de l'emprunteur, null si PILE_EMPRUNTS est désactivé
+        volatile boolean signale;
+
+        Emprunt(String thread, Exception origine) {
+            this.thread = thread;
+            this.origine = origine;
+        }
+    }
+
+    // Une vraie connexion MySQL gardée par le pool
+    private class ConnexionPhysique {
+        final Connection brute;
+        volatile long derniereUtilisation = System.currentTimeMillis();
+
+        ConnexionPhysique(Connection brute) {
+            this.brute = brute;
+        }
+
+        boolean estValide() {
+            try {
+                return !brute.isClosed() && brute.isValid(2);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        // Remet la connexion dans un état "neuf" avant de la rendre au pool
+        // (un DAO a pu la laisser en transaction ou en lecture seule)
+        boolean reinitialiser() {
+            try {
+                if (brute.isClosed()) {
+                    return false;
+                }
+                if (!brute.getAutoCommit()) {
+                    brute.rollback();
+                    brute.setAutoCommit(true);
+                }
+                if (brute.isReadOnly()) {
+                    brute.setReadOnly(false);
+                }
+                brute.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        Connection creerProxy(boolean ecriture) {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new ConnexionEmpruntee(this, ecriture));
+        }
+    }
+
+    // Le "faux" Connection donné au DAO : tout est délégué à la vraie connexion,
+    // sauf close() qui rend la connexion au pool
+    private class ConnexionEmpruntee implements InvocationHandler {
+        private final ConnexionPhysique physique;
+        private final boolean ecriture;
+        private final AtomicBoolean rendue = new AtomicBoolean(false);
+
+        ConnexionEmpruntee(ConnexionPhysique physique, boolean ecriture) {
+            this.physique = physique;
+            this.ecriture = ecriture;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (rendue.compareAndSet(false, true)) {
+                        rendre(physique);
+                        Runnable action = auRetourEcriture;
+                        if (ecriture && action != null) {
+                            action.run();
+                        }
+                    }
+                    return null;
+                case "isClosed":
+                    return rendue.get() || physique.brute.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ConnexionEmpruntee[" + physique.brute + "]";
+                default:
+                    if (rendue.get()) {
+                        throw new SQLException("Connexion déjà rendue au pool.");
+                    }
+                    try {
+                        return method.invoke(physique.brute, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -1,18 +1,172 @@
 package com.bibliotech.dao;
 
+import com.bibliotech.metriques.MetriquesOperation;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
 
 public class DatabaseConnection {
 
     private static final String URL = "jdbc:mysql://localhost:3306/bibliotech_db";
+
+    // rewriteBatchedStatements : sans elle, Connector/J envoie executeBatch() ligne par ligne (un aller-retour
+    // par INSERT). Avec elle, un lot d'INSERT devient UN "INSERT ... VALUES (...), (...), ..." :
+    //   - les clés générées restent lues dans l'ordre des lignes (getGeneratedKeys) ;
+    //   - le nombre de lignes par élément du lot vaut SUCCESS_NO_INFO (-2) pour ces INSERT regroupés ;
+    //   - un lot d'UPDATE part en une seule requête multiple, avec un nombre exact par UPDATE.
+    private static final String OPTIONS_URL = "rewriteBatchedStatements=true";
     private static final String USER = "root";
-    private static final String PASSWORD = "rootPass#03QL"; 
+    private static final String PASSWORD = "rootPass#03QL";
+
+    // Réglages du pool de connexions
+    private static final int POOL_TAILLE_MIN = 2;
+    private static final int POOL_TAILLE_MAX = 10;
+    private static final long POOL_DELAI_EMPRUNT_MS = 5_000;     // Attente max pour obtenir une connexion
+    private static final long POOL_DUREE_INACTIVITE_MS = 60_000; // Une connexion inactive 1 min est fermée
+    private static final long POOL_SEUIL_FUITE_MS = 30_000;      // Une connexion gardée 30 s est suspecte
+
+    // RÉPLIQUES EN LECTURE (facultatif), réglées au lancement par des propriétés système :
+    //   -Dbibliotech.repliques=jdbc:mysql://localhost:3307/bibliotech_db,jdbc:mysql://localhost:3308/bibliotech_db
+    //   -Dbibliotech.repartition=TOUR_DE_ROLE | MOINS_CHARGEE      (défaut : TOUR_DE_ROLE)
+    //   -Dbibliotech.lectureSesEcrituresMs=2000                     (0 = désactivé)
+    // Sans répliques, tout passe par la principale, comme avant. Les options du driver (OPTIONS_URL)
+    // sont ajoutées aux URL des répliques comme à celle de la principale.
+    private static final long CONTROLE_REPLIQUES_MS = 5_000;     // Test de santé des répliques
+    private static final long RETARD_REPLICATION_MAX_S = 10;     // Au-delà, la réplique est écartée
+
+    // "Lire ses propres écritures" : après une écriture, les lectures du MÊME thread vont sur la principale
+    // pendant ce délai (le temps que les répliques reçoivent la modification).
+    // Suivi par thread : un appel asynchrone (autre thread) ne le voit que si on lui transmet
+    // (getDerniereEcriture / reprendreEcriture ; BibliothequeServiceAsync le fait pour ses tâches)
+    private static volatile long dureeLectureSesEcrituresMs = Long.getLong("bibliotech.lectureSesEcrituresMs", 2_000);
+    private static final ThreadLocal<long[]> DERNIERE_ECRITURE = ThreadLocal.withInitial(() -> new long[1]); // 0 = jamais
+
+    // Le pool n'est créé qu'au premier appel (idiome "Holder" : thread-safe sans synchronized)
+    private static class PoolHolder {
+        private static final ConnectionPool POOL = creerPool(URL);
+
+        static {
+            // Une connexion de la principale rendue = une écriture terminée (commit compris) pour ce thread
+            POOL.setAuRetourEcriture(DatabaseConnection::noterEcriture);
+        }
+    }
+
+    private static class RepliquesHolder {
+        private static final RepartiteurLectures REPARTITEUR = new RepartiteurLectures(
+                urlsRepliques(), DatabaseConnection::creerPool,
+                RepartiteurLectures.Strategie.valueOf(System.getProperty("bibliotech.repartition", "TOUR_DE_ROLE")),
+                CONTROLE_REPLIQUES_MS, RETARD_REPLICATION_MAX_S);
+    }
+
+    private static ConnectionPool creerPool(String url) {
+        return new ConnectionPool(avecOptions(url), USER, PASSWORD,
+                POOL_TAILLE_MIN, POOL_TAILLE_MAX,
+                POOL_DELAI_EMPRUNT_MS, POOL_DUREE_INACTIVITE_MS, POOL_SEUIL_FUITE_MS);
+    }
+
+    // Ajoute les options du driver à une URL (principale ou réplique) qui ne les a pas déjà
+    private static String avecOptions(String url) {
+        if (url.contains("rewriteBatchedStatements=")) {
+            return url;
+        }
+        return url + (url.contains("?") ? "&" : "?") + OPTIONS_URL;
+    }
+
+    private static List<String> urlsRepliques() {
+        String liste = System.getProperty("bibliotech.repliques", "");
+        return Arrays.stream(liste.split(","))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+    }
 
     // On laisse la méthode lancer l'exception : c'est à celui qui l'appelle de gérer l'erreur
+    // La connexion vient du pool : le close() du try-with-resources la REND au pool
+    // Connexion sur la PRINCIPALE : pour les écritures (et les lectures qui doivent voir la dernière version)
     public static Connection getConnection() throws SQLException {
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        return PoolHolder.POOL.emprunter();
+    }
+
+    // Même chose, en notant le temps d'attente du pool dans les métriques de l'opération
+    public static Connection getConnection(MetriquesOperation metriques) throws SQLException {
+        long debut = System.nanoTime();
+        try {
+            return PoolHolder.POOL.emprunter();
+        } finally {
+            metriques.attenteConnexion(System.nanoTime() - debut);
+        }
+    }
+
+    // Connexion pour une LECTURE SEULE : sur une réplique saine si possible, sinon sur la principale.
+    // Le résultat peut avoir quelques instants de retard sur la principale (réplication asynchrone),
+    // sauf pour un thread qui vient d'écrire (voir setDureeLectureSesEcrituresMs).
+    public static Connection getConnectionLecture(MetriquesOperation metriques) throws SQLException {
+        long debut = System.nanoTime();
+        try {
+            RepartiteurLectures repartiteur = RepliquesHolder.REPARTITEUR;
+            if (repartiteur.aDesRepliques() && !vientDEcrire()) {
+                Connection conn = repartiteur.emprunter();
+                if (conn != null) {
+                    return conn;
+                }
+            }
+            // Pas de réplique, aucune saine, ou lecture de ses propres écritures : la principale
+            return PoolHolder.POOL.emprunterPourLecture();
+        } finally {
+            metriques.attenteConnexion(System.nanoTime() - debut);
+        }
+    }
+
+    // Le thread courant vient d'écrire : ses lectures restent sur la principale pendant un moment.
+    // Lancé au retour de chaque connexion prise avec getConnection() (par prudence, une lecture faite
+    // sur la principale compte aussi) ; à appeler soi-même quand l'écriture est faite par un autre thread
+    // pour le compte de celui-ci (écriture différée : le thread d'écriture n'est pas l'appelant).
+    public static void noterEcriture() {
+        if (dureeLectureSesEcrituresMs > 0 && RepliquesHolder.REPARTITEUR.aDesRepliques()) {
+            DERNIERE_ECRITURE.get()[0] = System.nanoTime();
+        }
+    }
+
+    // Instant (System.nanoTime) de la dernière écriture du thread courant, 0 = jamais
+    public static long getDerniereEcriture() {
+        return DERNIERE_ECRITURE.get()[0];
+    }
+
+    // Le thread courant reprend à son compte une écriture faite par un autre thread (0 = rien à reprendre) :
+    // ses lectures iront sur la principale comme s'il l'avait faite lui-même
+    public static void reprendreEcriture(long instant) {
+        long[] derniere = DERNIERE_ECRITURE.get();
+        if (instant != 0 && (derniere[0] == 0 || instant - derniere[0] > 0)) {
+            derniere[0] = instant;
+        }
+    }
+
+    private static boolean vientDEcrire() {
+        long duree = dureeLectureSesEcrituresMs;
+        long derniere = DERNIERE_ECRITURE.get()[0];
+        return duree > 0 && derniere != 0 && System.nanoTime() - derniere < duree * 1_000_000;
+    }
+
+    // 0 = pas de "lecture de ses écritures" (toutes les lectures peuvent aller sur les répliques)
+    public static void setDureeLectureSesEcrituresMs(long dureeMs) {
+        dureeLectureSesEcrituresMs = Math.max(0, dureeMs);
+    }
+
+    // Compteurs du pool (connexions actives, en attente, timeouts, fuites...)
+    public static ConnectionPool.StatistiquesPool getStatistiquesPool() {
+        return PoolHolder.POOL.getStatistiques();
+    }
+
+    // Répartition des lectures : réplique par réplique (saine ou non, lectures, échecs)
+    public static RepartiteurLectures.StatistiquesLectures getStatistiquesLectures() {
+        return RepliquesHolder.REPARTITEUR.getStatistiques();
+    }
+
+    // Ferme toutes les connexions physiques (à appeler à l'arrêt de l'application)
+    public static void fermerPool() {
+        PoolHolder.POOL.fermer();
+        RepliquesHolder.REPARTITEUR.fermer();
     }
 
     public static boolean testConnection() {
@@ -26,4 +180,4 @@ public class DatabaseConnection {
         }
         return false;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,214 @@
+package com.bibliotech.dao;
+
+import com.bibliotech.metriques.MetriquesOperation;
+import com.bibliotech.metriques.RegistreMetriques;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Écriture différée ("write-behind") avec validation groupée ("group commit").
+ *
+ * Les threads métier déposent leurs éléments dans une file bornée et repartent aussitôt
+ * avec un CompletableFuture. Un seul thread d'écriture vide la file par lots :
+ *
+ *   threads métier ──► [file bornée] ──► thread "ecriture-xxx" ──► 1 transaction pour N éléments
+ *
+ * Un lot part dès qu'il a "tailleLot" éléments, ou "delaiMaxMs" après son premier élément
+ * (le premier arrivé n'attend jamais plus que ce délai). Les éléments sont écrits dans l'ordre de dépôt.
+ *
+ * Le future d'un élément se termine APRÈS le commit de son lot (ou en erreur si sa ligne est refusée).
+ * File pleine : soumettre() attend qu'une place se libère (la base impose son rythme aux producteurs).
+ * Arrêt : fermer() (ou l'arrêt de la JVM) écrit tout ce qui est déjà dans la file avant de rendre la main.
+ */
+public final class EcritureDifferee<T> implements AutoCloseable {
+
+    // Écrit un lot dans UNE transaction ; les lignes refusées sont dans le ResultatLot
+    @FunctionalInterface
+    public interface EcrivainLot<T> {
+        ResultatLot<T> ecrire(List<T> lot) throws SQLException;
+    }
+
+    private record Demande<T>(T element, CompletableFuture<T> fin) {
+    }
+
+    private static final long ATTENTE_FERMETURE_MS = 100;
+
+    private final BlockingQueue<Demande<T>> file;
+    private final int tailleLot;
+    private final long delaiMaxNanos;
+    private final EcrivainLot<T> ecrivain;
+    private final MetriquesOperation metriques;
+    private final Thread thread;
+    private final Thread crochetArret;
+    private volatile boolean ouvert = true;
+
+    private final AtomicLong nbSoumis = new AtomicLong();
+    private final AtomicLong nbTraites = new AtomicLong();
+    private final AtomicLong nbLots = new AtomicLong();
+    private final AtomicLong nbRefuses = new AtomicLong();
+
+    public EcritureDifferee(String nom, int capacite, int tailleLot, long delaiMaxMs, EcrivainLot<T> ecrivain) {
+        if (capacite <= 0 || tailleLot <= 0 || delaiMaxMs < 0) {
+            throw new IllegalArgumentException("Réglages invalides : capacité=" + capacite + ", lot=" + tailleLot
+                    + ", délai=" + delaiMaxMs + " ms");
+        }
+        this.file = new ArrayBlockingQueue<>(capacite);
+        this.tailleLot = tailleLot;
+        this.delaiMaxNanos = TimeUnit.MILLISECONDS.toNanos(delaiMaxMs);
+        this.ecrivain = ecrivain;
+        this.metriques = RegistreMetriques.operation("ecriture", nom);
+        this.thread = new Thread(this::boucle, "ecriture-" + nom);
+        this.thread.setDaemon(true);
+        this.thread.start();
+        // Arrêt normal de la JVM : rien de ce qui a été accepté n'est perdu
+        this.crochetArret = new Thread(this::fermer, "ecriture-" + nom + "-arret");
+        Runtime.getRuntime().addShutdownHook(crochetArret);
+    }
+
+    /**
+     * Dépose un élément. Bloque tant que la file est pleine.
+     * Le future renvoie l'élément une fois son lot validé en base.
+     */
+    public CompletableFuture<T> soumettre(T element) throws InterruptedException {
+        if (!ouvert) {
+            throw new IllegalStateException("Écriture différée fermée : " + thread.getName());
+        }
+        Demande<T> demande = new Demande<>(element, new CompletableFuture<>());
+        file.put(demande);
+        nbSoumis.incrementAndGet();
+        if (!ouvert) {
+            // Fermeture pendant le dépôt : le thread d'écriture a peut-être déjà fini
+            thread.join();
+            echouerRestants();
+        }
+        return demande.fin();
+    }
+
+    // Attend que tout ce qui a été soumis AVANT cet appel soit écrit (ou refusé)
+    public void attendre() throws InterruptedException {
+        long cible = nbSoumis.get();
+        while (nbTraites.get() < cible && thread.isAlive()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    // --- THREAD D'ÉCRITURE ---
+
+    private void boucle() {
+        List<Demande<T>> lot = new ArrayList<>(tailleLot);
+        while (ouvert || !file.isEmpty()) {
+            try {
+                Demande<T> premiere = file.poll(ATTENTE_FERMETURE_MS, TimeUnit.MILLISECONDS);
+                if (premiere == null) {
+                    continue;
+                }
+                lot.add(premiere);
+                // On complète le lot jusqu'à sa taille ou jusqu'au délai max
+                long limite = System.nanoTime() + delaiMaxNanos;
+                while (lot.size() < tailleLot) {
+                    file.drainTo(lot, tailleLot - lot.size());
+                    long reste = limite - System.nanoTime();
+                    if (lot.size() >= tailleLot || reste <= 0 || !ouvert) {
+                        break;
+                    }
+                    Demande<T> suivante = file.poll(reste, TimeUnit.NANOSECONDS);
+                    if (suivante != null) {
+                        lot.add(suivante);
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Personne ne doit interrompre ce thread : on écrit ce qu'on a et on continue
+            }
+            if (!lot.isEmpty()) {
+                ecrireLot(lot);
+                lot.clear();
+            }
+        }
+    }
+
+    private void ecrireLot(List<Demande<T>> lot) {
+        long debut = System.nanoTime();
+        List<T> elements = new ArrayList<>(lot.size());
+        for (Demande<T> d : lot) {
+            elements.add(d.element());
+        }
+        try {
+            ResultatLot<T> resultat = ecrivain.ecrire(elements);
+            boolean[] refuse = new boolean[lot.size()];
+            for (ResultatLot.Echec<T> echec : resultat.getEchecs()) {
+                refuse[echec.position()] = true;
+                lot.get(echec.position()).fin().completeExceptionally(new SQLException(echec.raison()));
+            }
+            nbRefuses.addAndGet(resultat.getEchecs().size());
+            metriques.succes(debut, 0, lot.size() - resultat.getEchecs().size());
+            for (int i = 0; i < lot.size(); i++) {
+                if (!refuse[i]) {
+                    lot.get(i).fin().complete(elements.get(i));
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            // Tout le lot est annulé (une seule transaction)
+            metriques.echec(debut);
+            nbRefuses.addAndGet(lot.size());
+            for (Demande<T> d : lot) {
+                d.fin().completeExceptionally(e);
+            }
+        }
+        nbLots.incrementAndGet();
+        nbTraites.addAndGet(lot.size());
+    }
+
+    private void echouerRestants() {
+        Demande<T> d;
+        while ((d = file.poll()) != null) {
+            d.fin().completeExceptionally(new IllegalStateException("Écriture différée fermée avant l'écriture"));
+            nbRefuses.incrementAndGet();
+            nbTraites.incrementAndGet();
+        }
+    }
+
+    /**
+     * Refuse les nouveaux dépôts, écrit tout ce qui est dans la file, puis arrête le thread d'écriture.
+     */
+    public void fermer() {
+        ouvert = false;
+        if (Thread.currentThread() != crochetArret) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(crochetArret);
+            } catch (IllegalStateException e) {
+                // La JVM est déjà en train de s'arrêter
+            }
+        }
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        fermer();
+    }
+
+    public int getNbEnAttente() { return file.size(); }
+    public long getNbLots() { return nbLots.get(); }
+    public long getNbTraites() { return nbTraites.get(); }
+    public long getNbRefuses() { return nbRefuses.get(); }
+
+    // Taille moyenne des lots : plus elle est grande, moins il y a de transactions par élément
+    public double getTailleMoyenneLots() {
+        long lots = nbLots.get();
+        return lots == 0 ? 0 : (double) nbTraites.get() / lots;
+    }
+}
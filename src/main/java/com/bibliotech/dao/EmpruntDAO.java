@@ -0,0 +1,171 @@
+package com.bibliotech.dao;
+
+import com.bibliotech.metriques.MetriquesOperation;
+import com.bibliotech.metriques.RegistreMetriques;
+import com.bibliotech.model.Emprunt;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+public class EmpruntDAO {
+
+    private static final String SQL_EMPRUNT = "INSERT INTO emprunt (id_livre, emprunteur, date_emprunt) VALUES (?, ?, ?)";
+    private static final String SQL_RETOUR = "UPDATE emprunt SET date_retour = ? WHERE id_livre = ? AND emprunteur = ? AND date_retour IS NULL";
+
+    private static final MetriquesOperation M_MOUVEMENTS = RegistreMetriques.operation("dao", "EmpruntDAO.enregistrerMouvements");
+    private static final MetriquesOperation M_EN_COURS = RegistreMetriques.operation("dao", "EmpruntDAO.listerEmpruntsEnCours");
+    private static final MetriquesOperation M_COMPTER = RegistreMetriques.operation("dao", "EmpruntDAO.compterEmprunts");
+
+    // ENREGISTRER DES EMPRUNTS ET DES RETOURS (une seule transaction pour toute la liste)
+    // L'ordre est respecté : un emprunt suivi du retour du même livre donne une ligne fermée.
+    // Les mouvements consécutifs de même type partent ensemble (addBatch / executeBatch).
+    // Mouvements refusés (retour sans emprunt en cours, 2e emprunt en cours du même livre...) : dans le résultat.
+    public ResultatLot<MouvementEmprunt> enregistrerMouvements(List<MouvementEmprunt> mouvements) throws SQLException {
+        long debut = System.nanoTime();
+        List<ResultatLot.Echec<MouvementEmprunt>> echecs = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection(M_MOUVEMENTS);
+             PreparedStatement emprunt = conn.prepareStatement(SQL_EMPRUNT);
+             PreparedStatement retour = conn.prepareStatement(SQL_RETOUR)) {
+
+            conn.setAutoCommit(false);
+            try {
+                int debutSerie = 0;
+                for (int i = 1; i <= mouvements.size(); i++) {
+                    // Fin d'une série de mouvements du même type : un seul aller-retour pour la série
+                    if (i == mouvements.size() || mouvements.get(i).type() != mouvements.get(debutSerie).type()) {
+                        executerSerie(mouvements, debutSerie, i, emprunt, retour, echecs);
+                        debutSerie = i;
+                    }
+                }
+                conn.commit();
+            } catch (BatchUpdateException e) {
+                // Une ligne fautive fait échouer sa série : on rejoue tout, ligne par ligne
+                conn.rollback();
+                emprunt.clearBatch();
+                retour.clearBatch();
+                echecs.clear();
+                rejouerUnParUn(conn, mouvements, emprunt, retour, echecs);
+                conn.commit();
+            }
+        } catch (SQLException | RuntimeException e) {
+            M_MOUVEMENTS.echec(debut);
+            throw e;
+        }
+        M_MOUVEMENTS.succes(debut, 0, mouvements.size() - echecs.size());
+        return new ResultatLot<>(mouvements.size() - echecs.size(), echecs);
+    }
+
+    private static void executerSerie(List<MouvementEmprunt> mouvements, int debut, int fin,
+                                      PreparedStatement emprunt, PreparedStatement retour,
+                                      List<ResultatLot.Echec<MouvementEmprunt>> echecs) throws SQLException {
+        PreparedStatement pstmt = mouvements.get(debut).type() == MouvementEmprunt.Type.EMPRUNT ? emprunt : retour;
+        for (int i = debut; i < fin; i++) {
+            lier(pstmt, mouvements.get(i));
+            pstmt.addBatch();
+        }
+        int[] nbLignes = pstmt.executeBatch();
+        // Lots réécrits par le driver (rewriteBatchedStatements) : les INSERT regroupés renvoient
+        // SUCCESS_NO_INFO (-2), les UPDATE gardent leur nombre exact. Seul 0 signale un retour refusé.
+        for (int k = 0; k < nbLignes.length; k++) {
+            if (nbLignes[k] == 0) {
+                echecs.add(new ResultatLot.Echec<>(debut + k, mouvements.get(debut + k), "Aucun emprunt en cours de cet emprunteur pour ce livre"));
+            }
+        }
+    }
+
+    private static void rejouerUnParUn(Connection conn, List<MouvementEmprunt> mouvements,
+                                       PreparedStatement emprunt, PreparedStatement retour,
+                                       List<ResultatLot.Echec<MouvementEmprunt>> echecs) throws SQLException {
+        for (int i = 0; i < mouvements.size(); i++) {
+            MouvementEmprunt m = mouvements.get(i);
+            PreparedStatement pstmt = m.type() == MouvementEmprunt.Type.EMPRUNT ? emprunt : retour;
+            Savepoint point = conn.setSavepoint();
+            try {
+                lier(pstmt, m);
+                if (pstmt.executeUpdate() == 0) {
+                    echecs.add(new ResultatLot.Echec<>(i, m, "Aucun emprunt en cours de cet emprunteur pour ce livre"));
+                }
+                conn.releaseSavepoint(point);
+            } catch (SQLException e) {
+                conn.rollback(point);
+                echecs.add(new ResultatLot.Echec<>(i, m, e.getMessage()));
+            }
+        }
+    }
+
+    private static void lier(PreparedStatement pstmt, MouvementEmprunt m) throws SQLException {
+        if (m.type() == MouvementEmprunt.Type.EMPRUNT) {
+            pstmt.setInt(1, m.idLivre());
+            pstmt.setString(2, m.emprunteur());
+            pstmt.setTimestamp(3, Timestamp.valueOf(m.date()));
+        } else {
+            pstmt.setTimestamp(1, Timestamp.valueOf(m.date()));
+            pstmt.setInt(2, m.idLivre());
+            pstmt.setString(3, m.emprunteur());
+        }
+    }
+
+
+    // LES EMPRUNTS EN COURS (pour remettre les livres à EMPRUNTE au démarrage)
+    public List<Emprunt> listerEmpruntsEnCours() throws SQLException {
+        String sql = "SELECT id_livre, emprunteur, date_emprunt FROM emprunt WHERE date_retour IS NULL";
+        List<Emprunt> emprunts = new ArrayList<>();
+        long debut = System.nanoTime();
+
+        try (Connection conn = DatabaseConnection.getConnection(M_EN_COURS);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                emprunts.add(new Emprunt(
+                    rs.getInt("id_livre"),
+                    rs.getString("emprunteur"),
+                    rs.getTimestamp("date_emprunt").toLocalDateTime()
+                ));
+            }
+        } catch (SQLException | RuntimeException e) {
+            M_EN_COURS.echec(debut);
+            throw e;
+        }
+        M_EN_COURS.succes(debut, emprunts.size(), 0);
+        return emprunts;
+    }
+
+    // NOMBRE DE LIGNES D'EMPRUNT (en cours ou rendus) pour ces livres : une ligne par emprunt accepté en base
+    public long compterEmprunts(int... idsLivres) throws SQLException {
+        if (idsLivres.length == 0) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM emprunt WHERE id_livre IN (?");
+        for (int i = 1; i < idsLivres.length; i++) {
+            sql.append(",?");
+        }
+        sql.append(')');
+        long debut = System.nanoTime();
+        long total;
+
+        try (Connection conn = DatabaseConnection.getConnection(M_COMPTER);
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < idsLivres.length; i++) {
+                pstmt.setInt(i + 1, idsLivres[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                rs.next();
+                total = rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            M_COMPTER.echec(debut);
+            throw e;
+        }
+        M_COMPTER.succes(debut, 1, 0);
+        return total;
+    }
+}
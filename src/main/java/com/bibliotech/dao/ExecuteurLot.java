@@ -0,0 +1,130 @@
+package com.bibliotech.dao;
+
+import com.bibliotech.metriques.MetriquesOperation;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * Moteur commun des insertions par lots (livres et auteurs).
+ * Une seule connexion, addBatch/executeBatch par tranches, une transaction par tranche.
+ * Si une tranche échoue, on la rejoue ligne par ligne pour isoler les lignes fautives.
+ */
+class ExecuteurLot {
+
+    // Taille de tranche par défaut : assez grande pour limiter les allers-retours,
+    // assez petite pour ne pas garder une transaction ouverte trop longtemps
+    static final int TAILLE_LOT_DEFAUT = 500;
+
+    // Remplit les "?" de la requête pour un élément
+    @FunctionalInterface
+    interface Liaison<T> {
+        void lier(PreparedStatement pstmt, T element) throws SQLException;
+    }
+
+    private ExecuteurLot() {
+    }
+
+    static <T> ResultatLot<T> executer(String sql, Collection<T> elements, int tailleLot,
+                                       Liaison<T> liaison, ObjIntConsumer<T> affecterId,
+                                       MetriquesOperation metriques) throws SQLException {
+        if (tailleLot <= 0) {
+            throw new IllegalArgumentException("La taille de lot doit être positive : " + tailleLot);
+        }
+        long debutMesure = System.nanoTime();
+        List<T> liste = new ArrayList<>(elements);
+        List<ResultatLot.Echec<T>> echecs = new ArrayList<>();
+        int nbInseres = 0;
+
+        try (Connection conn = DatabaseConnection.getConnection(metriques);
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+
+            // On gère nous-mêmes les transactions (le pool remet l'auto-commit au retour)
+            conn.setAutoCommit(false);
+
+            for (int debut = 0; debut < liste.size(); debut += tailleLot) {
+                int fin = Math.min(debut + tailleLot, liste.size());
+                nbInseres += executerTranche(conn, pstmt, liste, debut, fin, liaison, affecterId, echecs);
+            }
+        } catch (SQLException | RuntimeException e) {
+            metriques.echec(debutMesure);
+            throw e;
+        }
+        metriques.succes(debutMesure, 0, nbInseres);
+        return new ResultatLot<>(nbInseres, echecs);
+    }
+
+    private static <T> int executerTranche(Connection conn, PreparedStatement pstmt, List<T> liste,
+                                           int debut, int fin, Liaison<T> liaison, ObjIntConsumer<T> affecterId,
+                                           List<ResultatLot.Echec<T>> echecs) throws SQLException {
+        // 1. On prépare la tranche (une ligne mal formée ne bloque pas les autres)
+        List<Integer> positions = new ArrayList<>();
+        for (int i = debut; i < fin; i++) {
+            T element = liste.get(i);
+            try {
+                liaison.lier(pstmt, element);
+                pstmt.addBatch();
+                positions.add(i);
+            } catch (SQLException | RuntimeException e) {
+                pstmt.clearParameters();
+                echecs.add(new ResultatLot.Echec<>(i, element, e.getMessage()));
+            }
+        }
+        if (positions.isEmpty()) {
+            return 0;
+        }
+
+        // 2. Un seul aller-retour pour toute la tranche : grâce à rewriteBatchedStatements (DatabaseConnection),
+        //    le driver en fait un INSERT multi-lignes (découpé seulement s'il dépasse max_allowed_packet)
+        try {
+            pstmt.executeBatch();
+            lireIdsGeneres(pstmt, liste, positions, affecterId);
+            conn.commit();
+            return positions.size();
+        } catch (BatchUpdateException e) {
+            conn.rollback();
+            pstmt.clearBatch();
+        }
+
+        // 3. La tranche a échoué : on la rejoue ligne par ligne, dans la même transaction,
+        //    avec un point de sauvegarde par ligne pour n'annuler que les lignes fautives
+        int nbInseres = 0;
+        for (int i : positions) {
+            T element = liste.get(i);
+            Savepoint point = conn.setSavepoint();
+            try {
+                liaison.lier(pstmt, element);
+                pstmt.executeUpdate();
+                lireIdsGeneres(pstmt, liste, List.of(i), affecterId);
+                conn.releaseSavepoint(point);
+                nbInseres++;
+            } catch (SQLException e) {
+                conn.rollback(point);
+                echecs.add(new ResultatLot.Echec<>(i, element, e.getMessage()));
+            }
+        }
+        conn.commit();
+        return nbInseres;
+    }
+
+    // MySQL renvoie les clés générées dans l'ordre des lignes du lot, y compris pour un INSERT multi-lignes :
+    // InnoDB attribue des ID consécutifs aux lignes d'un même INSERT dont le nombre est connu d'avance.
+    // On n'utilise PAS les nombres de lignes de executeBatch() : ils valent SUCCESS_NO_INFO une fois réécrits.
+    private static <T> void lireIdsGeneres(PreparedStatement pstmt, List<T> liste, List<Integer> positions,
+                                           ObjIntConsumer<T> affecterId) throws SQLException {
+        try (ResultSet cles = pstmt.getGeneratedKeys()) {
+            int k = 0;
+            while (cles.next() && k < positions.size()) {
+                affecterId.accept(liste.get(positions.get(k++)), cles.getInt(1));
+            }
+        }
+    }
+}
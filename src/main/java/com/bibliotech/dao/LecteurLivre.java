@@ -0,0 +1,61 @@
+package com.bibliotech.dao;
+
+import com.bibliotech.model.Auteur;
+import com.bibliotech.model.Categorie;
+import com.bibliotech.model.Livre;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Transforme les lignes de la jointure livre/auteur en objets Livre.
+ * On crée UN lecteur par requête : il garde une "identity map" ID -> Auteur,
+ * pour qu'un auteur de 5 000 livres ne devienne qu'UN seul objet Auteur en mémoire
+ * (au lieu de 5 000 copies identiques avec leurs chaînes nom/prénom).
+ */
+public class LecteurLivre {
+
+    // null = pas de dédoublonnage (ancien comportement, gardé pour les mesures)
+    private final Map<Integer, Auteur> auteurs;
+
+    public LecteurLivre() {
+        this(true);
+    }
+
+    public LecteurLivre(boolean dedoublonnerAuteurs) {
+        this.auteurs = dedoublonnerAuteurs ? new HashMap<>() : null;
+    }
+
+    // Lit la ligne courante du ResultSet (colonnes : id, titre, categorie, auteur_id, nom, prenom)
+    public Livre lire(ResultSet rs) throws SQLException {
+        // 1. On retrouve (ou on crée une seule fois) l'objet Auteur
+        Auteur aut = lireAuteur(rs);
+
+        // 2. On crée le Livre en lui passant l'objet Auteur
+        return new Livre(
+            rs.getInt("id"),
+            rs.getNString("titre"),
+            aut,
+            Categorie.valueOf(rs.getString("categorie"))
+        );
+    }
+
+    private Auteur lireAuteur(ResultSet rs) throws SQLException {
+        int idAuteur = rs.getInt("auteur_id");
+        Auteur aut = (auteurs == null) ? null : auteurs.get(idAuteur);
+        if (aut == null) {
+            // On ne lit nom/prénom que pour un auteur pas encore vu : moins de String allouées
+            aut = new Auteur(idAuteur, rs.getString("nom"), rs.getString("prenom"));
+            if (auteurs != null) {
+                auteurs.put(idAuteur, aut);
+            }
+        }
+        return aut;
+    }
+
+    // Nombre d'objets Auteur distincts créés par ce lecteur
+    public int getNbAuteursDistincts() {
+        return auteurs == null ? -1 : auteurs.size();
+    }
+}
@@ -1,21 +1,63 @@
 package com.bibliotech.dao;
 
 import com.bibliotech.model.Livre;
-import com.bibliotech.model.Auteur;
 import com.bibliotech.model.Categorie;
+import com.bibliotech.exception.FluxInterrompuException;
+import com.bibliotech.journal.JournalAsync;
+import com.bibliotech.metriques.MetriquesOperation;
+import com.bibliotech.metriques.RegistreMetriques;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class LivreDAO {
 
+    // On fait une JOINTURE pour récupérer les infos de l'auteur en même temps
+    private static final String SQL_LIVRES_AVEC_AUTEUR =
+            "SELECT l.id, l.titre, l.categorie, a.id as auteur_id, a.nom, a.prenom " +
+            "FROM livre l " +
+            "INNER JOIN auteur a ON l.id_auteur = a.id";
+
+    // Index unique sur LOWER(TRIM(titre)) : deux livres ne peuvent pas avoir le même titre
+    private static final String CONTRAINTE_TITRE_UNIQUE = "uk_livre_titre_normalise";
+    private static final int ERREUR_MYSQL_DOUBLON = 1062;
+
+    // Valeur spéciale du driver MySQL : lire les lignes une par une sans tout bufferiser
+    public static final int TAILLE_FETCH_STREAMING = Integer.MIN_VALUE;
+
+    // Métriques par requête (durées, lignes, erreurs, attente du pool), visibles en JMX
+    private static final MetriquesOperation M_AJOUTER = RegistreMetriques.operation("dao", "LivreDAO.ajouterLivre");
+    private static final MetriquesOperation M_AJOUTER_LOT = RegistreMetriques.operation("dao", "LivreDAO.ajouterLivres");
+    private static final MetriquesOperation M_LISTER_TOUS = RegistreMetriques.operation("dao", "LivreDAO.listerTousLesLivres");
+    private static final MetriquesOperation M_COMPTER = RegistreMetriques.operation("dao", "LivreDAO.compterLivres");
+    private static final MetriquesOperation M_COMPTER_CATEGORIES = RegistreMetriques.operation("dao", "LivreDAO.compterLivresParCategorie");
+    private static final MetriquesOperation M_STREAMER = RegistreMetriques.operation("dao", "LivreDAO.streamerLivres");
+    private static final MetriquesOperation M_PAGE_ID = RegistreMetriques.operation("dao", "LivreDAO.listerLivres");
+    private static final MetriquesOperation M_PAGE_TITRE = RegistreMetriques.operation("dao", "LivreDAO.listerLivresParTitre");
+    private static final MetriquesOperation M_PAGE_CATEGORIE = RegistreMetriques.operation("dao", "LivreDAO.listerLivresParCategorie");
+    private static final MetriquesOperation M_IDS = RegistreMetriques.operation("dao", "LivreDAO.listerIdsLivres");
+    private static final MetriquesOperation M_PAR_IDS = RegistreMetriques.operation("dao", "LivreDAO.listerLivresParIds");
+
+    // Journal asynchrone : le thread qui insère ne fait pas la queue devant la console
+    private static final JournalAsync JOURNAL = JournalAsync.getInstance();
+
     // AJOUTER UN LIVRE
 	// On ajoute throws SQLException
     public void ajouterLivre(Livre livre) throws SQLException {
         String sql = "INSERT INTO livre (titre, categorie, id_auteur) VALUES (?, ?, ?)";
+        long debut = System.nanoTime();
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection(M_AJOUTER);
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             pstmt.setString(1, livre.getTitre());
             // .name() transforme l'Enum en String pour MySQL
@@ -24,53 +66,360 @@ public class LivreDAO {
             pstmt.setInt(3, livre.getAuteur().getId());
 
             pstmt.executeUpdate();
-            System.out.println("✅ Livre ajouté : " + livre.getTitre());
 
-        } 
+            // On recopie l'ID généré par MySQL dans l'objet
+            try (ResultSet cles = pstmt.getGeneratedKeys()) {
+                if (cles.next()) {
+                    livre.setId(cles.getInt(1));
+                }
+            }
+            JOURNAL.info("LivreDAO.ajouterLivre", "✅ Livre ajouté", livre.getTitre(), livre.getId(), System.nanoTime() - debut);
+
+        } catch (SQLException | RuntimeException e) {
+            M_AJOUTER.echec(debut);
+            throw e;
+        }
         
-        // PLUS DE CATCH : Si l'ID de l'auteur n'existe pas ou si MySQL crash, 
+        // LE CATCH NE FAIT QUE COMPTER L'ERREUR : Si l'ID de l'auteur n'existe pas ou si MySQL crash, 
         // le Service doit le savoir pour annuler l'opération.
+        M_AJOUTER.succes(debut, 0, 1);
+    }
+
+
+    // AJOUTER UN LIVRE SEULEMENT SI SON TITRE N'EXISTE PAS ENCORE
+    // C'est la contrainte UNIQUE sur le titre normalisé (voir schema.sql) qui tranche :
+    // pas de verrou global ni de lecture de toute la table avant l'insertion.
+    // Deux titres différents s'insèrent en parallèle ; seuls deux ajouts du MÊME titre
+    // se gênent, et MySQL garantit qu'un seul gagne.
+    // Renvoie false si un livre de même titre existe déjà.
+    public boolean ajouterLivreSiAbsent(Livre livre) throws SQLException {
+        try {
+            ajouterLivre(livre);
+            return true;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            if (estTitreEnDoublon(e)) {
+                return false;
+            }
+            throw e; // Autre contrainte (ex : auteur inexistant) : on laisse remonter
+        }
+    }
+
+    // Erreur MySQL 1062 "Duplicate entry" sur l'index unique du titre
+    static boolean estTitreEnDoublon(SQLException e) {
+        return e.getErrorCode() == ERREUR_MYSQL_DOUBLON && estRefusTitreEnDoublon(e.getMessage());
+    }
+
+    // Même test sur la raison d'une ligne refusée dans un lot (ResultatLot.Echec : le code d'erreur n'y est plus)
+    public static boolean estRefusTitreEnDoublon(String raison) {
+        return raison != null && raison.contains(CONTRAINTE_TITRE_UNIQUE);
+    }
+
+    
+    // AJOUTER PLUSIEURS LIVRES D'UN COUP (insertion par lots)
+    // Une seule connexion, addBatch/executeBatch par tranches de "tailleLot",
+    // une transaction par tranche. Les ID générés sont recopiés dans les objets Livre.
+    public ResultatLot<Livre> ajouterLivres(Collection<Livre> livres) throws SQLException {
+        return ajouterLivres(livres, ExecuteurLot.TAILLE_LOT_DEFAUT);
+    }
+
+    public ResultatLot<Livre> ajouterLivres(Collection<Livre> livres, int tailleLot) throws SQLException {
+        String sql = "INSERT INTO livre (titre, categorie, id_auteur) VALUES (?, ?, ?)";
+
+        return ExecuteurLot.executer(sql, livres, tailleLot,
+                (pstmt, livre) -> {
+                    pstmt.setString(1, livre.getTitre());
+                    pstmt.setString(2, livre.getCategorie().name());
+                    pstmt.setInt(3, livre.getAuteur().getId());
+                },
+                Livre::setId,
+                M_AJOUTER_LOT);
     }
 
     
     // LISTER TOUS LES LIVRES (C'est là qu'on va utiliser les Lists !)
     // On ajoute throws SQLException
     public List<Livre> listerTousLesLivres() throws SQLException {
+        long debut = System.nanoTime();
         List<Livre> livres = new ArrayList<>();
-        // On fait une JOINTURE pour récupérer les infos de l'auteur en même temps
-        String sql = "SELECT l.id, l.titre, l.categorie, a.id as auteur_id, a.nom, a.prenom " +
-                     "FROM livre l " +
-                     "INNER JOIN auteur a ON l.id_auteur = a.id";
+        // Un lecteur par requête : chaque auteur n'est créé qu'une fois
+        LecteurLivre lecteur = new LecteurLivre();
 
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = DatabaseConnection.getConnectionLecture(M_LISTER_TOUS);
              Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+             ResultSet rs = stmt.executeQuery(SQL_LIVRES_AVEC_AUTEUR)) {
 
             while (rs.next()) {
-                // 1. On recrée d'abord l'objet Auteur
-                Auteur aut = new Auteur(
-                    rs.getInt("auteur_id"),
-                    rs.getString("nom"),
-                    rs.getString("prenom")
-                );
-
-                // 2. On crée le Livre en lui passant l'objet Auteur
-                Livre liv = new Livre(
-                    rs.getInt("id"),
-                    rs.getNString("titre"),
-                    aut,
-                    Categorie.valueOf(rs.getString("categorie"))
-                    
-                );
-                
-                // 3. On ajoute à notre Collection List
-                livres.add(liv);
+                // On ajoute à notre Collection List
+                livres.add(lecteur.lire(rs));
             }
-        } 
+        } catch (SQLException | RuntimeException e) {
+            M_LISTER_TOUS.echec(debut);
+            throw e;
+        }
         
-        // PLUS DE CATCH : Si la jointure échoue ou si la table est verrouillée,
+        // LE CATCH RELANCE L'ERREUR : Si la jointure échoue ou si la table est verrouillée,
         // on ne renvoie pas une liste vide, on lance l'alerte.
         
+        M_LISTER_TOUS.succes(debut, livres.size(), 0);
+        return livres;
+    }
+
+
+    // COMPTER LES LIVRES
+    // Le COUNT(*) est fait par MySQL : on ne reçoit qu'un nombre, pas toutes les lignes
+    public long compterLivres() throws SQLException {
+        String sql = "SELECT COUNT(*) FROM livre";
+        long debut = System.nanoTime();
+        long nb;
+
+        try (Connection conn = DatabaseConnection.getConnectionLecture(M_COMPTER);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            nb = rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException | RuntimeException e) {
+            M_COMPTER.echec(debut);
+            throw e;
+        }
+        M_COMPTER.succes(debut, 1, 0);
+        return nb;
+    }
+
+    // COMPTER LES LIVRES PAR CATÉGORIE (une seule requête avec GROUP BY)
+    // Les catégories sans livre sont présentes avec 0
+    public Map<Categorie, Long> compterLivresParCategorie() throws SQLException {
+        String sql = "SELECT categorie, COUNT(*) AS nb FROM livre GROUP BY categorie";
+        long debut = System.nanoTime();
+        int nbLignes = 0;
+        Map<Categorie, Long> comptes = new EnumMap<>(Categorie.class);
+        for (Categorie c : Categorie.values()) {
+            comptes.put(c, 0L);
+        }
+
+        try (Connection conn = DatabaseConnection.getConnectionLecture(M_COMPTER_CATEGORIES);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            while (rs.next()) {
+                comptes.put(Categorie.valueOf(rs.getString("categorie")), rs.getLong("nb"));
+                nbLignes++;
+            }
+        } catch (SQLException | RuntimeException e) {
+            M_COMPTER_CATEGORIES.echec(debut);
+            throw e;
+        }
+        M_COMPTER_CATEGORIES.succes(debut, nbLignes, 0);
+        return comptes;
+    }
+
+
+    // LIRE LES LIVRES EN FLUX (sans tout charger en mémoire)
+    // Le curseur est "forward-only" et "read-only" : MySQL envoie les lignes au fur et à mesure.
+    // ⚠️ Le Stream garde la connexion ouverte : il faut le fermer (try-with-resources) !
+    public Stream<Livre> streamerLivres() throws SQLException {
+        return streamerLivres(TAILLE_FETCH_STREAMING);
+    }
+
+    // tailleFetch :
+    //   - Integer.MIN_VALUE : mode "streaming" MySQL, les lignes arrivent une par une
+    //   - n > 0 : lecture par paquets de n lignes (nécessite useCursorFetch=true dans l'URL)
+    public Stream<Livre> streamerLivres(int tailleFetch) throws SQLException {
+        return streamer(SQL_LIVRES_AVEC_AUTEUR, tailleFetch, new LecteurLivre());
+    }
+
+    // LIRE EN FLUX UNE PARTIE DU CATALOGUE (exports, traitements de nuit...)
+    // categorie = null : toutes les catégories. Bornes d'ID incluses. Lignes triées par ID.
+    // Pas de dédoublonnage des auteurs : la mémoire reste constante, quel que soit le nombre de lignes.
+    public Stream<Livre> streamerLivres(Categorie categorie, int idMin, int idMax) throws SQLException {
+        String sql = SQL_LIVRES_AVEC_AUTEUR + " WHERE l.id BETWEEN ? AND ?";
+        if (categorie == null) {
+            return streamer(sql + " ORDER BY l.id", TAILLE_FETCH_STREAMING, new LecteurLivre(false), idMin, idMax);
+        }
+        return streamer(sql + " AND l.categorie = ? ORDER BY l.id", TAILLE_FETCH_STREAMING, new LecteurLivre(false),
+                idMin, idMax, categorie.name());
+    }
+
+    // Ouvre le curseur et l'enveloppe dans un Stream ; les "?" sont remplis avec les paramètres.
+    // Mesure : de l'ouverture à la FERMETURE du Stream (c'est l'appelant qui décide de la durée)
+    private Stream<Livre> streamer(String sql, int tailleFetch, LecteurLivre lecteur, Object... parametres)
+            throws SQLException {
+        long debut = System.nanoTime();
+        Connection conn;
+        try {
+            // Toujours sur la principale : le catalogue mémoire et son rattrapage doivent voir tous les livres
+            conn = DatabaseConnection.getConnection(M_STREAMER);
+        } catch (SQLException e) {
+            M_STREAMER.echec(debut);
+            throw e;
+        }
+        try {
+            PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(tailleFetch);
+            for (int i = 0; i < parametres.length; i++) {
+                stmt.setObject(i + 1, parametres[i]);
+            }
+            ResultSet rs = stmt.executeQuery();
+            long[] nbLignes = {0};             // Un seul compteur par flux, pas par ligne
+            boolean[] interrompu = {false};
+
+            // Le Spliterator avance le curseur d'une ligne à chaque élément demandé
+            Spliterator<Livre> curseur = new Spliterators.AbstractSpliterator<Livre>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super Livre> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept(lecteur.lire(rs));
+                        nbLignes[0]++;
+                        return true;
+                    } catch (SQLException e) {
+                        interrompu[0] = true;
+                        throw new FluxInterrompuException("Lecture du flux de livres interrompue", e);
+                    }
+                }
+            };
+
+            // Fermer le Stream ferme le ResultSet, le Statement et rend la connexion au pool
+            return StreamSupport.stream(curseur, false).onClose(() -> {
+                try (conn; stmt; rs) {
+                    // Rien à faire : le try-with-resources ferme tout dans l'ordre inverse
+                } catch (SQLException e) {
+                    M_STREAMER.echec(debut);
+                    throw new FluxInterrompuException("Erreur à la fermeture du flux de livres", e);
+                }
+                if (interrompu[0]) {
+                    M_STREAMER.echec(debut);
+                } else {
+                    M_STREAMER.succes(debut, nbLignes[0], 0);
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            M_STREAMER.echec(debut);
+            conn.close();
+            throw e;
+        }
+    }
+
+
+    // PAGINATION PAR CLÉ ("keyset" / "seek")
+    // Au lieu de "LIMIT x OFFSET y" (MySQL doit lire puis jeter les y premières lignes),
+    // on repart de la dernière clé vue : WHERE id > ? ... LIMIT ?
+    // Grâce à l'index, la page 10 000 coûte autant que la première.
+
+    // Page triée par ID (apresId = 0 pour la première page)
+    public List<Livre> listerLivres(int apresId, int taille) throws SQLException {
+        String sql = SQL_LIVRES_AVEC_AUTEUR +
+                     " WHERE l.id > ?" +
+                     " ORDER BY l.id" +
+                     " LIMIT ?";
+        return listerPage(M_PAGE_ID, sql, apresId, taille);
+    }
+
+    // Page triée par titre puis ID (apresTitre = null pour la première page)
+    // Index utilisé : idx_livre_titre_id (titre, id)
+    public List<Livre> listerLivresParTitre(String apresTitre, int apresId, int taille) throws SQLException {
+        if (apresTitre == null) {
+            return listerPage(M_PAGE_TITRE, SQL_LIVRES_AVEC_AUTEUR + " ORDER BY l.titre, l.id LIMIT ?", taille);
+        }
+        String sql = SQL_LIVRES_AVEC_AUTEUR +
+                     " WHERE l.titre > ? OR (l.titre = ? AND l.id > ?)" +
+                     " ORDER BY l.titre, l.id" +
+                     " LIMIT ?";
+        return listerPage(M_PAGE_TITRE, sql, apresTitre, apresTitre, apresId, taille);
+    }
+
+    // Page triée par catégorie puis ID (apresCategorie = null pour la première page)
+    // Index utilisé : idx_livre_categorie_id (categorie, id)
+    public List<Livre> listerLivresParCategorie(Categorie apresCategorie, int apresId, int taille) throws SQLException {
+        if (apresCategorie == null) {
+            return listerPage(M_PAGE_CATEGORIE, SQL_LIVRES_AVEC_AUTEUR + " ORDER BY l.categorie, l.id LIMIT ?", taille);
+        }
+        String sql = SQL_LIVRES_AVEC_AUTEUR +
+                     " WHERE l.categorie > ? OR (l.categorie = ? AND l.id > ?)" +
+                     " ORDER BY l.categorie, l.id" +
+                     " LIMIT ?";
+        return listerPage(M_PAGE_CATEGORIE, sql, apresCategorie.name(), apresCategorie.name(), apresId, taille);
+    }
+
+    // RATTRAPAGE DU CATALOGUE MÉMOIRE : quels livres existent en base ? (toujours sur la principale)
+
+    // Page d'IDs triés (apresId = 0 pour la première page) : seulement la clé primaire, sans jointure
+    public int[] listerIdsLivres(int apresId, int taille) throws SQLException {
+        long debut = System.nanoTime();
+        int[] ids = new int[taille];
+        int n = 0;
+        try (Connection conn = DatabaseConnection.getConnection(M_IDS);
+             PreparedStatement pstmt = conn.prepareStatement("SELECT id FROM livre WHERE id > ? ORDER BY id LIMIT ?")) {
+            pstmt.setInt(1, apresId);
+            pstmt.setInt(2, taille);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids[n++] = rs.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            M_IDS.echec(debut);
+            throw e;
+        }
+        M_IDS.succes(debut, n, 0);
+        return Arrays.copyOf(ids, n);
+    }
+
+    // Les livres de ces IDs (un seul aller-retour : WHERE id IN (...)), triés par ID
+    public List<Livre> listerLivresParIds(int[] ids) throws SQLException {
+        if (ids.length == 0) {
+            return List.of();
+        }
+        long debut = System.nanoTime();
+        StringBuilder sql = new StringBuilder(SQL_LIVRES_AVEC_AUTEUR).append(" WHERE l.id IN (?");
+        for (int i = 1; i < ids.length; i++) {
+            sql.append(",?");
+        }
+        sql.append(") ORDER BY l.id");
+        List<Livre> livres = new ArrayList<>(ids.length);
+        try (Connection conn = DatabaseConnection.getConnection(M_PAR_IDS);
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < ids.length; i++) {
+                pstmt.setInt(i + 1, ids[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                LecteurLivre lecteur = new LecteurLivre();
+                while (rs.next()) {
+                    livres.add(lecteur.lire(rs));
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            M_PAR_IDS.echec(debut);
+            throw e;
+        }
+        M_PAR_IDS.succes(debut, livres.size(), 0);
+        return livres;
+    }
+
+    // Exécute une requête de page : les "?" sont remplis dans l'ordre avec les paramètres
+    private List<Livre> listerPage(MetriquesOperation metriques, String sql, Object... parametres) throws SQLException {
+        long debut = System.nanoTime();
+        List<Livre> livres = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnectionLecture(metriques);
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < parametres.length; i++) {
+                pstmt.setObject(i + 1, parametres[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                LecteurLivre lecteur = new LecteurLivre();
+                while (rs.next()) {
+                    livres.add(lecteur.lire(rs));
+                }
+            }
+        } catch (SQLException | RuntimeException e) {
+            metriques.echec(debut);
+            throw e;
+        }
+        metriques.succes(debut, livres.size(), 0);
         return livres;
     }
-}
\ No newline at end of file
+}
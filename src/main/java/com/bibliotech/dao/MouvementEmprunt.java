@@ -0,0 +1,21 @@
+package com.bibliotech.dao;
+
+import com.bibliotech.model.Emprunt;
+import java.time.LocalDateTime;
+
+/**
+ * Un changement d'état accepté en mémoire, à reporter dans la table emprunt :
+ * EMPRUNT -> nouvelle ligne, RETOUR -> date_retour de la ligne en cours de cet emprunteur.
+ */
+public record MouvementEmprunt(Type type, int idLivre, String emprunteur, LocalDateTime date) {
+
+    public enum Type { EMPRUNT, RETOUR }
+
+    public static MouvementEmprunt emprunt(Emprunt emprunt) {
+        return new MouvementEmprunt(Type.EMPRUNT, emprunt.getIdLivre(), emprunt.getEmprunteur(), emprunt.getDateEmprunt());
+    }
+
+    public static MouvementEmprunt retour(Emprunt emprunt, LocalDateTime date) {
+        return new MouvementEmprunt(Type.RETOUR, emprunt.getIdLivre(), emprunt.getEmprunteur(), date);
+    }
+}
@@ -0,0 +1,236 @@
+package com.bibliotech.dao;
+
+import com.bibliotech.journal.JournalAsync;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Répartition des LECTURES entre des répliques MySQL ; les écritures restent sur la base principale.
+ *
+ *   DAO (lecture) ──► DatabaseConnection.getConnectionLecture() ──► réplique saine ──► sinon principale
+ *
+ * Choix de la réplique, parmi celles déclarées saines :
+ *   - TOUR_DE_ROLE  : chacune son tour
+ *   - MOINS_CHARGEE : celle qui a le moins de connexions prêtées en ce moment
+ *
+ * Une réplique qui refuse une connexion est écartée tout de suite. Un contrôle de fond la teste
+ * régulièrement (connexion valide + retard de réplication) et la remet en service quand elle répond.
+ * Aucune réplique saine : emprunter() renvoie null et la lecture part sur la principale
+ * (plus de charge pour elle, mais jamais de réponse fausse).
+ */
+public final class RepartiteurLectures {
+
+    public enum Strategie { TOUR_DE_ROLE, MOINS_CHARGEE }
+
+    private final List<Replique> repliques = new ArrayList<>();
+    private final Strategie strategie;
+    private final long retardMaxSecondes;
+    private final AtomicInteger prochaine = new AtomicInteger();
+    private final AtomicLong nbReplisPrincipale = new AtomicLong();
+    private final ScheduledExecutorService controle; // null sans réplique
+
+    private static final JournalAsync JOURNAL = JournalAsync.getInstance();
+
+    /**
+     * urls : une URL JDBC par réplique (liste vide = tout sur la principale).
+     * fabriquePool : crée le pool d'une réplique (mêmes réglages que celui de la principale).
+     * retardMaxSecondes : au-delà de ce retard de réplication, la réplique est écartée.
+     */
+    public RepartiteurLectures(List<String> urls, Function<String, ConnectionPool> fabriquePool,
+                               Strategie strategie, long periodeControleMs, long retardMaxSecondes) {
+        this.strategie = strategie;
+        this.retardMaxSecondes = retardMaxSecondes;
+        if (urls.size() > Long.SIZE) {
+            throw new IllegalArgumentException("Au plus " + Long.SIZE + " répliques : " + urls.size());
+        }
+        for (String url : urls) {
+            repliques.add(new Replique(url, fabriquePool.apply(url)));
+        }
+        if (repliques.isEmpty()) {
+            this.controle = null;
+            return;
+        }
+        this.controle = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "repliques-controle");
+            t.setDaemon(true);
+            return t;
+        });
+        controle.scheduleWithFixedDelay(this::controler, periodeControleMs, periodeControleMs, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean aDesRepliques() {
+        return !repliques.isEmpty();
+    }
+
+    // Une connexion sur une réplique saine, ou null si aucune n'est libre (l'appelant prend la principale).
+    // On n'attend JAMAIS une réplique : pool plein = on passe tout de suite à la suivante.
+    Connection emprunter() {
+        long essayees = 0; // Bit i = réplique i déjà essayée pendant cet appel
+        for (int essai = 0; essai < repliques.size(); essai++) {
+            int i = choisir(essayees);
+            if (i < 0) {
+                break;
+            }
+            essayees |= 1L << i;
+            Replique r = repliques.get(i);
+            try {
+                Connection conn = r.pool.emprunterSansAttendre();
+                if (conn == null) {
+                    r.nbOccupee.incrementAndGet(); // Occupée, pas malade : elle reste en service
+                    continue;
+                }
+                r.nbLectures.incrementAndGet();
+                return conn;
+            } catch (SQLException e) {
+                r.nbEchecs.incrementAndGet();
+                r.ecarter(e.getMessage());
+            }
+        }
+        nbReplisPrincipale.incrementAndGet();
+        return null;
+    }
+
+    // Position de la réplique choisie parmi les saines pas encore essayées, ou -1
+    private int choisir(long essayees) {
+        int n = repliques.size();
+        int depart = Math.floorMod(prochaine.getAndIncrement(), n);
+        if (strategie == Strategie.TOUR_DE_ROLE) {
+            for (int k = 0; k < n; k++) {
+                int i = (depart + k) % n;
+                if (repliques.get(i).saine && (essayees & (1L << i)) == 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        // À charge égale (base peu sollicitée), le point de départ tournant répartit quand même
+        int choix = -1;
+        int chargeChoix = Integer.MAX_VALUE;
+        for (int k = 0; k < n; k++) {
+            int i = (depart + k) % n;
+            Replique r = repliques.get(i);
+            if (r.saine && (essayees & (1L << i)) == 0) {
+                int charge = r.pool.getNbActives();
+                if (charge < chargeChoix) {
+                    choix = i;
+                    chargeChoix = charge;
+                }
+            }
+        }
+        return choix;
+    }
+
+    // CONTRÔLE DE FOND : chaque réplique (saine ou écartée) est testée à chaque passage
+    private void controler() {
+        for (Replique r : repliques) {
+            try (Connection conn = r.pool.emprunter()) {
+                long retard = retardReplication(conn);
+                if (retard > retardMaxSecondes) {
+                    r.ecarter(retard == Long.MAX_VALUE ? "réplication arrêtée" : "retard de réplication de " + retard + " s");
+                } else {
+                    r.remettre();
+                }
+            } catch (SQLException e) {
+                r.ecarter(e.getMessage());
+            }
+        }
+    }
+
+    // Retard de la réplique en secondes (SHOW REPLICA STATUS, MySQL 8.0.22+).
+    // -1 = inconnu (pas de réplication configurée, ou pas le droit REPLICATION CLIENT) : on ne l'écarte pas pour ça.
+    // Long.MAX_VALUE = réplication arrêtée (la colonne vaut NULL) : les données ne bougent plus.
+    private static long retardReplication(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                return -1;
+            }
+            long retard = rs.getLong("Seconds_Behind_Source");
+            return rs.wasNull() ? Long.MAX_VALUE : retard;
+        } catch (SQLException e) {
+            if (!conn.isValid(2)) {
+                throw e; // La réplique ne répond plus du tout
+            }
+            return -1;
+        }
+    }
+
+    // STATISTIQUES
+    public StatistiquesLectures getStatistiques() {
+        List<StatistiquesReplique> parReplique = new ArrayList<>(repliques.size());
+        for (Replique r : repliques) {
+            parReplique.add(new StatistiquesReplique(r.url, r.saine, r.nbLectures.get(), r.nbOccupee.get(),
+                    r.nbEchecs.get(), r.pool.getNbActives()));
+        }
+        return new StatistiquesLectures(strategie, parReplique, nbReplisPrincipale.get());
+    }
+
+    public void fermer() {
+        if (controle != null) {
+            controle.shutdownNow();
+        }
+        for (Replique r : repliques) {
+            r.pool.fermer();
+        }
+    }
+
+    // occupee : fois où son pool était plein (la lecture est partie ailleurs sans attendre)
+    public record StatistiquesReplique(String url, boolean saine, long lectures, long occupee, long echecs, int actives) {
+        @Override
+        public String toString() {
+            return (saine ? "✅ " : "❌ ") + url + " : lectures=" + lectures + ", occupée=" + occupee
+                    + ", échecs=" + echecs + ", actives=" + actives;
+        }
+    }
+
+    // replisPrincipale : lectures parties sur la principale faute de réplique disponible
+    public record StatistiquesLectures(Strategie strategie, List<StatistiquesReplique> repliques, long replisPrincipale) {
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("Lectures[" + strategie + ", replis sur la principale=" + replisPrincipale + "]");
+            for (StatistiquesReplique r : repliques) {
+                sb.append("\n   ").append(r);
+            }
+            return sb.toString();
+        }
+    }
+
+    private static final class Replique {
+        final String url;
+        final ConnectionPool pool;
+        volatile boolean saine = true;
+        final AtomicLong nbLectures = new AtomicLong();
+        final AtomicLong nbOccupee = new AtomicLong();
+        final AtomicLong nbEchecs = new AtomicLong();
+
+        Replique(String url, ConnectionPool pool) {
+            this.url = url;
+            this.pool = pool;
+        }
+
+        // On ne journalise que les changements d'état (pas une ligne par lecture refusée)
+        void ecarter(String raison) {
+            if (saine) {
+                saine = false;
+                JOURNAL.avertissement("RepartiteurLectures", "⚠️ Réplique écartée, lectures reportées", url + " : " + raison);
+            }
+        }
+
+        void remettre() {
+            if (!saine) {
+                saine = true;
+                JOURNAL.avertissement("RepartiteurLectures", "✅ Réplique remise en service", url);
+            }
+        }
+    }
+}
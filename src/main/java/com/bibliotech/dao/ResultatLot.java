@@ -0,0 +1,36 @@
+package com.bibliotech.dao;
+
+import java.util.List;
+
+/**
+ * Compte-rendu d'une insertion par lots.
+ * On sait combien de lignes sont passées, et pour chaque ligne refusée :
+ * sa position dans la collection d'origine, l'objet concerné et la raison.
+ */
+public class ResultatLot<T> {
+
+    private final int nbInseres;
+    private final List<Echec<T>> echecs;
+
+    public ResultatLot(int nbInseres, List<Echec<T>> echecs) {
+        this.nbInseres = nbInseres;
+        this.echecs = List.copyOf(echecs);
+    }
+
+    public int getNbInseres() { return nbInseres; }
+    public List<Echec<T>> getEchecs() { return echecs; }
+    public boolean estComplet() { return echecs.isEmpty(); }
+
+    @Override
+    public String toString() {
+        return "ResultatLot[insérés=" + nbInseres + ", échecs=" + echecs.size() + "]";
+    }
+
+    // Une ligne refusée
+    public record Echec<T>(int position, T element, String raison) {
+        @Override
+        public String toString() {
+            return "#" + position + " (" + element + ") : " + raison;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.bibliotech.exception;
+
+
+// On hérite de RuntimeException : c'est une "Unchecked Exception"
+// Un Stream ne peut pas lancer d'exception "checked" (SQLException) pendant son parcours,
+// on emballe donc l'erreur technique dans celle-ci.
+public class FluxInterrompuException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public FluxInterrompuException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
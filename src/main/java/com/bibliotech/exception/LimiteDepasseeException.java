@@ -0,0 +1,15 @@
+package com.bibliotech.exception;
+
+
+// Levée quand une demande est refusée par le limiteur de concurrence
+// (file d'attente pleine ou délai d'attente dépassé).
+// C'est une BibliothequeException : l'appelant peut la traiter à part ("réessayez plus tard")
+// ou comme n'importe quelle autre erreur métier.
+public class LimiteDepasseeException extends BibliothequeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LimiteDepasseeException(String message) {
+        super(message);
+    }
+}
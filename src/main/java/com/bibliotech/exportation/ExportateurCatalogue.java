@@ -0,0 +1,271 @@
+package com.bibliotech.exportation;
+
+import com.bibliotech.dao.LivreDAO;
+import com.bibliotech.exception.FluxInterrompuException;
+import com.bibliotech.model.Livre;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export du catalogue en CSV ou JSONL, SANS liste intermédiaire :
+ *
+ *   curseur MySQL (streaming) ──► une ligne de texte ──► tampon de 64 Ko ──► FileChannel (ou gzip)
+ *
+ * Un seul livre est en mémoire à la fois : la consommation mémoire est la même pour
+ * 1 000 ou 100 millions de livres.
+ *
+ * Découpage en plusieurs fichiers : les lignes sont distribuées à tour de rôle
+ * (ligne 0 -> fichier 0, ligne 1 -> fichier 1...) : des fichiers de même taille,
+ * à donner chacun à un consommateur en parallèle.
+ *
+ * Les fichiers sont écrits sous un nom temporaire (".part") puis renommés à la fin :
+ * un consommateur ne voit jamais un fichier à moitié écrit.
+ */
+public class ExportateurCatalogue {
+
+    private static final int TAILLE_TAMPON = 64 * 1024;
+    private static final String SUFFIXE_TEMPORAIRE = ".part";
+
+    private final LivreDAO livreDAO;
+
+    public ExportateurCatalogue(LivreDAO livreDAO) {
+        this.livreDAO = livreDAO;
+    }
+
+    /**
+     * Exporte les livres du filtre, triés par ID.
+     * base : chemin sans extension (ex : /exports/catalogue). Avec 1 fichier -> catalogue.csv,
+     * avec n fichiers -> catalogue-000.csv ... catalogue-(n-1).csv. gzip ajoute ".gz".
+     */
+    public RapportExport exporter(Path base, FormatExport format, FiltreExport filtre, int nbFichiers, boolean gzip)
+            throws IOException, SQLException {
+        if (nbFichiers <= 0) {
+            throw new IllegalArgumentException("Le nombre de fichiers doit être positif : " + nbFichiers);
+        }
+        long debutMs = System.currentTimeMillis();
+        List<Path> fichiers = nommerFichiers(base, format, nbFichiers, gzip);
+        List<SortieFichier> sorties = new ArrayList<>(nbFichiers);
+        long nbLignes = 0;
+        boolean termine = false;
+
+        try (Stream<Livre> flux = livreDAO.streamerLivres(filtre.categorie(), filtre.idMin(), filtre.idMax())) {
+            for (Path fichier : fichiers) {
+                sorties.add(new SortieFichier(temporaire(fichier), gzip));
+            }
+            StringBuilder ligne = new StringBuilder(256);
+            if (format == FormatExport.CSV) {
+                ligne.append("id,titre,categorie,nom_auteur,prenom_auteur\n");
+                for (SortieFichier sortie : sorties) {
+                    sortie.ecrire(ligne);
+                }
+            }
+
+            Iterator<Livre> livres = flux.iterator();
+            while (livres.hasNext()) {
+                formater(format, livres.next(), ligne);
+                sorties.get((int) (nbLignes % nbFichiers)).ecrire(ligne);
+                nbLignes++;
+            }
+            for (SortieFichier sortie : sorties) {
+                sortie.close();
+            }
+            termine = true;
+        } catch (FluxInterrompuException e) {
+            // Le curseur a lâché en cours de route : on remonte l'erreur SQL d'origine
+            if (e.getCause() instanceof SQLException erreurSql) {
+                throw erreurSql;
+            }
+            throw e;
+        } finally {
+            if (!termine) {
+                // Échec : pas de fichier partiel laissé derrière nous
+                for (SortieFichier sortie : sorties) {
+                    sortie.abandonner();
+                }
+            }
+        }
+
+        long nbOctets = 0;
+        for (Path fichier : fichiers) {
+            Files.move(temporaire(fichier), fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            nbOctets += Files.size(fichier);
+        }
+        return new RapportExport(nbLignes, List.copyOf(fichiers), nbOctets, System.currentTimeMillis() - debutMs);
+    }
+
+    private static List<Path> nommerFichiers(Path base, FormatExport format, int nbFichiers, boolean gzip) {
+        String nom = base.getFileName().toString();
+        String extension = format.getExtension() + (gzip ? ".gz" : "");
+        List<Path> fichiers = new ArrayList<>(nbFichiers);
+        if (nbFichiers == 1) {
+            fichiers.add(base.resolveSibling(nom + extension));
+        } else {
+            for (int i = 0; i < nbFichiers; i++) {
+                fichiers.add(base.resolveSibling(String.format("%s-%03d%s", nom, i, extension)));
+            }
+        }
+        return fichiers;
+    }
+
+    private static Path temporaire(Path fichier) {
+        return fichier.resolveSibling(fichier.getFileName() + SUFFIXE_TEMPORAIRE);
+    }
+
+    // --- FORMATAGE D'UNE LIGNE (le StringBuilder est réutilisé d'un livre à l'autre) ---
+
+    private static void formater(FormatExport format, Livre livre, StringBuilder ligne) {
+        ligne.setLength(0);
+        if (format == FormatExport.CSV) {
+            ligne.append(livre.getId()).append(',');
+            champCsv(ligne, livre.getTitre()).append(',');
+            ligne.append(livre.getCategorie().name()).append(',');
+            champCsv(ligne, livre.getAuteur().getNom()).append(',');
+            champCsv(ligne, livre.getAuteur().getPrenom());
+        } else {
+            ligne.append("{\"id\": ").append(livre.getId());
+            champJson(ligne, "titre", livre.getTitre());
+            champJson(ligne, "categorie", livre.getCategorie().name());
+            champJson(ligne, "nomAuteur", livre.getAuteur().getNom());
+            champJson(ligne, "prenomAuteur", livre.getAuteur().getPrenom());
+            ligne.append('}');
+        }
+        ligne.append('\n');
+    }
+
+    // Toujours entre guillemets ("" pour un guillemet). Un saut de ligne devient une espace :
+    // une ligne du fichier = un livre, toujours.
+    private static StringBuilder champCsv(StringBuilder ligne, String valeur) {
+        if (valeur == null) {
+            return ligne;
+        }
+        ligne.append('"');
+        for (int i = 0; i < valeur.length(); i++) {
+            char c = valeur.charAt(i);
+            switch (c) {
+                case '"' -> ligne.append("\"\"");
+                case '\n', '\r' -> ligne.append(' ');
+                default -> ligne.append(c);
+            }
+        }
+        return ligne.append('"');
+    }
+
+    private static void champJson(StringBuilder ligne, String cle, String valeur) {
+        ligne.append(", \"").append(cle).append("\": ");
+        if (valeur == null) {
+            ligne.append("null");
+            return;
+        }
+        ligne.append('"');
+        for (int i = 0; i < valeur.length(); i++) {
+            char c = valeur.charAt(i);
+            switch (c) {
+                case '"' -> ligne.append("\\\"");
+                case '\\' -> ligne.append("\\\\");
+                case '\n' -> ligne.append("\\n");
+                case '\r' -> ligne.append("\\r");
+                case '\t' -> ligne.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        ligne.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        ligne.append(c);
+                    }
+                }
+            }
+        }
+        ligne.append('"');
+    }
+
+    /**
+     * Un fichier de sortie : les caractères sont encodés en UTF-8 dans un tampon direct,
+     * envoyé au canal quand il est plein (un appel système par 64 Ko, pas par ligne).
+     */
+    private static final class SortieFichier implements Closeable {
+        private final Path chemin;
+        private final FileChannel fichier;
+        private final WritableByteChannel canal;
+        private final ByteBuffer tampon = ByteBuffer.allocateDirect(TAILLE_TAMPON);
+        private final CharsetEncoder encodeur = StandardCharsets.UTF_8.newEncoder();
+        private CharBuffer caracteres = CharBuffer.allocate(1024);
+
+        SortieFichier(Path chemin, boolean gzip) throws IOException {
+            this.chemin = chemin;
+            this.fichier = FileChannel.open(chemin, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            this.canal = gzip
+                    ? Channels.newChannel(new GZIPOutputStream(Channels.newOutputStream(fichier), TAILLE_TAMPON))
+                    : fichier;
+        }
+
+        void ecrire(StringBuilder texte) throws IOException {
+            if (texte.length() > caracteres.capacity()) {
+                caracteres = CharBuffer.allocate(Math.max(texte.length(), caracteres.capacity() * 2));
+            }
+            caracteres.clear();
+            texte.getChars(0, texte.length(), caracteres.array(), 0);
+            caracteres.limit(texte.length());
+            while (true) {
+                CoderResult resultat = encodeur.encode(caracteres, tampon, false);
+                if (resultat.isOverflow()) {
+                    vider();
+                } else if (resultat.isError()) {
+                    resultat.throwException();
+                } else {
+                    break;
+                }
+            }
+        }
+
+        private void vider() throws IOException {
+            tampon.flip();
+            while (tampon.hasRemaining()) {
+                canal.write(tampon);
+            }
+            tampon.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            caracteres.clear().limit(0);
+            encodeur.encode(caracteres, tampon, true);
+            encodeur.flush(tampon);
+            vider();
+            canal.close(); // gzip : écrit la fin du flux compressé puis ferme le fichier
+            fichier.close();
+        }
+
+        // Ferme sans rien garantir et supprime le fichier temporaire
+        void abandonner() {
+            try {
+                canal.close();
+            } catch (IOException e) {
+                // On abandonne de toute façon
+            }
+            try {
+                fichier.close();
+                Files.deleteIfExists(chemin);
+            } catch (IOException e) {
+                // Le fichier ".part" restera : il sera écrasé au prochain export
+            }
+        }
+    }
+}
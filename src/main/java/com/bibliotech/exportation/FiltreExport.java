@@ -0,0 +1,34 @@
+package com.bibliotech.exportation;
+
+import com.bibliotech.model.Categorie;
+
+/**
+ * Quels livres exporter : une catégorie (null = toutes) et une plage d'ID (bornes incluses).
+ * Exemples : FiltreExport.tous(), FiltreExport.categorie(Categorie.ROMAN),
+ *            FiltreExport.entreIds(1, 100_000), FiltreExport.categorie(Categorie.ROMAN).avecIds(1, 500)
+ */
+public record FiltreExport(Categorie categorie, int idMin, int idMax) {
+
+    public FiltreExport {
+        if (idMin > idMax) {
+            throw new IllegalArgumentException("Plage d'ID vide : " + idMin + " > " + idMax);
+        }
+    }
+
+    public static FiltreExport tous() {
+        return new FiltreExport(null, 0, Integer.MAX_VALUE);
+    }
+
+    public static FiltreExport categorie(Categorie categorie) {
+        return new FiltreExport(categorie, 0, Integer.MAX_VALUE);
+    }
+
+    public static FiltreExport entreIds(int idMin, int idMax) {
+        return new FiltreExport(null, idMin, idMax);
+    }
+
+    // Même catégorie, nouvelle plage d'ID
+    public FiltreExport avecIds(int min, int max) {
+        return new FiltreExport(categorie, min, max);
+    }
+}
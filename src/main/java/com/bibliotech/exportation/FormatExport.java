@@ -0,0 +1,24 @@
+package com.bibliotech.exportation;
+
+/**
+ * Formats d'export (UTF-8, une ligne = un livre).
+ * Les colonnes CSV et les clés JSONL sont celles de l'import en masse : un export se réimporte tel quel
+ * (la colonne / clé "id" est ignorée à l'import).
+ *
+ * CSV   : id,titre,categorie,nom_auteur,prenom_auteur (avec une ligne d'en-tête)
+ * JSONL : {"id": 1, "titre": "...", "categorie": "ROMAN", "nomAuteur": "...", "prenomAuteur": "..."}
+ */
+public enum FormatExport {
+    CSV(".csv"),
+    JSONL(".jsonl");
+
+    private final String extension;
+
+    FormatExport(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
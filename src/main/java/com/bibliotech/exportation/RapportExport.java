@@ -0,0 +1,20 @@
+package com.bibliotech.exportation;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Bilan d'un export : lignes écrites, fichiers produits, octets écrits (après compression), débit.
+ */
+public record RapportExport(long nbLignes, List<Path> fichiers, long nbOctets, long dureeMs) {
+
+    public double getLignesParSeconde() {
+        return dureeMs == 0 ? nbLignes : nbLignes * 1000.0 / dureeMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Export[%d lignes, %d fichier(s), %d Ko, %.0f lignes/s, %d ms]",
+                nbLignes, fichiers.size(), nbOctets / 1024, getLignesParSeconde(), dureeMs);
+    }
+}
@@ -0,0 +1,245 @@
+package com.bibliotech.importation;
+
+import com.bibliotech.model.Categorie;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Découpe une ligne CSV ou JSONL en LigneImport.
+ * Sans état : plusieurs threads d'analyse l'utilisent en même temps.
+ * Une ligne invalide lève une IllegalArgumentException dont le message est la raison du rejet.
+ */
+final class AnalyseurLignes {
+
+    private static final int NB_COLONNES_CSV = 4;
+    private static final List<String> EN_TETE_CSV = List.of("titre", "categorie", "nom_auteur", "prenom_auteur");
+    // Un export CSV (ExportateurCatalogue) a en plus une colonne "id" en tête : ignorée, comme la clé "id" en JSONL
+    private static final String COLONNE_ID_EXPORT = "id";
+
+    private AnalyseurLignes() {
+    }
+
+    static LigneImport analyser(FormatImport format, String ligne, long numeroLigne) {
+        String[] champs = (format == FormatImport.CSV) ? champsCsv(ligne) : champsJson(ligne);
+        String titre = champs[0] == null ? "" : champs[0].trim();
+        if (titre.isEmpty()) {
+            throw new IllegalArgumentException("titre vide");
+        }
+        String nom = champs[2] == null ? "" : champs[2].trim();
+        if (nom.isEmpty()) {
+            throw new IllegalArgumentException("nom de l'auteur vide");
+        }
+        String prenom = champs[3] == null ? "" : champs[3].trim();
+        return new LigneImport(numeroLigne, titre, categorie(champs[1]), nom, prenom);
+    }
+
+    // Ligne d'en-tête CSV : à sauter. Seulement si CHAQUE colonne porte son nom exact (majuscules,
+    // espaces et guillemets tolérés) : un livre "Titres de gloire" en première ligne reste un livre.
+    static boolean estEnTeteCsv(String ligne) {
+        List<String> champs;
+        try {
+            champs = decouperCsv(ligne);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        if (champs.size() == NB_COLONNES_CSV + 1 && champs.get(0).trim().equalsIgnoreCase(COLONNE_ID_EXPORT)) {
+            champs = champs.subList(1, champs.size());
+        }
+        if (champs.size() != NB_COLONNES_CSV) {
+            return false;
+        }
+        for (int i = 0; i < NB_COLONNES_CSV; i++) {
+            if (!champs.get(i).trim().equalsIgnoreCase(EN_TETE_CSV.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Categorie categorie(String valeur) {
+        if (valeur == null || valeur.isBlank()) {
+            throw new IllegalArgumentException("catégorie vide");
+        }
+        try {
+            return Categorie.valueOf(valeur.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("catégorie inconnue '" + valeur.trim() + "'");
+        }
+    }
+
+    // --- CSV ---
+
+    // titre,categorie,nom,prenom — ou id,titre,categorie,nom,prenom (fichier d'export, id ignoré)
+    private static String[] champsCsv(String ligne) {
+        List<String> champs = decouperCsv(ligne);
+        if (champs.size() == NB_COLONNES_CSV + 1) {
+            String id = champs.get(0).trim();
+            if (!id.chars().allMatch(Character::isDigit)) {
+                throw new IllegalArgumentException("id '" + id + "' invalide (1re colonne d'un export)");
+            }
+            champs = champs.subList(1, champs.size());
+        }
+        if (champs.size() != NB_COLONNES_CSV) {
+            throw new IllegalArgumentException(NB_COLONNES_CSV + " colonnes attendues (" + (NB_COLONNES_CSV + 1)
+                    + " avec l'id d'un export), " + champs.size() + " trouvées");
+        }
+        return champs.toArray(new String[0]);
+    }
+
+    // Guillemets facultatifs, "" = un guillemet dans un champ.
+    // Pas de retour à la ligne dans un champ, même entre guillemets : le fichier est découpé en lignes
+    // (et en blocs) AVANT l'analyse, les deux morceaux arrivent ici séparément et sont rejetés.
+    private static List<String> decouperCsv(String ligne) {
+        List<String> champs = new ArrayList<>(NB_COLONNES_CSV + 1);
+        StringBuilder champ = new StringBuilder();
+        boolean entreGuillemets = false;
+        for (int i = 0; i < ligne.length(); i++) {
+            char c = ligne.charAt(i);
+            if (entreGuillemets) {
+                if (c == '"') {
+                    if (i + 1 < ligne.length() && ligne.charAt(i + 1) == '"') {
+                        champ.append('"');
+                        i++;
+                    } else {
+                        entreGuillemets = false;
+                    }
+                } else {
+                    champ.append(c);
+                }
+            } else if (c == '"') {
+                entreGuillemets = true;
+            } else if (c == ',') {
+                champs.add(champ.toString());
+                champ.setLength(0);
+            } else {
+                champ.append(c);
+            }
+        }
+        if (entreGuillemets) {
+            throw new IllegalArgumentException("guillemet non fermé (retour à la ligne dans un champ ?)");
+        }
+        champs.add(champ.toString());
+        return champs;
+    }
+
+    // --- JSONL ---
+
+    // Un objet JSON "plat" par ligne : valeurs texte, nombres (ex : "id" d'un export) ou null
+    private static String[] champsJson(String ligne) {
+        Map<String, String> objet = new HashMap<>();
+        Curseur c = new Curseur(ligne);
+        c.attendre('{');
+        c.sauterEspaces();
+        if (c.suivantEst('}')) {
+            c.pos++;
+        } else {
+            while (true) {
+                String cle = c.lireChaine();
+                c.attendre(':');
+                c.sauterEspaces();
+                String valeur = c.suivantEst('n') ? c.lireNull() : c.suivantEst('"') ? c.lireChaine() : c.lireNombre();
+                objet.put(cle, valeur);
+                c.sauterEspaces();
+                if (c.suivantEst(',')) {
+                    c.pos++;
+                    continue;
+                }
+                c.attendre('}');
+                break;
+            }
+        }
+        c.sauterEspaces();
+        if (c.pos != ligne.length()) {
+            throw new IllegalArgumentException("texte en trop après l'objet JSON");
+        }
+        return new String[] { objet.get("titre"), objet.get("categorie"), objet.get("nomAuteur"), objet.get("prenomAuteur") };
+    }
+
+    private static final class Curseur {
+        final String texte;
+        int pos;
+
+        Curseur(String texte) {
+            this.texte = texte;
+        }
+
+        void sauterEspaces() {
+            while (pos < texte.length() && Character.isWhitespace(texte.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        boolean suivantEst(char c) {
+            return pos < texte.length() && texte.charAt(pos) == c;
+        }
+
+        void attendre(char c) {
+            sauterEspaces();
+            if (!suivantEst(c)) {
+                throw new IllegalArgumentException("JSON invalide : '" + c + "' attendu en position " + pos);
+            }
+            pos++;
+        }
+
+        String lireNull() {
+            if (!texte.startsWith("null", pos)) {
+                throw new IllegalArgumentException("JSON invalide : valeur texte attendue en position " + pos);
+            }
+            pos += 4;
+            return null;
+        }
+
+        String lireNombre() {
+            int debut = pos;
+            while (pos < texte.length() && "+-.eE0123456789".indexOf(texte.charAt(pos)) >= 0) {
+                pos++;
+            }
+            if (pos == debut) {
+                throw new IllegalArgumentException("JSON invalide : valeur attendue en position " + pos);
+            }
+            return texte.substring(debut, pos);
+        }
+
+        String lireChaine() {
+            attendre('"');
+            StringBuilder sb = new StringBuilder();
+            while (pos < texte.length()) {
+                char c = texte.charAt(pos++);
+                if (c == '"') {
+                    return sb.toString();
+                }
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (pos >= texte.length()) {
+                    break;
+                }
+                char e = texte.charAt(pos++);
+                switch (e) {
+                    case '"', '\\', '/' -> sb.append(e);
+                    case 'n' -> sb.append('\n');
+                    case 't' -> sb.append('\t');
+                    case 'r' -> sb.append('\r');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > texte.length()) {
+                            throw new IllegalArgumentException("JSON invalide : \\u incomplet");
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(texte, pos, pos + 4, 16));
+                        } catch (NumberFormatException ex) {
+                            throw new IllegalArgumentException("JSON invalide : \\u" + texte.substring(pos, pos + 4));
+                        }
+                        pos += 4;
+                    }
+                    default -> throw new IllegalArgumentException("JSON invalide : échappement \\" + e);
+                }
+            }
+            throw new IllegalArgumentException("JSON invalide : chaîne non fermée");
+        }
+    }
+}
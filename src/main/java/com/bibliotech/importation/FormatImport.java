@@ -0,0 +1,29 @@
+package com.bibliotech.importation;
+
+import java.nio.file.Path;
+
+/**
+ * Formats de fichiers fournisseurs acceptés par l'import en masse (UTF-8, une ligne = un livre).
+ *
+ * CSV   : titre,categorie,nom_auteur,prenom_auteur
+ *         (ligne d'en-tête facultative, exactement ces noms de colonnes ; champs entre guillemets
+ *         si besoin, "" pour un guillemet ; jamais de retour à la ligne dans un champ : la ligne est rejetée)
+ *         Une colonne "id" en tête (fichier d'ExportateurCatalogue) est acceptée et ignorée.
+ * JSONL : {"titre": "...", "categorie": "ROMAN", "nomAuteur": "...", "prenomAuteur": "..."}
+ */
+public enum FormatImport {
+    CSV,
+    JSONL;
+
+    // Déduit le format de l'extension du fichier (.csv, .jsonl / .ndjson)
+    public static FormatImport depuisExtension(Path fichier) {
+        String nom = fichier.getFileName().toString().toLowerCase();
+        if (nom.endsWith(".csv")) {
+            return CSV;
+        }
+        if (nom.endsWith(".jsonl") || nom.endsWith(".ndjson")) {
+            return JSONL;
+        }
+        throw new IllegalArgumentException("Format de fichier inconnu (attendu .csv ou .jsonl) : " + fichier);
+    }
+}
@@ -0,0 +1,384 @@
+package com.bibliotech.importation;
+
+import com.bibliotech.dao.AuteurDAO;
+import com.bibliotech.dao.LivreDAO;
+import com.bibliotech.dao.ResultatLot;
+import com.bibliotech.journal.JournalAsync;
+import com.bibliotech.journal.Niveau;
+import com.bibliotech.model.Auteur;
+import com.bibliotech.model.Livre;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Import en masse d'un fichier fournisseur (CSV ou JSONL, plusieurs Go possibles).
+ *
+ * Chaîne de traitement, les étages étant reliés par des files bornées :
+ *
+ *   [lecture]  ──blocs bruts──►  [analyse x N]  ──blocs analysés──►  [insertion]
+ *   1 thread                     N threads                           thread appelant
+ *   fichier projeté en mémoire   octets -> LigneImport               auteurs + livres en base,
+ *   (FileChannel.map), par       (en parallèle)                      dans l'ordre du fichier,
+ *   blocs coupés en fin de ligne                                     puis point de reprise
+ *
+ * Contre-pression : la lecture prend un "ticket" par bloc, rendu par l'insertion.
+ * Si la base est lente, la lecture s'arrête d'elle-même : jamais plus de
+ * "4 x N" blocs en mémoire, quelle que soit la taille du fichier.
+ *
+ * Reprise : chaque bloc est inséré en UNE transaction, puis l'octet de fin du bloc est écrit
+ * dans le fichier de reprise. Relancer l'import sur le même fichier repart de là.
+ * Si l'arrêt tombe entre la validation d'un bloc et l'écriture du point de reprise,
+ * ce bloc est relu : la contrainte unique sur le titre refuse alors ses livres (rejets "Duplicate entry").
+ */
+public class ImportateurCatalogue {
+
+    public static final int TAILLE_BLOC_DEFAUT = 1 << 20;        // 1 Mo par bloc
+    private static final int TAILLE_BLOC_MAX = 64 << 20;          // Une ligne de plus de 64 Mo : fichier invalide
+    private static final int MAX_REJETS_DETAILLES = 10_000;
+    private static final int BLOCS_EN_VOL_PAR_THREAD = 4;
+
+    private static final JournalAsync JOURNAL = JournalAsync.getInstance();
+
+    private final LivreDAO livreDAO;
+    private final AuteurDAO auteurDAO;
+    private final int parallelisme;
+    private final int tailleBloc;
+
+    public ImportateurCatalogue(LivreDAO livreDAO, AuteurDAO auteurDAO) {
+        this(livreDAO, auteurDAO, Runtime.getRuntime().availableProcessors(), TAILLE_BLOC_DEFAUT);
+    }
+
+    public ImportateurCatalogue(LivreDAO livreDAO, AuteurDAO auteurDAO, int parallelisme, int tailleBloc) {
+        if (parallelisme <= 0) {
+            throw new IllegalArgumentException("Le parallélisme doit être positif : " + parallelisme);
+        }
+        if (tailleBloc <= 0 || tailleBloc > TAILLE_BLOC_MAX) {
+            throw new IllegalArgumentException("La taille de bloc doit être entre 1 et " + TAILLE_BLOC_MAX + " : " + tailleBloc);
+        }
+        this.livreDAO = livreDAO;
+        this.auteurDAO = auteurDAO;
+        this.parallelisme = parallelisme;
+        this.tailleBloc = tailleBloc;
+    }
+
+    // Bloc d'octets lu dans le fichier, coupé juste après un '\n'
+    private record BlocBrut(long seq, long debut, long fin, ByteBuffer octets) {
+    }
+
+    // Bloc analysé : lignes valides + rejets, numérotés DANS le bloc (le numéro global est fixé à l'insertion)
+    private record BlocAnalyse(long seq, long fin, long nbLignes, List<LigneImport> lignes, List<RejetImport> rejets) {
+    }
+
+    // Signaux de fin ("pilules empoisonnées") : un par thread d'analyse
+    private static final BlocBrut FIN_LECTURE = new BlocBrut(-1, -1, -1, null);
+    private static final BlocAnalyse FIN_ANALYSE = new BlocAnalyse(-1, -1, 0, List.of(), List.of());
+
+    /**
+     * Importe le fichier (ou reprend l'import là où il s'était arrêté).
+     * apresBloc reçoit les livres réellement insérés de chaque bloc (ex : mise à jour d'un cache).
+     */
+    public RapportImport importer(Path fichier, FormatImport format, Consumer<List<Livre>> apresBloc)
+            throws IOException, SQLException {
+        long debutMs = System.currentTimeMillis();
+        PointDeReprise reprise = new PointDeReprise(fichier);
+        PointDeReprise.Etat depart = reprise.lire();
+        if (depart.octet() > 0) {
+            JOURNAL.info("ImportateurCatalogue.importer", "🔁 Reprise de l'import", fichier.getFileName().toString(),
+                    depart.ligne() + 1, -1);
+        }
+
+        Semaphore tickets = new Semaphore(BLOCS_EN_VOL_PAR_THREAD * parallelisme);
+        BlockingQueue<BlocBrut> bruts = new ArrayBlockingQueue<>(BLOCS_EN_VOL_PAR_THREAD * parallelisme + parallelisme);
+        BlockingQueue<BlocAnalyse> analyses = new ArrayBlockingQueue<>(BLOCS_EN_VOL_PAR_THREAD * parallelisme + parallelisme);
+        AtomicReference<Throwable> panne = new AtomicReference<>();
+
+        AtomicInteger numero = new AtomicInteger();
+        ExecutorService threads = Executors.newFixedThreadPool(parallelisme + 1, r -> {
+            Thread t = new Thread(r, "import-" + numero.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        });
+
+        Insertion insertion = new Insertion(depart, reprise, apresBloc);
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            threads.execute(() -> lire(canal, depart.octet(), tickets, bruts, panne));
+            for (int i = 0; i < parallelisme; i++) {
+                threads.execute(() -> analyser(format, bruts, analyses, panne));
+            }
+            insertion.executer(analyses, tickets, panne);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import interrompu (reprise possible à la ligne " + (insertion.ligne + 1) + ")");
+        } finally {
+            threads.shutdownNow(); // Débloque lecture et analyse si l'insertion a échoué
+        }
+
+        Throwable erreur = panne.get();
+        if (erreur != null) {
+            throw new IOException("Import interrompu (reprise possible à la ligne " + (insertion.ligne + 1) + ") : "
+                    + erreur.getMessage(), erreur);
+        }
+        reprise.supprimer(); // Import complet : plus rien à reprendre
+        return new RapportImport(insertion.ligne - depart.ligne(), insertion.nbInseres, insertion.nbRejets,
+                insertion.rejets, insertion.nbAuteursCrees, depart.ligne(), System.currentTimeMillis() - debutMs);
+    }
+
+    // --- ÉTAGE 1 : LECTURE ---
+
+    // Projette le fichier bloc par bloc ; chaque bloc s'arrête après le dernier '\n' qu'il contient
+    private void lire(FileChannel canal, long depart, Semaphore tickets, BlockingQueue<BlocBrut> sortie,
+                      AtomicReference<Throwable> panne) {
+        try {
+            long taille = canal.size();
+            long pos = depart;
+            long seq = 0;
+            while (pos < taille) {
+                tickets.acquire(); // Contre-pression : attend que l'insertion ait fini un bloc
+                long longueur = Math.min(tailleBloc, taille - pos);
+                MappedByteBuffer zone = canal.map(FileChannel.MapMode.READ_ONLY, pos, longueur);
+                int coupure = apresDernierSautDeLigne(zone);
+                // Aucune fin de ligne dans le bloc : la ligne est plus longue que le bloc, on l'agrandit
+                while (coupure < 0 && pos + longueur < taille) {
+                    if (longueur >= TAILLE_BLOC_MAX) {
+                        throw new IOException("Ligne de plus de " + TAILLE_BLOC_MAX + " octets à l'octet " + pos);
+                    }
+                    longueur = Math.min(Math.min(longueur * 2, TAILLE_BLOC_MAX), taille - pos);
+                    zone = canal.map(FileChannel.MapMode.READ_ONLY, pos, longueur);
+                    coupure = apresDernierSautDeLigne(zone);
+                }
+                if (coupure < 0) {
+                    coupure = (int) longueur; // Dernière ligne du fichier, sans '\n' final
+                }
+                sortie.put(new BlocBrut(seq++, pos, pos + coupure, zone.slice(0, coupure)));
+                pos += coupure;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return; // Arrêt demandé par l'insertion
+        } catch (IOException | RuntimeException e) {
+            panne.compareAndSet(null, e);
+        }
+        try {
+            for (int i = 0; i < parallelisme; i++) {
+                sortie.put(FIN_LECTURE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static int apresDernierSautDeLigne(ByteBuffer zone) {
+        for (int i = zone.limit() - 1; i >= 0; i--) {
+            if (zone.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    // --- ÉTAGE 2 : ANALYSE (en parallèle) ---
+
+    private void analyser(FormatImport format, BlockingQueue<BlocBrut> entree, BlockingQueue<BlocAnalyse> sortie,
+                          AtomicReference<Throwable> panne) {
+        try {
+            while (true) {
+                BlocBrut bloc = entree.take();
+                if (bloc == FIN_LECTURE) {
+                    break;
+                }
+                try {
+                    sortie.put(analyserBloc(format, bloc));
+                } catch (RuntimeException e) {
+                    panne.compareAndSet(null, e);
+                    break;
+                }
+            }
+            sortie.put(FIN_ANALYSE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // Arrêt demandé par l'insertion
+        }
+    }
+
+    private BlocAnalyse analyserBloc(FormatImport format, BlocBrut bloc) {
+        String texte = StandardCharsets.UTF_8.decode(bloc.octets()).toString();
+        List<LigneImport> lignes = new ArrayList<>();
+        List<RejetImport> rejets = new ArrayList<>();
+        long numero = 0;
+        int debut = 0;
+        while (debut < texte.length()) {
+            int fin = texte.indexOf('\n', debut);
+            if (fin < 0) {
+                fin = texte.length();
+            }
+            String ligne = texte.substring(debut, (fin > debut && texte.charAt(fin - 1) == '\r') ? fin - 1 : fin);
+            numero++;
+            debut = fin + 1;
+
+            boolean enTete = bloc.debut() == 0 && numero == 1
+                    && format == FormatImport.CSV && AnalyseurLignes.estEnTeteCsv(ligne);
+            if (enTete || ligne.isBlank()) {
+                continue;
+            }
+            try {
+                lignes.add(AnalyseurLignes.analyser(format, ligne, numero));
+            } catch (IllegalArgumentException e) {
+                rejets.add(RejetImport.de(numero, ligne, e.getMessage()));
+            }
+        }
+        return new BlocAnalyse(bloc.seq(), bloc.fin(), numero, lignes, rejets);
+    }
+
+    // --- ÉTAGE 3 : INSERTION (thread appelant, dans l'ordre du fichier) ---
+
+    private final class Insertion {
+        final PointDeReprise reprise;
+        final Consumer<List<Livre>> apresBloc;
+
+        // Auteurs connus (base + créés pendant l'import), par "nom|prénom" sans majuscules
+        final Map<String, Auteur> auteurs = new HashMap<>();
+        // Blocs arrivés en avance (un thread d'analyse a été plus rapide qu'un autre)
+        final Map<Long, BlocAnalyse> enAvance = new HashMap<>();
+
+        long ligne;              // Lignes du fichier déjà traitées (base de numérotation du bloc suivant)
+        long nbInseres;
+        long nbRejets;
+        long nbAuteursCrees;
+        final List<RejetImport> rejets = new ArrayList<>();
+
+        Insertion(PointDeReprise.Etat depart, PointDeReprise reprise, Consumer<List<Livre>> apresBloc) {
+            this.reprise = reprise;
+            this.apresBloc = apresBloc;
+            this.ligne = depart.ligne();
+        }
+
+        void executer(BlockingQueue<BlocAnalyse> entree, Semaphore tickets, AtomicReference<Throwable> panne)
+                throws InterruptedException, IOException, SQLException {
+            for (Auteur a : auteurDAO.listerTousLesAuteurs()) {
+                auteurs.putIfAbsent(cleAuteur(a.getNom(), a.getPrenom()), a);
+            }
+            long attendu = 0;
+            int finsRecues = 0;
+            while (finsRecues < parallelisme) {
+                BlocAnalyse bloc = entree.poll(100, TimeUnit.MILLISECONDS);
+                if (bloc == null) {
+                    if (panne.get() != null) {
+                        return; // Lecture ou analyse en panne : le bloc manquant n'arrivera jamais
+                    }
+                    continue;
+                }
+                if (bloc == FIN_ANALYSE) {
+                    finsRecues++;
+                    continue;
+                }
+                enAvance.put(bloc.seq(), bloc);
+                // On insère tous les blocs qui se suivent à partir du prochain attendu
+                while ((bloc = enAvance.remove(attendu)) != null) {
+                    inserer(bloc);
+                    tickets.release();
+                    attendu++;
+                }
+            }
+        }
+
+        private void inserer(BlocAnalyse bloc) throws SQLException, IOException {
+            long debut = System.nanoTime();
+            for (RejetImport r : bloc.rejets()) {
+                rejeter(r.numeroLigne(), r.contenu(), r.raison());
+            }
+
+            // 1. Les auteurs inconnus du bloc sont créés en un seul lot
+            Map<String, Auteur> nouveaux = new LinkedHashMap<>();
+            for (LigneImport l : bloc.lignes()) {
+                String cle = cleAuteur(l.nomAuteur(), l.prenomAuteur());
+                if (!auteurs.containsKey(cle)) {
+                    nouveaux.putIfAbsent(cle, new Auteur(l.nomAuteur(), l.prenomAuteur()));
+                }
+            }
+            Map<String, String> auteursRefuses = new HashMap<>();
+            if (!nouveaux.isEmpty()) {
+                ResultatLot<Auteur> resultat = auteurDAO.ajouterAuteurs(nouveaux.values());
+                Set<Auteur> refuses = Collections.newSetFromMap(new IdentityHashMap<>());
+                resultat.getEchecs().forEach(e -> refuses.add(e.element()));
+                for (Map.Entry<String, Auteur> e : nouveaux.entrySet()) {
+                    if (refuses.contains(e.getValue()) || e.getValue().getId() <= 0) {
+                        auteursRefuses.put(e.getKey(), "auteur non créé");
+                    } else {
+                        auteurs.put(e.getKey(), e.getValue());
+                    }
+                }
+                nbAuteursCrees += resultat.getNbInseres();
+            }
+
+            // 2. Les livres du bloc : une seule transaction (taille de lot = taille du bloc)
+            List<Livre> livres = new ArrayList<>(bloc.lignes().size());
+            List<LigneImport> sources = new ArrayList<>(bloc.lignes().size());
+            for (LigneImport l : bloc.lignes()) {
+                String cle = cleAuteur(l.nomAuteur(), l.prenomAuteur());
+                if (auteursRefuses.containsKey(cle)) {
+                    rejeter(l.numeroLigne(), l.titre(), auteursRefuses.get(cle));
+                    continue;
+                }
+                livres.add(new Livre(0, l.titre(), auteurs.get(cle), l.categorie()));
+                sources.add(l);
+            }
+            if (!livres.isEmpty()) {
+                ResultatLot<Livre> resultat = livreDAO.ajouterLivres(livres, livres.size());
+                Set<Livre> refuses = Collections.newSetFromMap(new IdentityHashMap<>());
+                for (ResultatLot.Echec<Livre> e : resultat.getEchecs()) {
+                    refuses.add(e.element());
+                    LigneImport source = sources.get(e.position());
+                    rejeter(source.numeroLigne(), source.titre(), e.raison());
+                }
+                nbInseres += resultat.getNbInseres();
+                if (apresBloc != null) {
+                    apresBloc.accept(livres.stream().filter(l -> !refuses.contains(l) && l.getId() > 0).toList());
+                }
+            }
+
+            // 3. Bloc validé en base : on avance le point de reprise
+            ligne += bloc.nbLignes();
+            reprise.ecrire(new PointDeReprise.Etat(bloc.fin(), ligne));
+
+            if (JOURNAL.estActif(Niveau.INFO)) {
+                JOURNAL.deposer(Niveau.INFO, "ImportateurCatalogue.importer", "📦 Bloc importé",
+                        bloc.lignes().size() + " livres, jusqu'à la ligne " + ligne, bloc.seq(), System.nanoTime() - debut);
+            }
+        }
+
+        // Le numéro reçu est relatif au bloc : on le rend absolu
+        private void rejeter(long numeroDansBloc, String contenu, String raison) {
+            nbRejets++;
+            if (rejets.size() < MAX_REJETS_DETAILLES) {
+                rejets.add(RejetImport.de(ligne + numeroDansBloc, contenu, raison));
+            }
+        }
+    }
+
+    private static String cleAuteur(String nom, String prenom) {
+        return (nom == null ? "" : nom.trim().toLowerCase()) + "|" + (prenom == null ? "" : prenom.trim().toLowerCase());
+    }
+}
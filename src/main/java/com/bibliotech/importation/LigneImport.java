@@ -0,0 +1,7 @@
+package com.bibliotech.importation;
+
+import com.bibliotech.model.Categorie;
+
+// Une ligne du fichier, déjà découpée et vérifiée (l'auteur n'est pas encore résolu en base)
+record LigneImport(long numeroLigne, String titre, Categorie categorie, String nomAuteur, String prenomAuteur) {
+}
@@ -0,0 +1,83 @@
+package com.bibliotech.importation;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Fichier de reprise d'un import ("catalogue.csv" -> "catalogue.csv.reprise").
+ * Il est réécrit après chaque bloc VALIDÉ en base : il donne l'octet et le numéro de ligne
+ * à partir desquels reprendre si l'import s'arrête (panne, arrêt de la JVM...).
+ * Il est supprimé quand l'import se termine normalement.
+ */
+final class PointDeReprise {
+
+    // Où en est l'import : tout ce qui est avant "octet" est déjà en base
+    record Etat(long octet, long ligne) {
+        static final Etat DEBUT = new Etat(0, 0);
+    }
+
+    private final Path fichierReprise;
+    private final long tailleSource;
+    private final long dateSource;
+
+    PointDeReprise(Path source) throws IOException {
+        this.fichierReprise = source.resolveSibling(source.getFileName() + ".reprise");
+        this.tailleSource = Files.size(source);
+        this.dateSource = Files.getLastModifiedTime(source).toMillis();
+    }
+
+    Path getFichier() {
+        return fichierReprise;
+    }
+
+    /**
+     * L'état enregistré, ou DEBUT s'il n'y en a pas.
+     * Un point de reprise écrit pour une autre version du fichier (taille ou date différente)
+     * est ignoré : on recommence du début (la contrainte unique sur le titre écarte les doublons).
+     */
+    Etat lire() throws IOException {
+        if (!Files.exists(fichierReprise)) {
+            return Etat.DEBUT;
+        }
+        Properties p = new Properties();
+        try (Reader in = Files.newBufferedReader(fichierReprise, StandardCharsets.UTF_8)) {
+            p.load(in);
+        }
+        try {
+            long taille = Long.parseLong(p.getProperty("taille"));
+            long date = Long.parseLong(p.getProperty("date"));
+            long octet = Long.parseLong(p.getProperty("octet"));
+            long ligne = Long.parseLong(p.getProperty("ligne"));
+            if (taille != tailleSource || date != dateSource || octet < 0 || octet > tailleSource) {
+                return Etat.DEBUT;
+            }
+            return new Etat(octet, ligne);
+        } catch (NumberFormatException | NullPointerException e) {
+            return Etat.DEBUT; // Fichier de reprise abîmé
+        }
+    }
+
+    // Écriture atomique : fichier temporaire puis renommage (jamais de fichier à moitié écrit)
+    void ecrire(Etat etat) throws IOException {
+        Properties p = new Properties();
+        p.setProperty("taille", Long.toString(tailleSource));
+        p.setProperty("date", Long.toString(dateSource));
+        p.setProperty("octet", Long.toString(etat.octet()));
+        p.setProperty("ligne", Long.toString(etat.ligne()));
+        Path temporaire = fichierReprise.resolveSibling(fichierReprise.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(temporaire, StandardCharsets.UTF_8)) {
+            p.store(out, "Point de reprise de l'import BiblioTech");
+        }
+        Files.move(temporaire, fichierReprise, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    void supprimer() throws IOException {
+        Files.deleteIfExists(fichierReprise);
+    }
+}
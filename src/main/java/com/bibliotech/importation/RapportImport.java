@@ -0,0 +1,50 @@
+package com.bibliotech.importation;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bilan d'un import : lignes lues / insérées / rejetées, auteurs créés, débit.
+ * Les rejets sont détaillés (numéro de ligne + raison) jusqu'à une certaine limite,
+ * au-delà seul leur nombre est gardé.
+ */
+public class RapportImport {
+
+    private final long lignesLues;
+    private final long livresInseres;
+    private final long nbRejets;
+    private final List<RejetImport> rejets;
+    private final long auteursCrees;
+    private final long repriseDepuisLigne;
+    private final long dureeMs;
+
+    RapportImport(long lignesLues, long livresInseres, long nbRejets, List<RejetImport> rejets,
+                  long auteursCrees, long repriseDepuisLigne, long dureeMs) {
+        this.lignesLues = lignesLues;
+        this.livresInseres = livresInseres;
+        this.nbRejets = nbRejets;
+        this.rejets = Collections.unmodifiableList(rejets);
+        this.auteursCrees = auteursCrees;
+        this.repriseDepuisLigne = repriseDepuisLigne;
+        this.dureeMs = dureeMs;
+    }
+
+    public long getLignesLues() { return lignesLues; }
+    public long getLivresInseres() { return livresInseres; }
+    public long getNbRejets() { return nbRejets; }
+    public List<RejetImport> getRejets() { return rejets; } // Peut être incomplète (voir getNbRejets)
+    public long getAuteursCrees() { return auteursCrees; }
+    public long getRepriseDepuisLigne() { return repriseDepuisLigne; } // 0 = import depuis le début
+    public long getDureeMs() { return dureeMs; }
+
+    public double getLignesParSeconde() {
+        return dureeMs == 0 ? lignesLues : lignesLues * 1000.0 / dureeMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Import[lues=%d, insérées=%d, rejetées=%d, auteurs créés=%d, %.0f lignes/s, %d ms%s]",
+                lignesLues, livresInseres, nbRejets, auteursCrees, getLignesParSeconde(), dureeMs,
+                repriseDepuisLigne > 0 ? ", repris à la ligne " + (repriseDepuisLigne + 1) : "");
+    }
+}
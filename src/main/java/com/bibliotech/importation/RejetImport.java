@@ -0,0 +1,22 @@
+package com.bibliotech.importation;
+
+/**
+ * Une ligne refusée par l'import : son numéro dans le fichier (à partir de 1),
+ * son contenu (tronqué) et la raison du refus.
+ */
+public record RejetImport(long numeroLigne, String contenu, String raison) {
+
+    private static final int LONGUEUR_MAX_CONTENU = 200;
+
+    static RejetImport de(long numeroLigne, String contenu, String raison) {
+        String extrait = (contenu != null && contenu.length() > LONGUEUR_MAX_CONTENU)
+                ? contenu.substring(0, LONGUEUR_MAX_CONTENU) + "…"
+                : contenu;
+        return new RejetImport(numeroLigne, extrait, raison);
+    }
+
+    @Override
+    public String toString() {
+        return "ligne " + numeroLigne + " : " + raison + " -> " + contenu;
+    }
+}
@@ -0,0 +1,118 @@
+package com.bibliotech.instantane;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Briques communes à l'instantané et au journal de deltas.
+ * Texte = longueur en octets (int, -1 pour null) puis les octets UTF-8. Entiers en big-endian.
+ */
+final class CodecBinaire {
+
+    private CodecBinaire() {
+    }
+
+    static byte[] octets(String texte) {
+        return texte == null ? null : texte.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Place occupée par un texte déjà encodé
+    static int taille(byte[] octets) {
+        return Integer.BYTES + (octets == null ? 0 : octets.length);
+    }
+
+    static void ecrireTexte(ByteBuffer tampon, byte[] octets) {
+        if (octets == null) {
+            tampon.putInt(-1);
+        } else {
+            tampon.putInt(octets.length).put(octets);
+        }
+    }
+
+    // Lève BufferUnderflowException si le tampon est tronqué (à convertir par l'appelant)
+    static String lireTexte(ByteBuffer tampon) throws IOException {
+        int longueur = tampon.getInt();
+        if (longueur == -1) {
+            return null;
+        }
+        if (longueur < 0 || longueur > tampon.remaining()) {
+            throw new IOException("Longueur de texte invalide : " + longueur);
+        }
+        byte[] octets = new byte[longueur];
+        tampon.get(octets);
+        return new String(octets, StandardCharsets.UTF_8);
+    }
+
+    // CRC32C (instruction matérielle sur les processeurs récents) des octets entre position et limite
+    static int crc(ByteBuffer tampon) {
+        CRC32C crc = new CRC32C();
+        crc.update(tampon.duplicate());
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Écriture séquentielle dans un FileChannel à travers un tampon direct de 64 Ko,
+     * avec le CRC32C et la longueur de tout ce qui passe.
+     */
+    static final class Sortie {
+        private final FileChannel canal;
+        private final ByteBuffer tampon = ByteBuffer.allocateDirect(64 * 1024);
+        private final CRC32C crc = new CRC32C();
+        private long longueur;
+
+        Sortie(FileChannel canal) {
+            this.canal = canal;
+        }
+
+        void ecrireInt(int valeur) throws IOException {
+            place(Integer.BYTES);
+            tampon.putInt(valeur);
+        }
+
+        void ecrireOctet(int valeur) throws IOException {
+            place(1);
+            tampon.put((byte) valeur);
+        }
+
+        void ecrireTexte(String texte) throws IOException {
+            byte[] octets = octets(texte);
+            ecrireInt(octets == null ? -1 : octets.length);
+            if (octets == null) {
+                return;
+            }
+            // Un texte plus long que le tampon passe en plusieurs morceaux
+            int debut = 0;
+            while (debut < octets.length) {
+                if (!tampon.hasRemaining()) {
+                    vider();
+                }
+                int n = Math.min(tampon.remaining(), octets.length - debut);
+                tampon.put(octets, debut, n);
+                debut += n;
+            }
+        }
+
+        private void place(int n) throws IOException {
+            if (tampon.remaining() < n) {
+                vider();
+            }
+        }
+
+        void vider() throws IOException {
+            tampon.flip();
+            crc.update(tampon);
+            tampon.rewind();
+            longueur += tampon.remaining();
+            while (tampon.hasRemaining()) {
+                canal.write(tampon);
+            }
+            tampon.clear();
+        }
+
+        long getLongueur() { return longueur; }
+        int getCrc() { return (int) crc.getValue(); }
+    }
+}
@@ -0,0 +1,13 @@
+package com.bibliotech.instantane;
+
+import com.bibliotech.model.Auteur;
+import com.bibliotech.model.Livre;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Un instantané relu : l'en-tête, les livres (dans l'ordre du fichier) et les auteurs par ID
+ * (un seul objet Auteur par auteur, partagé par ses livres et par les deltas relus ensuite).
+ */
+public record ContenuInstantane(EnTeteInstantane enTete, List<Livre> livres, Map<Integer, Auteur> auteurs) {
+}
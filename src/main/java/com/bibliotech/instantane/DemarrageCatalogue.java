@@ -0,0 +1,23 @@
+package com.bibliotech.instantane;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Bilan d'un démarrage du catalogue.
+ * depuisInstantane = false : instantané absent ou invalide, le catalogue a été lu dans MySQL
+ * (et un nouvel instantané écrit pour le prochain démarrage).
+ * rattrapage : se termine quand les livres présents en base mais absents de l'instantané
+ * et des deltas sont chargés (valeur = nombre de livres rattrapés).
+ */
+public record DemarrageCatalogue(boolean depuisInstantane, int nbLivresInstantane, int nbLivresDeltas,
+                                 long dureeChargementMs, CompletableFuture<Integer> rattrapage) {
+
+    @Override
+    public String toString() {
+        return depuisInstantane
+                ? String.format("Démarrage[instantané : %d livres + %d deltas en %d ms, rattrapage %s]",
+                        nbLivresInstantane, nbLivresDeltas, dureeChargementMs,
+                        rattrapage.isDone() ? "terminé" : "en cours")
+                : String.format("Démarrage[depuis MySQL : %d livres en %d ms]", nbLivresInstantane, dureeChargementMs);
+    }
+}
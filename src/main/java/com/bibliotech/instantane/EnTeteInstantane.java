@@ -0,0 +1,16 @@
+package com.bibliotech.instantane;
+
+/**
+ * Ce que dit l'en-tête d'un fichier instantané.
+ * identifiant : tiré au hasard à l'écriture, il relie le journal de deltas à SON instantané.
+ * idMaxLivre  : plus grand ID de livre présent (information : le rattrapage compare tous les IDs).
+ */
+public record EnTeteInstantane(long identifiant, long horodatageMs, int idMaxLivre,
+                               int nbAuteurs, int nbLivres, long tailleOctets) {
+
+    @Override
+    public String toString() {
+        return String.format("Instantané[%d livres, %d auteurs, id max=%d, %d Ko]",
+                nbLivres, nbAuteurs, idMaxLivre, tailleOctets / 1024);
+    }
+}
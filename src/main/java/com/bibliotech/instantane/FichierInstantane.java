@@ -0,0 +1,201 @@
+package com.bibliotech.instantane;
+
+import com.bibliotech.model.Auteur;
+import com.bibliotech.model.Categorie;
+import com.bibliotech.model.Livre;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Instantané binaire du catalogue (livres + auteurs), pour démarrer sans relire toute la jointure
+ * livre/auteur dans MySQL.
+ *
+ * Disposition du fichier (entiers big-endian) :
+ *
+ *   EN-TÊTE (56 octets)
+ *     0  int    magie "BTCS"
+ *     4  short  version du format
+ *     6  short  (réservé)
+ *     8  long   identifiant de l'instantané
+ *    16  long   date d'écriture (ms)
+ *    24  int    plus grand ID de livre
+ *    28  int    nombre de catégories
+ *    32  int    nombre d'auteurs
+ *    36  int    nombre de livres
+ *    40  long   longueur des données
+ *    48  int    CRC32C des données
+ *    52  int    CRC32C de l'en-tête (octets 0 à 51)
+ *   DONNÉES
+ *     catégories : nom            (le numéro d'une catégorie = sa position ici, pas son ordinal Java :
+ *                                  réordonner l'enum ne casse pas les anciens fichiers)
+ *     auteurs    : id, nom, prénom
+ *     livres     : id, id auteur, numéro de catégorie (octet), titre
+ *
+ * Lecture : le fichier est projeté en mémoire (mmap) ; le système le lit depuis son cache disque,
+ * sans copie vers un tampon Java, puis on vérifie les deux CRC avant de décoder.
+ * Écriture : dans un fichier ".part", forcé sur disque, puis renommé : un lecteur voit l'ancien
+ * instantané complet ou le nouveau complet, jamais un mélange.
+ */
+public final class FichierInstantane {
+
+    static final int MAGIE = 0x42544353; // "BTCS"
+    static final short VERSION_FORMAT = 1;
+    static final int TAILLE_EN_TETE = 56;
+    private static final int POSITION_CRC_EN_TETE = 52;
+
+    private FichierInstantane() {
+    }
+
+    // Écrit les livres (et leurs auteurs) dans le fichier, en remplaçant l'ancien instantané
+    public static EnTeteInstantane ecrire(Path fichier, Collection<Livre> livres) throws IOException {
+        Map<Integer, Auteur> auteurs = new LinkedHashMap<>();
+        int idMax = 0;
+        for (Livre l : livres) {
+            auteurs.putIfAbsent(l.getAuteur().getId(), l.getAuteur());
+            idMax = Math.max(idMax, l.getId());
+        }
+        Categorie[] categories = Categorie.values();
+        long identifiant = ThreadLocalRandom.current().nextLong();
+        long horodatage = System.currentTimeMillis();
+
+        Path temporaire = fichier.resolveSibling(fichier.getFileName() + ".part");
+        boolean termine = false;
+        long taille;
+        try (FileChannel canal = FileChannel.open(temporaire, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // 1. Les données, après la place réservée à l'en-tête
+            canal.position(TAILLE_EN_TETE);
+            CodecBinaire.Sortie sortie = new CodecBinaire.Sortie(canal);
+            for (Categorie c : categories) {
+                sortie.ecrireTexte(c.name());
+            }
+            for (Auteur a : auteurs.values()) {
+                sortie.ecrireInt(a.getId());
+                sortie.ecrireTexte(a.getNom());
+                sortie.ecrireTexte(a.getPrenom());
+            }
+            for (Livre l : livres) {
+                sortie.ecrireInt(l.getId());
+                sortie.ecrireInt(l.getAuteur().getId());
+                sortie.ecrireOctet(l.getCategorie().ordinal());
+                sortie.ecrireTexte(l.getTitre());
+            }
+            sortie.vider();
+
+            // 2. L'en-tête, qui connaît maintenant la longueur et le CRC des données
+            ByteBuffer enTete = ByteBuffer.allocate(TAILLE_EN_TETE);
+            enTete.putInt(MAGIE).putShort(VERSION_FORMAT).putShort((short) 0)
+                  .putLong(identifiant).putLong(horodatage).putInt(idMax)
+                  .putInt(categories.length).putInt(auteurs.size()).putInt(livres.size())
+                  .putLong(sortie.getLongueur()).putInt(sortie.getCrc());
+            enTete.putInt(CodecBinaire.crc(enTete.duplicate().flip()));
+            enTete.flip();
+            long position = 0;
+            while (enTete.hasRemaining()) {
+                position += canal.write(enTete, position);
+            }
+            canal.force(true);
+            taille = TAILLE_EN_TETE + sortie.getLongueur();
+            termine = true;
+        } finally {
+            if (!termine) {
+                Files.deleteIfExists(temporaire);
+            }
+        }
+        Files.move(temporaire, fichier, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new EnTeteInstantane(identifiant, horodatage, idMax, auteurs.size(), livres.size(), taille);
+    }
+
+    /**
+     * Relit un instantané. Lève IOException (sans rien charger) si le fichier n'est pas un instantané,
+     * vient d'une version de format inconnue, est tronqué ou abîmé (CRC faux).
+     */
+    public static ContenuInstantane charger(Path fichier) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            long taille = canal.size();
+            if (taille < TAILLE_EN_TETE) {
+                throw new IOException("Instantané trop court (" + taille + " octets) : " + fichier);
+            }
+            if (taille > Integer.MAX_VALUE) {
+                throw new IOException("Instantané trop gros pour une seule projection (" + taille + " octets)");
+            }
+            MappedByteBuffer carte = canal.map(FileChannel.MapMode.READ_ONLY, 0, taille);
+            // La projection reste valable après la fermeture du canal
+
+            // --- En-tête ---
+            if (carte.getInt(0) != MAGIE) {
+                throw new IOException("Ce fichier n'est pas un instantané BiblioTech : " + fichier);
+            }
+            short version = carte.getShort(4);
+            if (version != VERSION_FORMAT) {
+                throw new IOException("Version de format " + version + " non prise en charge (attendue : "
+                        + VERSION_FORMAT + ")");
+            }
+            if (CodecBinaire.crc(carte.slice(0, POSITION_CRC_EN_TETE)) != carte.getInt(POSITION_CRC_EN_TETE)) {
+                throw new IOException("En-tête de l'instantané abîmé (CRC faux)");
+            }
+            long identifiant = carte.getLong(8);
+            long horodatage = carte.getLong(16);
+            int idMax = carte.getInt(24);
+            int nbCategories = carte.getInt(28);
+            int nbAuteurs = carte.getInt(32);
+            int nbLivres = carte.getInt(36);
+            long longueur = carte.getLong(40);
+            if (TAILLE_EN_TETE + longueur != taille) {
+                throw new IOException("Instantané tronqué : " + (taille - TAILLE_EN_TETE) + " octets de données au lieu de "
+                        + longueur);
+            }
+            ByteBuffer donnees = carte.slice(TAILLE_EN_TETE, (int) longueur);
+            if (CodecBinaire.crc(donnees) != carte.getInt(48)) {
+                throw new IOException("Données de l'instantané abîmées (CRC faux)");
+            }
+
+            // --- Données ---
+            Categorie[] categories = new Categorie[nbCategories];
+            for (int i = 0; i < nbCategories; i++) {
+                String nom = CodecBinaire.lireTexte(donnees);
+                try {
+                    categories[i] = Categorie.valueOf(nom);
+                } catch (IllegalArgumentException | NullPointerException e) {
+                    throw new IOException("Catégorie inconnue dans l'instantané : " + nom);
+                }
+            }
+            Map<Integer, Auteur> auteurs = new HashMap<>(nbAuteurs * 4 / 3 + 1);
+            for (int i = 0; i < nbAuteurs; i++) {
+                int id = donnees.getInt();
+                auteurs.put(id, new Auteur(id, CodecBinaire.lireTexte(donnees), CodecBinaire.lireTexte(donnees)));
+            }
+            List<Livre> livres = new ArrayList<>(nbLivres);
+            for (int i = 0; i < nbLivres; i++) {
+                int id = donnees.getInt();
+                Auteur auteur = auteurs.get(donnees.getInt());
+                int categorie = donnees.get();
+                if (auteur == null || categorie < 0 || categorie >= nbCategories) {
+                    throw new IOException("Livre n°" + i + " incohérent dans l'instantané (id=" + id + ")");
+                }
+                livres.add(new Livre(id, CodecBinaire.lireTexte(donnees), auteur, categories[categorie]));
+            }
+            if (donnees.hasRemaining()) {
+                throw new IOException("Octets en trop à la fin de l'instantané : " + donnees.remaining());
+            }
+            EnTeteInstantane enTete = new EnTeteInstantane(identifiant, horodatage, idMax, nbAuteurs, nbLivres, taille);
+            return new ContenuInstantane(enTete, livres, auteurs);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Instantané tronqué (données plus courtes que annoncé)", e);
+        }
+    }
+}
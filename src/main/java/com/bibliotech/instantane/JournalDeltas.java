@@ -0,0 +1,211 @@
+package com.bibliotech.instantane;
+
+import com.bibliotech.model.Auteur;
+import com.bibliotech.model.Categorie;
+import com.bibliotech.model.Livre;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Journal des livres ajoutés depuis l'instantané ("catalogue.bin" -> "catalogue.bin.deltas").
+ * On n'y fait qu'ajouter à la fin : un ajout de livre coûte une écriture de quelques dizaines d'octets,
+ * au lieu de réécrire tout l'instantané.
+ *
+ *   EN-TÊTE (16 octets) : magie "BTCD", version, (réservé), identifiant de l'instantané
+ *   ENREGISTREMENTS     : longueur (int), CRC32C (int), puis
+ *                         type, id livre, titre, catégorie (nom), id auteur, nom, prénom
+ *
+ * L'identifiant relie le journal à SON instantané : un journal laissé par un instantané plus ancien
+ * est vidé à l'ouverture. À la relecture, on s'arrête au premier enregistrement incomplet ou abîmé
+ * (arrêt brutal pendant une écriture) et on coupe le fichier à cet endroit.
+ *
+ * Pas de force() après chaque ajout : les écritures survivent à un arrêt du processus (elles sont
+ * dans le cache du système), pas forcément à une coupure de courant. Ce qui manquerait (coupure,
+ * ajout refusé par le disque, arrêt entre le commit MySQL et le journal) est récupéré au démarrage
+ * suivant : le rattrapage compare tous les IDs de la base à ceux du catalogue, pas seulement
+ * ceux au-delà du plus grand ID connu.
+ */
+public class JournalDeltas implements Closeable {
+
+    private static final int MAGIE = 0x42544344; // "BTCD"
+    private static final short VERSION_FORMAT = 1;
+    private static final int TAILLE_EN_TETE = 16;
+    private static final byte TYPE_AJOUT_LIVRE = 1;
+
+    private final FileChannel canal;
+    private final List<Livre> livresRelus;
+    private ByteBuffer tampon = ByteBuffer.allocate(4096);
+    private long nbEnregistrements;
+
+    private JournalDeltas(FileChannel canal, List<Livre> livresRelus) {
+        this.canal = canal;
+        this.livresRelus = livresRelus;
+        this.nbEnregistrements = livresRelus.size();
+    }
+
+    // Nom du journal qui accompagne un instantané
+    public static Path fichierPour(Path instantane) {
+        return instantane.resolveSibling(instantane.getFileName() + ".deltas");
+    }
+
+    /**
+     * Ouvre (ou crée) le journal de l'instantané "identifiant" et relit ses livres.
+     * auteurs : ceux de l'instantané, pour réutiliser les mêmes objets Auteur (complété au passage).
+     */
+    public static JournalDeltas ouvrir(Path fichier, long identifiant, Map<Integer, Auteur> auteurs) throws IOException {
+        FileChannel canal = FileChannel.open(fichier, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            List<Livre> livres = new ArrayList<>();
+            if (!enTeteValide(canal, identifiant)) {
+                repartirDe(canal, identifiant);
+            } else {
+                long finValide = relire(canal, auteurs, livres);
+                if (finValide < canal.size()) {
+                    canal.truncate(finValide); // Fin d'enregistrement perdue : on la coupe
+                }
+            }
+            canal.position(canal.size());
+            return new JournalDeltas(canal, livres);
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    private static boolean enTeteValide(FileChannel canal, long identifiant) throws IOException {
+        if (canal.size() < TAILLE_EN_TETE) {
+            return false;
+        }
+        ByteBuffer enTete = ByteBuffer.allocate(TAILLE_EN_TETE);
+        while (enTete.hasRemaining() && canal.read(enTete, enTete.position()) >= 0) {
+            // Lecture jusqu'à avoir les 16 octets
+        }
+        enTete.flip();
+        return enTete.getInt() == MAGIE && enTete.getShort() == VERSION_FORMAT
+                && enTete.getShort() == 0 && enTete.getLong() == identifiant;
+    }
+
+    // Vide le journal et écrit l'en-tête de l'instantané "identifiant"
+    private static void repartirDe(FileChannel canal, long identifiant) throws IOException {
+        canal.truncate(0);
+        ByteBuffer enTete = ByteBuffer.allocate(TAILLE_EN_TETE);
+        enTete.putInt(MAGIE).putShort(VERSION_FORMAT).putShort((short) 0).putLong(identifiant).flip();
+        long position = 0;
+        while (enTete.hasRemaining()) {
+            position += canal.write(enTete, position);
+        }
+    }
+
+    // Relit les enregistrements valides ; renvoie la position qui suit le dernier
+    private static long relire(FileChannel canal, Map<Integer, Auteur> auteurs, List<Livre> livres) throws IOException {
+        // Le journal est petit (il repart de zéro à chaque instantané) : on le lit d'un bloc
+        ByteBuffer contenu = ByteBuffer.allocate((int) Math.min(canal.size() - TAILLE_EN_TETE, Integer.MAX_VALUE - 8));
+        long position = TAILLE_EN_TETE;
+        while (contenu.hasRemaining() && canal.read(contenu, position + contenu.position()) >= 0) {
+            // Lecture jusqu'à la fin du fichier
+        }
+        contenu.flip();
+        while (contenu.remaining() >= 2 * Integer.BYTES) {
+            int debut = contenu.position();
+            int longueur = contenu.getInt();
+            int crc = contenu.getInt();
+            if (longueur <= 0 || longueur > contenu.remaining()) {
+                return position + debut; // Enregistrement incomplet
+            }
+            ByteBuffer enregistrement = contenu.slice(contenu.position(), longueur);
+            if (CodecBinaire.crc(enregistrement) != crc) {
+                return position + debut; // Enregistrement abîmé
+            }
+            try {
+                livres.add(decoder(enregistrement, auteurs));
+            } catch (BufferUnderflowException | IllegalArgumentException e) {
+                return position + debut;
+            }
+            contenu.position(contenu.position() + longueur);
+        }
+        return position + contenu.position();
+    }
+
+    private static Livre decoder(ByteBuffer e, Map<Integer, Auteur> auteurs) throws IOException {
+        if (e.get() != TYPE_AJOUT_LIVRE) {
+            throw new IllegalArgumentException("Type d'enregistrement inconnu");
+        }
+        int id = e.getInt();
+        String titre = CodecBinaire.lireTexte(e);
+        Categorie categorie = Categorie.valueOf(CodecBinaire.lireTexte(e));
+        int idAuteur = e.getInt();
+        String nom = CodecBinaire.lireTexte(e);
+        String prenom = CodecBinaire.lireTexte(e);
+        Auteur auteur = auteurs.computeIfAbsent(idAuteur, i -> new Auteur(i, nom, prenom));
+        return new Livre(id, titre, auteur, categorie);
+    }
+
+    // Livres relus à l'ouverture, dans l'ordre où ils avaient été ajoutés
+    public List<Livre> getLivresRelus() {
+        return livresRelus;
+    }
+
+    // Ajoute les livres en fin de journal (une seule écriture pour toute la collection)
+    public synchronized void ajouter(Collection<Livre> livres) throws IOException {
+        tampon.clear();
+        for (Livre l : livres) {
+            byte[] titre = CodecBinaire.octets(l.getTitre());
+            byte[] categorie = CodecBinaire.octets(l.getCategorie().name());
+            byte[] nom = CodecBinaire.octets(l.getAuteur().getNom());
+            byte[] prenom = CodecBinaire.octets(l.getAuteur().getPrenom());
+            int longueur = 1 + Integer.BYTES + CodecBinaire.taille(titre) + CodecBinaire.taille(categorie)
+                    + Integer.BYTES + CodecBinaire.taille(nom) + CodecBinaire.taille(prenom);
+            agrandir(2 * Integer.BYTES + longueur);
+
+            int debut = tampon.position();
+            tampon.putInt(longueur).putInt(0); // CRC rempli juste après
+            tampon.put(TYPE_AJOUT_LIVRE).putInt(l.getId());
+            CodecBinaire.ecrireTexte(tampon, titre);
+            CodecBinaire.ecrireTexte(tampon, categorie);
+            tampon.putInt(l.getAuteur().getId());
+            CodecBinaire.ecrireTexte(tampon, nom);
+            CodecBinaire.ecrireTexte(tampon, prenom);
+            tampon.putInt(debut + Integer.BYTES, CodecBinaire.crc(tampon.slice(debut + 2 * Integer.BYTES, longueur)));
+        }
+        tampon.flip();
+        while (tampon.hasRemaining()) {
+            canal.write(tampon);
+        }
+        nbEnregistrements += livres.size();
+    }
+
+    private void agrandir(int besoin) {
+        if (tampon.remaining() < besoin) {
+            ByteBuffer plusGrand = ByteBuffer.allocate(Math.max(tampon.capacity() * 2, tampon.position() + besoin));
+            tampon.flip();
+            tampon = plusGrand.put(tampon);
+        }
+    }
+
+    /**
+     * Un nouvel instantané vient d'être écrit : il contient déjà tout le journal.
+     * On repart d'un journal vide, rattaché au nouvel instantané.
+     */
+    public synchronized void repartirDe(long identifiant) throws IOException {
+        repartirDe(canal, identifiant);
+        canal.position(TAILLE_EN_TETE);
+        nbEnregistrements = 0;
+    }
+
+    public synchronized long getNbEnregistrements() { return nbEnregistrements; }
+
+    @Override
+    public synchronized void close() throws IOException {
+        canal.close();
+    }
+}
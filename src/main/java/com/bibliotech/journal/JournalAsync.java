@@ -0,0 +1,262 @@
+package com.bibliotech.journal;
+
+import java.io.PrintStream;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal d'événements asynchrone.
+ *
+ * Problème : System.out.println est synchronisé. Avec 50 threads qui écrivent en base,
+ * chacun attend son tour devant la console : les threads sont sérialisés sur l'affichage.
+ *
+ * Solution : les threads métier déposent l'événement dans un tampon circulaire (taille fixe,
+ * cases réutilisées, aucun verrou) et repartent aussitôt. Un seul thread de fond vide le tampon
+ * et écrit dans la console.
+ *
+ *   producteurs ──► [ ][ ][x][x][x][ ][ ] ──► thread "journal" ──► System.out
+ *                        ^consommé   ^réservé
+ *
+ * Coût quand le journal est coupé (ou l'événement écarté par l'échantillonnage) :
+ * une lecture volatile. Les appelants testent estActif() AVANT de construire leurs chaînes.
+ */
+public class JournalAsync {
+
+    private static final int CAPACITE_DEFAUT = 8192;
+    private static final long ATTENTE_VIDE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final DateTimeFormatter FORMAT_HEURE =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    // Journal partagé par toute l'application, créé au premier appel (idiome "Holder")
+    private static class JournalHolder {
+        private static final JournalAsync JOURNAL =
+                new JournalAsync(CAPACITE_DEFAUT, PolitiqueDebordement.ABANDONNER, System.out);
+
+        static {
+            // À l'arrêt de la JVM, on écrit ce qui reste dans le tampon
+            Runtime.getRuntime().addShutdownHook(new Thread(JOURNAL::fermer, "journal-arret"));
+        }
+    }
+
+    public static JournalAsync getInstance() {
+        return JournalHolder.JOURNAL;
+    }
+
+    private final Evenement[] cases;
+    private final int masque;
+    private final PolitiqueDebordement politique;
+    private final PrintStream sortie;
+    private final Thread videur;
+
+    // Dernière case réservée par un producteur / dernière case écrite par le videur
+    private final AtomicLong reserve = new AtomicLong(-1);
+    private final AtomicLong consomme = new AtomicLong(-1);
+
+    // Réglages modifiables à chaud
+    private volatile int niveauMin = Niveau.INFO.ordinal();
+    private volatile int echantillonnage = 1; // 1 = tout garder, n = garder 1 événement sur n
+    private volatile boolean ouvert = true;
+
+    private final AtomicLong nbAbandonnes = new AtomicLong();
+    private final AtomicLong nbEcrits = new AtomicLong();
+
+    public JournalAsync(int capacite, PolitiqueDebordement politique, PrintStream sortie) {
+        if (capacite <= 0 || Integer.bitCount(capacite) != 1) {
+            throw new IllegalArgumentException("La capacité du journal doit être une puissance de 2 : " + capacite);
+        }
+        this.cases = new Evenement[capacite];
+        for (int i = 0; i < capacite; i++) {
+            cases[i] = new Evenement();
+        }
+        this.masque = capacite - 1;
+        this.politique = politique;
+        this.sortie = sortie;
+        this.videur = new Thread(this::vider, "journal");
+        this.videur.setDaemon(true);
+        this.videur.start();
+    }
+
+    // --- RÉGLAGES ---
+
+    public void setNiveau(Niveau niveau) {
+        this.niveauMin = niveau.ordinal();
+    }
+
+    // Plus rien n'est journalisé (coût restant : une lecture volatile par appel)
+    public void desactiver() {
+        this.niveauMin = Integer.MAX_VALUE;
+    }
+
+    // Garder 1 événement DEBUG/INFO sur n (les avertissements et erreurs sont toujours gardés)
+    public void setEchantillonnage(int n) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("L'échantillonnage doit être positif : " + n);
+        }
+        this.echantillonnage = n;
+    }
+
+    /**
+     * Cet événement sera-t-il écrit ? À tester avant de construire un message coûteux, puis
+     * déposer l'événement avec deposer() (PAS info()/publier(), qui tireraient au sort une seconde fois) :
+     *   if (journal.estActif(Niveau.INFO)) { journal.deposer(Niveau.INFO, ..., "x=" + x, ...); }
+     * Chaque appel tire au sort (échantillonnage) : un appel = une décision pour UN événement.
+     */
+    public boolean estActif(Niveau niveau) {
+        if (niveau.ordinal() < niveauMin) {
+            return false;
+        }
+        int n = echantillonnage;
+        return n == 1 || niveau.ordinal() >= Niveau.AVERTISSEMENT.ordinal()
+                || ThreadLocalRandom.current().nextInt(n) == 0;
+    }
+
+    // --- PUBLICATION (threads métier) ---
+
+    public void info(String operation, String message, String detail, long id, long dureeNanos) {
+        publier(Niveau.INFO, operation, message, detail, id, dureeNanos);
+    }
+
+    public void avertissement(String operation, String message, String detail) {
+        publier(Niveau.AVERTISSEMENT, operation, message, detail, -1, -1);
+    }
+
+    public void erreur(String operation, String message, String detail) {
+        publier(Niveau.ERREUR, operation, message, detail, -1, -1);
+    }
+
+    /**
+     * Dépose un événement dans le tampon, sans verrou et sans créer d'objet.
+     * Champs structurés : thread, opération, message, détail libre, id (-1 = aucun), durée (-1 = aucune).
+     * Renvoie false si l'événement n'a pas été gardé (niveau, échantillonnage, tampon plein).
+     */
+    public boolean publier(Niveau niveau, String operation, String message, String detail, long id, long dureeNanos) {
+        return estActif(niveau) && deposer(niveau, operation, message, detail, id, dureeNanos);
+    }
+
+    // Pour un événement déjà retenu par estActif() : le niveau est revérifié (réglage changé entre-temps),
+    // l'échantillonnage NON (sinon on ne garderait que 1 événement sur n²)
+    public boolean deposer(Niveau niveau, String operation, String message, String detail, long id, long dureeNanos) {
+        if (!ouvert || niveau.ordinal() < niveauMin) {
+            return false;
+        }
+        long seq = reserverCase();
+        if (seq < 0) {
+            nbAbandonnes.incrementAndGet();
+            return false;
+        }
+        Evenement e = cases[(int) (seq & masque)];
+        e.horodatage = System.currentTimeMillis();
+        e.niveau = niveau;
+        e.thread = Thread.currentThread().getName();
+        e.operation = operation;
+        e.message = message;
+        e.detail = detail;
+        e.id = id;
+        e.dureeNanos = dureeNanos;
+        e.sequence = seq; // Écriture volatile : publie la case au videur
+        return true;
+    }
+
+    // Réserve la prochaine case libre. Renvoie -1 si le tampon est plein (politique ABANDONNER).
+    private long reserverCase() {
+        while (true) {
+            long actuel = reserve.get();
+            long suivant = actuel + 1;
+            if (suivant - cases.length > consomme.get()) {
+                // Tampon plein : le videur n'a pas encore libéré cette case
+                if (politique == PolitiqueDebordement.ABANDONNER || !ouvert) {
+                    return -1;
+                }
+                LockSupport.parkNanos(ATTENTE_VIDE_NANOS);
+                continue;
+            }
+            if (reserve.compareAndSet(actuel, suivant)) {
+                return suivant;
+            }
+        }
+    }
+
+    // --- VIDAGE (thread "journal") ---
+
+    private void vider() {
+        StringBuilder ligne = new StringBuilder(256);
+        while (true) {
+            long suivant = consomme.get() + 1;
+            Evenement e = cases[(int) (suivant & masque)];
+            if (e.sequence == suivant) {
+                formater(e, ligne);
+                consomme.set(suivant); // Libère la case pour les producteurs
+                sortie.println(ligne);
+                nbEcrits.incrementAndGet();
+            } else if (!ouvert && suivant > reserve.get()) {
+                sortie.flush();
+                return; // Fermé et tout est écrit
+            } else {
+                sortie.flush();
+                LockSupport.parkNanos(ATTENTE_VIDE_NANOS); // Rien à écrire pour l'instant
+            }
+        }
+    }
+
+    // 14:03:12.512 INFO  [pool-1-thread-3] LivreDAO.ajouterLivre ✅ Livre ajouté : Dune (id=42, 1.84 ms)
+    private void formater(Evenement e, StringBuilder ligne) {
+        ligne.setLength(0);
+        FORMAT_HEURE.formatTo(Instant.ofEpochMilli(e.horodatage), ligne);
+        ligne.append(' ').append(String.format("%-5s", e.niveau == Niveau.AVERTISSEMENT ? "AVERT" : e.niveau.name()))
+             .append(" [").append(e.thread).append("] ")
+             .append(e.operation).append(' ').append(e.message);
+        if (e.detail != null) {
+            ligne.append(" : ").append(e.detail);
+        }
+        if (e.id >= 0 || e.dureeNanos >= 0) {
+            ligne.append(" (");
+            if (e.id >= 0) {
+                ligne.append("id=").append(e.id);
+            }
+            if (e.dureeNanos >= 0) {
+                ligne.append(e.id >= 0 ? ", " : "").append(String.format("%.2f ms", e.dureeNanos / 1e6));
+            }
+            ligne.append(')');
+        }
+        // On lâche les références : les chaînes de l'événement peuvent être ramassées
+        e.thread = null;
+        e.message = null;
+        e.detail = null;
+        e.operation = null;
+    }
+
+    /**
+     * Arrête le journal après avoir écrit tous les événements déjà déposés.
+     * Les publications suivantes sont ignorées.
+     */
+    public void fermer() {
+        ouvert = false;
+        try {
+            videur.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getNbAbandonnes() { return nbAbandonnes.get(); }
+    public long getNbEcrits() { return nbEcrits.get(); }
+    public int getNbEnAttente() { return (int) (reserve.get() - consomme.get()); }
+
+    // Une case du tampon : créée une fois, réutilisée à chaque tour
+    private static final class Evenement {
+        volatile long sequence = -1;
+        long horodatage;
+        Niveau niveau;
+        String thread;
+        String operation;
+        String message;
+        String detail;
+        long id;
+        long dureeNanos;
+    }
+}
@@ -0,0 +1,9 @@
+package com.bibliotech.journal;
+
+// Gravité d'un événement, du plus bavard au plus grave
+public enum Niveau {
+    DEBUG,
+    INFO,
+    AVERTISSEMENT,
+    ERREUR
+}
@@ -0,0 +1,7 @@
+package com.bibliotech.journal;
+
+// Que faire quand le tampon du journal est plein ?
+public enum PolitiqueDebordement {
+    ABANDONNER, // On perd l'événement (compté) : le thread métier n'attend jamais
+    BLOQUER     // Le thread métier attend qu'une place se libère : aucun événement perdu
+}
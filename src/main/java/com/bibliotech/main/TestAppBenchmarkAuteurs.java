@@ -0,0 +1,98 @@
+package com.bibliotech.main;
+
+import com.bibliotech.dao.LecteurLivre;
+import com.bibliotech.model.Categorie;
+import com.bibliotech.model.Livre;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mesure de l'effet du dédoublonnage des auteurs (LecteurLivre) :
+ * mémoire retenue et temps de chargement d'un catalogue synthétique.
+ * Pas besoin de MySQL : on simule le ResultSet de la jointure livre/auteur.
+ *
+ * Lancement : java -Xmx4g com.bibliotech.main.TestAppBenchmarkAuteurs [nbLignes] [nbAuteurs]
+ */
+public class TestAppBenchmarkAuteurs {
+
+    public static void main(String[] args) throws SQLException {
+        int nbLignes = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int nbAuteurs = args.length > 1 ? Integer.parseInt(args[1]) : 200; // 5 000 livres par auteur
+
+        System.out.println("=== 🧪 BENCHMARK : DÉDOUBLONNAGE DES AUTEURS ===");
+        System.out.println("Catalogue synthétique : " + nbLignes + " livres, " + nbAuteurs + " auteurs\n");
+
+        // Un premier passage "à vide" pour chauffer le JIT
+        charger(Math.min(nbLignes, 100_000), nbAuteurs, false);
+        charger(Math.min(nbLignes, 100_000), nbAuteurs, true);
+
+        mesurer("AVANT (un Auteur par ligne)", nbLignes, nbAuteurs, false);
+        mesurer("APRÈS (identity map)       ", nbLignes, nbAuteurs, true);
+    }
+
+    private static void mesurer(String nom, int nbLignes, int nbAuteurs, boolean dedoublonner) throws SQLException {
+        long memoireAvant = memoireUtilisee();
+        long debut = System.nanoTime();
+
+        List<Livre> livres = charger(nbLignes, nbAuteurs, dedoublonner);
+
+        long dureeMs = (System.nanoTime() - debut) / 1_000_000;
+        long retenueMo = (memoireUtilisee() - memoireAvant) / (1024 * 1024);
+
+        System.out.println("⏱️ " + nom + " : " + dureeMs + " ms, " + retenueMo + " Mo retenus pour "
+                + livres.size() + " livres");
+    }
+
+    private static List<Livre> charger(int nbLignes, int nbAuteurs, boolean dedoublonner) throws SQLException {
+        ResultSet rs = fauxResultSet(nbLignes, nbAuteurs);
+        LecteurLivre lecteur = new LecteurLivre(dedoublonner);
+        List<Livre> livres = new ArrayList<>();
+        while (rs.next()) {
+            livres.add(lecteur.lire(rs));
+        }
+        return livres;
+    }
+
+    // Mémoire occupée après plusieurs GC (pour ne compter que les objets encore vivants)
+    private static long memoireUtilisee() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    // Un ResultSet qui invente les lignes à la volée.
+    // Comme le vrai driver, chaque getString() renvoie une NOUVELLE chaîne.
+    private static ResultSet fauxResultSet(int nbLignes, int nbAuteurs) {
+        Categorie[] categories = Categorie.values();
+        int[] ligne = { 0 };
+        return (ResultSet) Proxy.newProxyInstance(
+                ResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class },
+                (proxy, method, args) -> {
+                    int n = ligne[0];
+                    int idAuteur = 1 + (n % nbAuteurs);
+                    return switch (method.getName()) {
+                        case "next" -> ++ligne[0] <= nbLignes;
+                        case "getInt" -> "id".equals(args[0]) ? n : idAuteur;
+                        case "getNString" -> "Titre du livre numéro " + n;
+                        case "getString" -> switch ((String) args[0]) {
+                            case "nom" -> "Nom" + idAuteur;
+                            case "prenom" -> "Prénom" + idAuteur;
+                            default -> categories[n % categories.length].name();
+                        };
+                        case "close" -> null;
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    };
+                });
+    }
+}
@@ -58,5 +58,13 @@ public class TestAppCollections {
         
         System.out.println("\nAprès le trie Numerique Par ID du Plus Recent au plus ancien :");
         for(Livre l : tousLesLivres) System.out.println(" - " + l.getTitre());
+        
+        
+        System.out.println("\n=== 📊 PHASE 5 : LE CATALOGUE EN MÉMOIRE (index déjà construits) ===");
+        // Pourquoi ? Les index (EnumMap par catégorie, Map par titre) sont construits une fois,
+        // puis chaque recherche coûte O(résultat) sans retourner en base.
+        System.out.println("Livres INFORMATIQUE (index) : " + service.filtrerParCategorie(Categorie.INFORMATIQUE).size());
+        System.out.println("Genres distincts (index)    : " + service.obtenirCategoriesUniques());
+        System.out.println("Recherche par titre (index) : " + service.chercherLivreParTitre(recherche));
     }
 }
\ No newline at end of file
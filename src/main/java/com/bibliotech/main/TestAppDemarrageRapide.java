@@ -0,0 +1,42 @@
+package com.bibliotech.main;
+
+import com.bibliotech.exception.BibliothequeException;
+import com.bibliotech.instantane.DemarrageCatalogue;
+import com.bibliotech.model.Categorie;
+import com.bibliotech.service.BibliothequeService;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class TestAppDemarrageRapide {
+    public static void main(String[] args) {
+        Path fichier = Paths.get(args.length > 0 ? args[0] : System.getProperty("java.io.tmpdir"), "catalogue.bin");
+
+        System.out.println("=== ⚡ DÉMARRAGE À FROID DEPUIS UN INSTANTANÉ ===");
+        System.out.println("1er lancement : lecture MySQL + écriture de " + fichier);
+        System.out.println("Lancements suivants : projection du fichier, puis rattrapage MySQL en arrière-plan.\n");
+
+        try {
+            // 1. Comparaison : démarrage classique (toute la jointure livre/auteur)
+            long debut = System.currentTimeMillis();
+            int taille = new BibliothequeService().instantaneCatalogue().taille();
+            System.out.println("🐢 Depuis MySQL     : " + taille + " livres en " + (System.currentTimeMillis() - debut) + " ms");
+
+            // 2. Démarrage depuis l'instantané
+            BibliothequeService service = new BibliothequeService();
+            DemarrageCatalogue demarrage = service.demarrerDepuisInstantane(fichier);
+            System.out.println("⚡ " + demarrage);
+
+            // Le catalogue répond déjà, pendant que le rattrapage tourne
+            System.out.println("🔎 Romans disponibles tout de suite : " + service.filtrerParCategorie(Categorie.ROMAN).size());
+
+            int rattrapes = demarrage.rattrapage().join();
+            System.out.println("✅ Rattrapage terminé : " + rattrapes + " livre(s) ajouté(s) en base depuis l'instantané");
+            System.out.println("📝 Deltas en attente du prochain instantané : " + service.getNbDeltasCatalogue());
+
+            // 3. On réécrit l'instantané : le journal de deltas repart de zéro
+            System.out.println("💾 " + service.ecrireInstantaneCatalogue(fichier));
+        } catch (BibliothequeException e) {
+            System.err.println("❌ " + e.getMessage() + (e.getCause() != null ? " : " + e.getCause().getMessage() : ""));
+        }
+    }
+}
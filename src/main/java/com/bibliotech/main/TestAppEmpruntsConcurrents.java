@@ -0,0 +1,183 @@
+package com.bibliotech.main;
+
+import com.bibliotech.exception.BibliothequeException;
+import com.bibliotech.model.Emprunt;
+import com.bibliotech.model.Livre;
+import com.bibliotech.service.BibliothequeService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test de charge des emprunts : on cherche un DOUBLE EMPRUNT (deux threads qui croient
+ * avoir le même livre en même temps). Le programme s'arrête en erreur s'il en trouve un.
+ *
+ * Phase 1 - "la ruée" : tous les threads attendent à une barrière, puis demandent LE MÊME livre
+ *           au même instant. À chaque manche, il doit y avoir exactement un gagnant.
+ * Phase 2 - "le brassage" : chaque thread emprunte et rend au hasard quelques livres très demandés.
+ *           Un compteur d'occupation par livre vérifie qu'il n'y a jamais deux détenteurs.
+ * Fin     - les écritures différées sont attendues, puis on vérifie la base :
+ *           aucun mouvement refusé par MySQL (ex : 2e emprunt en cours refusé par uk_emprunt_en_cours),
+ *           exactement une ligne d'emprunt écrite par emprunt réussi,
+ *           et plus aucun emprunt en cours sur les livres du test.
+ */
+public class TestAppEmpruntsConcurrents {
+
+    private static final int NB_THREADS = 64;
+    private static final int NB_MANCHES = 500;
+    private static final int NB_LIVRES_POPULAIRES = 4;
+    private static final int NB_TENTATIVES_PAR_THREAD = 5_000;
+
+    public static void main(String[] args) throws Exception {
+        BibliothequeService service = new BibliothequeService();
+        List<Livre> livres = service.instantaneCatalogue().livres();
+        if (livres.size() < NB_LIVRES_POPULAIRES) {
+            System.err.println("❌ Il faut au moins " + NB_LIVRES_POPULAIRES + " livres dans la base.");
+            return;
+        }
+        int[] ids = new int[NB_LIVRES_POPULAIRES];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = livres.get(i).getId();
+            service.rendreLivre(ids[i]); // Départ propre : livres disponibles
+        }
+        service.attendreEcrituresEmprunts();
+        long lignesAvant = service.compterEmpruntsEnregistres(ids);
+        long refusesAvant = service.getNbMouvementsEmpruntsRefuses();
+
+        System.out.println("=== 🏁 TEST DE CHARGE DES EMPRUNTS (" + NB_THREADS + " threads) ===\n");
+        AtomicLong empruntsReussis = new AtomicLong();
+        boolean ok = laRuee(service, ids[0], empruntsReussis) & leBrassage(service, ids, empruntsReussis);
+
+        // Les mouvements acceptés en mémoire doivent tous arriver en base... et y être acceptés
+        service.attendreEcrituresEmprunts();
+        System.out.println("\n💾 Écriture différée : " + service.getStatistiquesEcrituresEmprunts());
+        long refuses = service.getNbMouvementsEmpruntsRefuses() - refusesAvant;
+        System.out.println((refuses == 0 ? "✅" : "❌") + " Mouvements refusés par MySQL : " + refuses);
+        long lignes = service.compterEmpruntsEnregistres(ids) - lignesAvant;
+        System.out.println((lignes == empruntsReussis.get() ? "✅" : "❌") + " Lignes d'emprunt écrites : " + lignes
+                + " pour " + empruntsReussis.get() + " emprunts réussis en mémoire");
+        long restants = service.chargerEmpruntsEnCours().stream()
+                .mapToInt(Emprunt::getIdLivre)
+                .filter(id -> contient(ids, id))
+                .count();
+        System.out.println((restants == 0 ? "✅" : "❌") + " Emprunts encore ouverts en base sur les livres du test : " + restants);
+
+        boolean baseOk = refuses == 0 && lignes == empruntsReussis.get() && restants == 0;
+        System.out.println(ok && baseOk ? "\n✅ AUCUN DOUBLE EMPRUNT" : "\n❌ ÉCHEC DU TEST");
+        System.exit(ok && baseOk ? 0 : 1);
+    }
+
+    // Phase 1 : NB_MANCHES fois, tous les threads se jettent sur le même livre
+    private static boolean laRuee(BibliothequeService service, int idLivre, AtomicLong empruntsReussis)
+            throws InterruptedException {
+        AtomicInteger gagnantsManche = new AtomicInteger();
+        AtomicInteger manchesFausses = new AtomicInteger();
+        // Quand tous les threads ont tenté leur chance : on compte les gagnants et on remet le livre en rayon
+        CyclicBarrier finDeManche = new CyclicBarrier(NB_THREADS, () -> {
+            if (gagnantsManche.getAndSet(0) != 1) {
+                manchesFausses.incrementAndGet();
+            }
+            try {
+                service.rendreLivre(idLivre);
+            } catch (BibliothequeException e) {
+                manchesFausses.incrementAndGet();
+            }
+        });
+        CyclicBarrier depart = new CyclicBarrier(NB_THREADS);
+
+        long debut = System.nanoTime();
+        executer(numero -> {
+            for (int m = 0; m < NB_MANCHES; m++) {
+                depart.await();
+                if (service.emprunterLivre(idLivre, "lecteur-" + numero)) {
+                    gagnantsManche.incrementAndGet();
+                    empruntsReussis.incrementAndGet();
+                }
+                finDeManche.await();
+            }
+        });
+        System.out.printf("🏃 La ruée    : %d manches x %d threads sur le même livre, %d manche(s) sans gagnant unique (%d ms)%n",
+                NB_MANCHES, NB_THREADS, manchesFausses.get(), (System.nanoTime() - debut) / 1_000_000);
+        return manchesFausses.get() == 0;
+    }
+
+    // Phase 2 : emprunts / retours au hasard, avec un compteur de détenteurs par livre
+    private static boolean leBrassage(BibliothequeService service, int[] ids, AtomicLong empruntsReussis)
+            throws InterruptedException {
+        AtomicIntegerArray detenteurs = new AtomicIntegerArray(ids.length);
+        AtomicLong nbEmprunts = new AtomicLong();
+        AtomicLong nbRefus = new AtomicLong();
+        AtomicInteger doublesEmprunts = new AtomicInteger();
+
+        long debut = System.nanoTime();
+        executer(numero -> {
+            ThreadLocalRandom hasard = ThreadLocalRandom.current();
+            for (int t = 0; t < NB_TENTATIVES_PAR_THREAD; t++) {
+                int k = hasard.nextInt(ids.length);
+                if (!service.emprunterLivre(ids[k], "lecteur-" + numero)) {
+                    nbRefus.incrementAndGet();
+                    continue;
+                }
+                nbEmprunts.incrementAndGet();
+                empruntsReussis.incrementAndGet();
+                // Nous avons le livre : personne d'autre ne doit l'avoir
+                if (detenteurs.incrementAndGet(k) != 1) {
+                    doublesEmprunts.incrementAndGet();
+                }
+                Thread.onSpinWait();
+                detenteurs.decrementAndGet(k);
+                if (!service.rendreLivre(ids[k])) {
+                    doublesEmprunts.incrementAndGet(); // Quelqu'un d'autre l'a rendu à notre place
+                }
+            }
+        });
+        System.out.printf("🔀 Le brassage : %d emprunts réussis, %d refusés (déjà sortis), %d double(s) emprunt(s) (%d ms)%n",
+                nbEmprunts.get(), nbRefus.get(), doublesEmprunts.get(), (System.nanoTime() - debut) / 1_000_000);
+        return doublesEmprunts.get() == 0;
+    }
+
+    @FunctionalInterface
+    private interface Tache {
+        void executer(int numero) throws BibliothequeException, InterruptedException, BrokenBarrierException;
+    }
+
+    // Lance la tâche sur NB_THREADS threads et attend la fin ; une exception dans un thread fait échouer le test
+    private static void executer(Tache tache) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(NB_THREADS);
+        List<Future<Void>> resultats = new ArrayList<>();
+        for (int i = 0; i < NB_THREADS; i++) {
+            final int numero = i;
+            resultats.add(pool.submit(() -> {
+                tache.executer(numero);
+                return null;
+            }));
+        }
+        pool.shutdown();
+        try {
+            for (Future<Void> resultat : resultats) {
+                resultat.get();
+            }
+        } catch (ExecutionException e) {
+            pool.shutdownNow();
+            throw new IllegalStateException("Un thread du test a échoué", e.getCause());
+        }
+    }
+
+    private static boolean contient(int[] ids, int id) {
+        for (int i : ids) {
+            if (i == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
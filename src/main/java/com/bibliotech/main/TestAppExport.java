@@ -0,0 +1,38 @@
+package com.bibliotech.main;
+
+import com.bibliotech.exception.BibliothequeException;
+import com.bibliotech.exportation.FiltreExport;
+import com.bibliotech.exportation.FormatExport;
+import com.bibliotech.exportation.RapportExport;
+import com.bibliotech.model.Categorie;
+import com.bibliotech.service.BibliothequeService;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class TestAppExport {
+    public static void main(String[] args) {
+        BibliothequeService service = new BibliothequeService();
+        Path dossier = Paths.get(args.length > 0 ? args[0] : System.getProperty("java.io.tmpdir"));
+
+        System.out.println("=== 📤 DÉMONSTRATION EXPORT EN FLUX ===");
+        System.out.println("Les livres passent du curseur MySQL au fichier un par un : aucune liste en mémoire.\n");
+
+        try {
+            // 1. Tout le catalogue, un fichier CSV
+            RapportExport complet = service.exporterCatalogue(dossier.resolve("catalogue"), FormatExport.CSV);
+            System.out.println("✅ CSV complet      : " + complet + " -> " + complet.fichiers());
+
+            // 2. Les romans, en JSONL compressé, coupés en 4 fichiers (un par consommateur)
+            RapportExport romans = service.exporterCatalogue(dossier.resolve("romans"), FormatExport.JSONL,
+                    FiltreExport.categorie(Categorie.ROMAN), 4, true);
+            System.out.println("✅ Romans (gzip x4) : " + romans + " -> " + romans.fichiers());
+
+            // 3. Une plage d'ID
+            RapportExport plage = service.exporterCatalogue(dossier.resolve("ids-1-1000"), FormatExport.JSONL,
+                    FiltreExport.entreIds(1, 1000), 1, false);
+            System.out.println("✅ ID 1 à 1000      : " + plage);
+        } catch (BibliothequeException e) {
+            System.err.println("❌ " + e.getMessage() + (e.getCause() != null ? " : " + e.getCause().getMessage() : ""));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.bibliotech.main;
+
+import com.bibliotech.exception.BibliothequeException;
+import com.bibliotech.importation.RapportImport;
+import com.bibliotech.importation.RejetImport;
+import com.bibliotech.model.Categorie;
+import com.bibliotech.service.BibliothequeService;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class TestAppImport {
+    public static void main(String[] args) throws IOException {
+        BibliothequeService service = new BibliothequeService();
+
+        // Fichier passé en argument, sinon on fabrique un petit fichier fournisseur de démonstration
+        Path fichier = args.length > 0 ? Paths.get(args[0]) : genererFichierDemo(50_000);
+
+        System.out.println("=== 📥 DÉMONSTRATION IMPORT EN MASSE ===");
+        System.out.println("Fichier : " + fichier + " (" + Files.size(fichier) / 1024 + " Ko)");
+        System.out.println("Si l'import s'arrête (Ctrl+C, base coupée...), relancer le programme : il reprend au dernier bloc validé.\n");
+
+        try {
+            RapportImport rapport = service.importerCatalogue(fichier);
+            System.out.println("✅ " + rapport);
+            for (RejetImport rejet : rapport.getRejets().subList(0, Math.min(10, rapport.getRejets().size()))) {
+                System.out.println("   ⚠️ " + rejet);
+            }
+        } catch (BibliothequeException e) {
+            System.err.println("❌ " + e.getMessage() + (e.getCause() != null ? " : " + e.getCause().getMessage() : ""));
+        }
+    }
+
+    // titre,categorie,nom_auteur,prenom_auteur — avec quelques lignes fautives pour voir les rejets
+    private static Path genererFichierDemo(int nbLignes) throws IOException {
+        Path fichier = Paths.get(System.getProperty("java.io.tmpdir"), "bibliotech-import-demo.csv");
+        if (Files.exists(fichier)) {
+            return fichier; // On garde le même fichier : c'est lui que le point de reprise décrit
+        }
+        Categorie[] categories = Categorie.values();
+        try (BufferedWriter out = Files.newBufferedWriter(fichier, StandardCharsets.UTF_8)) {
+            out.write("titre,categorie,nom_auteur,prenom_auteur\n");
+            for (int i = 1; i <= nbLignes; i++) {
+                if (i % 10_000 == 0) {
+                    out.write("\"Livre importé n°" + i + "\",POESIE,Auteur" + (i % 500) + ",Import\n"); // Catégorie inconnue
+                } else {
+                    out.write("\"Livre importé n°" + i + "\"," + categories[i % categories.length]
+                            + ",Auteur" + (i % 500) + ",Import\n");
+                }
+            }
+        }
+        return fichier;
+    }
+}
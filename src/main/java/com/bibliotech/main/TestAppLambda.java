@@ -33,6 +33,16 @@ public class TestAppLambda {
         
         // On affiche les survivants pour vérifier
         listeAnettoyer.forEach(l -> System.out.println(" ✅ Rescapé : " + l.getTitre()));
+        
+        // ---------------------------------------------------------------
+        // MÊME CHOSE AVEC L'INDEX INVERSÉ (mots entiers, sans accents)
+        // ---------------------------------------------------------------
+        System.out.println("\n=== 🔎 RECHERCHE ET SUPPRESSION VIA L'INDEX ===");
+        service.rechercherParMotCle("java").forEach(l -> System.out.println(" 🔎 Trouvé : " + l.getTitre()));
+        
+        List<Livre> autreListe = new ArrayList<>(tousLesLivres);
+        service.supprimerLivresParMotCleIndexe(autreListe, motASupprimer);
+        System.out.println("Taille finale (index) : " + autreListe.size());
 	}
 	
 }
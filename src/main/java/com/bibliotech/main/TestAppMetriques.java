@@ -0,0 +1,43 @@
+package com.bibliotech.main;
+
+import com.bibliotech.exception.BibliothequeException;
+import com.bibliotech.metriques.MetriquesOperation;
+import com.bibliotech.metriques.RegistreMetriques;
+import com.bibliotech.service.BibliothequeService;
+import com.bibliotech.service.TriLivres;
+import java.util.Scanner;
+
+public class TestAppMetriques {
+    public static void main(String[] args) {
+        BibliothequeService service = new BibliothequeService();
+
+        System.out.println("=== 📈 DÉMONSTRATION MÉTRIQUES (JMX) ===");
+        System.out.println("Scénario : quelques centaines d'appels au service, puis le rapport par opération.\n");
+
+        for (int i = 0; i < 200; i++) {
+            try {
+                service.chercherAuteurParId(1 + (i % 20)); // Les 20 premiers : cache après le 1er tour
+                service.pageDeLivres(TriLivres.PAR_TITRE, null, 20);
+                if (i % 50 == 0) {
+                    service.chargerTousLesLivres();
+                    service.compterLivresParCategorie();
+                }
+            } catch (BibliothequeException e) {
+                // Auteur inconnu, base arrêtée... : c'est compté dans les métriques, on continue
+            }
+        }
+
+        System.out.println("📊 Rapport (durées en microsecondes) :");
+        for (MetriquesOperation m : RegistreMetriques.toutes()) {
+            System.out.println("   " + m);
+        }
+
+        System.out.println("\n🔎 Les mêmes chiffres sont publiés en JMX : lancer 'jconsole', choisir ce programme,");
+        System.out.println("   onglet MBeans > com.bibliotech > Metriques. Appuyer sur Entrée pour quitter.");
+        try (Scanner clavier = new Scanner(System.in)) {
+            clavier.nextLine();
+        } catch (RuntimeException e) {
+            // Pas de console (lancement depuis un outil) : on quitte directement
+        }
+    }
+}
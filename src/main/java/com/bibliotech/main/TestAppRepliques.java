@@ -0,0 +1,82 @@
+package com.bibliotech.main;
+
+import com.bibliotech.dao.DatabaseConnection;
+import com.bibliotech.exception.BibliothequeException;
+import com.bibliotech.model.Auteur;
+import com.bibliotech.service.BibliothequeService;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Démonstration du partage lectures / écritures entre la base principale et ses répliques.
+ *
+ * Avec deux bases MySQL locales (le schéma schema.sql chargé dans les deux) :
+ *   docker run -d -p 3306:3306 -e MYSQL_ROOT_PASSWORD='rootPass#03QL' mysql:8
+ *   docker run -d -p 3307:3306 -e MYSQL_ROOT_PASSWORD='rootPass#03QL' mysql:8
+ *
+ * Lancement :
+ *   java -Dbibliotech.repliques=jdbc:mysql://localhost:3307/bibliotech_db \
+ *        [-Dbibliotech.repartition=MOINS_CHARGEE] com.bibliotech.main.TestAppRepliques
+ *
+ * Sans réplication entre les deux bases, l'effet se voit directement : un auteur écrit sur la principale
+ * est visible par le thread qui vient de l'écrire (relu sur la principale), mais pas par un autre thread
+ * (qui lit sur la réplique). Arrêter la réplique pendant la phase 2 : les lectures basculent sur la principale.
+ */
+public class TestAppRepliques {
+
+    private static final int NB_THREADS = 8;
+    private static final int NB_LECTURES_PAR_THREAD = 200;
+
+    public static void main(String[] args) throws Exception {
+        BibliothequeService service = new BibliothequeService();
+
+        System.out.println("=== 🔀 LECTURES SUR LES RÉPLIQUES, ÉCRITURES SUR LA PRINCIPALE ===\n");
+
+        // Phase 1 : lire ses propres écritures
+        Auteur auteur = new Auteur("Réplique", "Démo " + System.currentTimeMillis());
+        service.sauvegarderAuteur(auteur);
+        System.out.println("✍️ Auteur écrit sur la principale : ID " + auteur.getId());
+        System.out.println("👀 Relu par le même thread  : " + (contient(service, auteur) ? "trouvé ✅" : "absent"));
+        boolean[] vuParAutre = new boolean[1];
+        Thread autre = new Thread(() -> {
+            try {
+                vuParAutre[0] = contient(service, auteur);
+            } catch (BibliothequeException e) {
+                System.err.println("❌ " + e.getMessage());
+            }
+        });
+        autre.start();
+        autre.join();
+        System.out.println("👀 Relu par un autre thread : " + (vuParAutre[0] ? "trouvé" : "absent (lu sur une réplique pas encore à jour)"));
+
+        // Phase 2 : beaucoup de lectures en parallèle, réparties entre les répliques
+        long debut = System.nanoTime();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < NB_THREADS; i++) {
+            Thread t = new Thread(() -> {
+                try {
+                    for (int n = 0; n < NB_LECTURES_PAR_THREAD; n++) {
+                        service.compterLivresParCategorie();
+                    }
+                } catch (BibliothequeException e) {
+                    System.err.println("❌ " + e.getMessage());
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        System.out.printf("%n📚 %d lectures en %d ms%n", NB_THREADS * NB_LECTURES_PAR_THREAD,
+                (System.nanoTime() - debut) / 1_000_000);
+        System.out.println("📊 " + DatabaseConnection.getStatistiquesLectures());
+        System.out.println("📊 Principale : " + DatabaseConnection.getStatistiquesPool());
+
+        DatabaseConnection.fermerPool();
+    }
+
+    private static boolean contient(BibliothequeService service, Auteur cherche) throws BibliothequeException {
+        return service.chargerTousLesAuteurs().stream().anyMatch(a -> a.getId() == cherche.getId());
+    }
+}
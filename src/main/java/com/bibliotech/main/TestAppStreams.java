@@ -6,6 +6,7 @@ import com.bibliotech.service.BibliothequeService;
 import java.util.List;
 import java.util.Set;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import com.bibliotech.exception.BibliothequeException;
 
@@ -96,6 +97,16 @@ public class TestAppStreams {
             .map(Livre::getTitre)                                 // 3. On transforme en String
             .forEach(titre -> System.out.println("   📜 " + titre)); // 4. On affiche
         
+        // ---------------------------------------------------------------
+        // TEST BONUS 2 : LE FLUX DIRECT DEPUIS LA BASE (sans List intermédiaire)
+        // ---------------------------------------------------------------
+        System.out.println("\n--- 🌊 BONUS 2 : FLUX DEPUIS MYSQL ---");
+        // Le try-with-resources ferme le flux, donc rend la connexion au pool
+        try (Stream<Livre> flux = service.streamerLivres()) {
+            List<Livre> info = service.filtrerParCategorieStream(flux, Categorie.INFORMATIQUE);
+            System.out.println("   💻 Livres INFORMATIQUE lus en flux : " + info.size());
+        }
+        
      // VERSION PLUS COURTE ET SIMPLIFIE !
 	 // maBibliothequeOriginale.stream()
      //  	.filter(l -> l.getCategorie() == Categorie.HISTOIRE)
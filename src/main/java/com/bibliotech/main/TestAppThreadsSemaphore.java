@@ -8,7 +8,7 @@ public class TestAppThreadsSemaphore {
 
         System.out.println("=== 🚥 DÉMONSTRATION MULTITHREADING & SÉMAPHORE ===");
         System.out.println("Scénario : 5 utilisateurs veulent lire les livres.");
-        System.out.println("Contrainte : Serveur limité à 2 connexions simultanées.\n");
+        System.out.println("Contrainte : accès limités par un limiteur adaptatif (3 au départ, ajusté selon la latence).\n");
 
         // On crée 5 "Utilisateurs" (Threads)
         String[] utilisateurs = {"[thread1]", "[thread2]", "[thread3]", "[thread4]", "[thread5]"};
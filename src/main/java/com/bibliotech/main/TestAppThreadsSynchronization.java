@@ -31,6 +31,8 @@ public class TestAppThreadsSynchronization {
             }
         }, "Utilisateur-B");
 
+        // Résultat attendu : un seul thread gagne, l'autre reçoit "existe déjà"
+        // (c'est la contrainte unique sur le titre qui tranche, sans synchronized)
         System.out.println("⚔️ Lancement de deux ajouts simultanés...\n");
         t1.start();
         t2.start();
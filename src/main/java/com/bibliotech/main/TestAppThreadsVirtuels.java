@@ -0,0 +1,45 @@
+package com.bibliotech.main;
+
+import com.bibliotech.model.Auteur;
+import com.bibliotech.service.BibliothequeService;
+import com.bibliotech.service.BibliothequeServiceAsync;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class TestAppThreadsVirtuels {
+    public static void main(String[] args) {
+        BibliothequeService service = new BibliothequeService();
+
+        System.out.println("=== 🧵 DÉMONSTRATION THREADS VIRTUELS & COMPLETABLEFUTURE ===");
+        System.out.println("Scénario : 1000 recherches d'auteur lancées en même temps.");
+        System.out.println("Contrainte : au plus " + BibliothequeServiceAsync.MAX_EN_VOL_DEFAUT + " requêtes en base à la fois.\n");
+
+        // try-with-resources : ferme l'exécuteur de threads virtuels à la fin
+        try (BibliothequeServiceAsync async = new BibliothequeServiceAsync(service)) {
+            long debut = System.currentTimeMillis();
+
+            // 1. On lance tout : aucun appel ne bloque le main
+            List<CompletableFuture<Auteur>> recherches = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                int id = 1 + (i % 5);
+                recherches.add(async.chercherAuteurParId(id)
+                        .exceptionally(e -> null)); // Auteur introuvable -> null
+            }
+            System.out.println("🚀 [THREAD MAIN] : 1000 recherches lancées, " + async.getNbEnAttente() + " en attente de la base.");
+
+            // 2. On attend que tout soit fini
+            CompletableFuture.allOf(recherches.toArray(new CompletableFuture<?>[0])).join();
+
+            long trouves = recherches.stream().map(CompletableFuture::join).filter(a -> a != null).count();
+            System.out.println("✅ " + trouves + " auteurs trouvés en " + (System.currentTimeMillis() - debut) + " ms");
+
+            // 3. Annulation : l'opération est abandonnée
+            CompletableFuture<?> chargement = async.chargerTousLesLivres();
+            chargement.cancel(true);
+            System.out.println("🛑 Chargement annulé ? " + chargement.isCancelled());
+        }
+
+        System.out.println("📊 " + service.getStatistiquesCacheAuteurs());
+    }
+}
@@ -54,6 +54,11 @@ public class TestConnection {
             return;
         }
 
+        // Test 3 : Le pool de connexions (la connexion du test 2 a été RENDUE, pas fermée)
+        System.out.println();
+        System.out.println("📌 Test 3 : État du pool de connexions...");
+        System.out.println("   " + DatabaseConnection.getStatistiquesPool());
+
         System.out.println();
         System.out.println("╔════════════════════════════════════════════╗");
         System.out.println("║  ✅ TOUS LES TESTS SONT RÉUSSIS ! ✅       ║ ");
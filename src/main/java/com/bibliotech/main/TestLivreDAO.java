@@ -2,6 +2,7 @@ package com.bibliotech.main;
 
 import com.bibliotech.dao.AuteurDAO;
 import com.bibliotech.dao.LivreDAO;
+import com.bibliotech.dao.ResultatLot;
 import com.bibliotech.model.Auteur;
 import com.bibliotech.model.Livre;
 import com.bibliotech.model.Categorie;
@@ -36,12 +37,13 @@ public class TestLivreDAO {
             livresAAjouter.add(new Livre("JUMANJI", auteurSource, Categorie.FANTASY));
             livresAAjouter.add(new Livre("Clean Code", auteurSource, Categorie.INFORMATIQUE));
 
-            // --- ÉTAPE 2 : Boucle pour ajouter chaque livre ---
+            // --- ÉTAPE 2 : Ajout par lots (une connexion, un seul aller-retour) ---
             System.out.println("🚀 Début de l'ajout massif...");
-            for (Livre l : livresAAjouter) {
-                livDAO.ajouterLivre(l);
+            ResultatLot<Livre> resultat = livDAO.ajouterLivres(livresAAjouter);
+            System.out.println("✨ Tous les livres ont été traités : " + resultat);
+            for (ResultatLot.Echec<Livre> echec : resultat.getEchecs()) {
+                System.err.println("   ❌ Refusé " + echec);
             }
-            System.out.println("✨ Tous les livres ont été traités.");
 
         } else {
             System.err.println("❌ Erreur : L'auteur n'existe pas.");
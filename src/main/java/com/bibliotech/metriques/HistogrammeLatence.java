@@ -0,0 +1,109 @@
+package com.bibliotech.metriques;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de durées (en nanosecondes) à cases fixes, pensé pour être rempli
+ * par plusieurs threads sans verrou et SANS AUCUNE ALLOCATION.
+ *
+ * Découpage "log-linéaire" : chaque puissance de 2 est coupée en 16 cases égales.
+ *   [0, 16)         : une case par nanoseconde
+ *   [16, 32)        : une case par ns
+ *   [32, 64)        : une case toutes les 2 ns
+ *   ...
+ *   [2^e, 2^(e+1))  : une case toutes les 2^(e-4) ns
+ * => erreur relative max d'environ 6 %, pour 960 cases couvrant toutes les valeurs d'un long.
+ *
+ * Les percentiles sont calculés à la lecture (rare) : c'est la lecture qui paie, pas l'enregistrement.
+ */
+public class HistogrammeLatence {
+
+    private static final int BITS_SOUS_CASES = 4;
+    private static final int NB_SOUS_CASES = 1 << BITS_SOUS_CASES; // 16
+    private static final int NB_CASES = (64 - BITS_SOUS_CASES + 1) * NB_SOUS_CASES;
+
+    private final AtomicLongArray cases = new AtomicLongArray(NB_CASES);
+    private final LongAdder nombre = new LongAdder();
+    private final LongAdder somme = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    // Chemin "chaud" : quelques opérations atomiques, aucun objet créé
+    public void enregistrer(long nanos) {
+        if (nanos < 0) {
+            nanos = 0; // Horloge qui recule (ne devrait pas arriver avec nanoTime)
+        }
+        cases.incrementAndGet(indiceCase(nanos));
+        nombre.increment();
+        somme.add(nanos);
+        long actuel = max.get();
+        while (nanos > actuel && !max.compareAndSet(actuel, nanos)) {
+            actuel = max.get();
+        }
+    }
+
+    public long getNombre() { return nombre.sum(); }
+    public long getMax() { return max.get(); }
+
+    public double getMoyenne() {
+        long n = nombre.sum();
+        return n == 0 ? 0 : (double) somme.sum() / n;
+    }
+
+    /**
+     * Valeur sous laquelle se trouvent "quantile" des mesures (0.5 = médiane, 0.99 = p99...).
+     * Renvoie le haut de la case trouvée (jamais plus que le max réellement observé).
+     */
+    public long getPercentile(double quantile) {
+        long[] copie = new long[NB_CASES];
+        long total = 0;
+        for (int i = 0; i < NB_CASES; i++) {
+            copie[i] = cases.get(i);
+            total += copie[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rang = Math.max(1, (long) Math.ceil(quantile * total));
+        long cumul = 0;
+        for (int i = 0; i < NB_CASES; i++) {
+            cumul += copie[i];
+            if (cumul >= rang) {
+                return Math.min(hautDeCase(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    // Remise à zéro (les mesures en cours pendant la remise à zéro peuvent être perdues)
+    public void reinitialiser() {
+        for (int i = 0; i < NB_CASES; i++) {
+            cases.set(i, 0);
+        }
+        nombre.reset();
+        somme.reset();
+        max.set(0);
+    }
+
+    static int indiceCase(long valeur) {
+        if (valeur < NB_SOUS_CASES) {
+            return (int) valeur;
+        }
+        int exposant = 63 - Long.numberOfLeadingZeros(valeur); // >= 4
+        int decalage = exposant - BITS_SOUS_CASES;
+        int sousCase = (int) (valeur >>> decalage) & (NB_SOUS_CASES - 1);
+        return (decalage + 1) * NB_SOUS_CASES + sousCase;
+    }
+
+    // Plus grande valeur qui tombe dans la case "indice"
+    static long hautDeCase(int indice) {
+        if (indice < NB_SOUS_CASES) {
+            return indice;
+        }
+        int decalage = indice / NB_SOUS_CASES - 1;
+        long sousCase = indice % NB_SOUS_CASES;
+        long debut = (NB_SOUS_CASES + sousCase) << decalage;
+        return debut + (1L << decalage) - 1;
+    }
+}
@@ -0,0 +1,113 @@
+package com.bibliotech.metriques;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs d'UNE opération (ex : "dao / listerTousLesLivres").
+ * L'objet est créé une fois (champ static final de la classe mesurée) puis
+ * réutilisé à chaque appel : enregistrer une mesure ne crée aucun objet.
+ *
+ * Utilisation type :
+ *   long debut = System.nanoTime();
+ *   try {
+ *       ... travail ...
+ *   } catch (SQLException | RuntimeException e) {
+ *       METRIQUES.echec(debut);
+ *       throw e;
+ *   }
+ *   METRIQUES.succes(debut, nbLignesLues, nbLignesEcrites);
+ */
+public class MetriquesOperation implements MetriquesOperationMBean {
+
+    private final String couche;
+    private final String nom;
+
+    private final HistogrammeLatence latences = new HistogrammeLatence();
+    private final HistogrammeLatence attentesConnexion = new HistogrammeLatence();
+    private final LongAdder nbErreurs = new LongAdder();
+    private final LongAdder lignesLues = new LongAdder();
+    private final LongAdder lignesEcrites = new LongAdder();
+    private volatile long debutComptage = System.nanoTime();
+
+    MetriquesOperation(String couche, String nom) {
+        this.couche = couche;
+        this.nom = nom;
+    }
+
+    public String getCouche() { return couche; }
+    public String getNom() { return nom; }
+
+    // --- ENREGISTREMENT (chemin chaud, sans allocation) ---
+
+    public void succes(long debutNanos, long nbLignesLues, long nbLignesEcrites) {
+        latences.enregistrer(System.nanoTime() - debutNanos);
+        if (nbLignesLues > 0) {
+            lignesLues.add(nbLignesLues);
+        }
+        if (nbLignesEcrites > 0) {
+            lignesEcrites.add(nbLignesEcrites);
+        }
+    }
+
+    public void succes(long debutNanos) {
+        latences.enregistrer(System.nanoTime() - debutNanos);
+    }
+
+    // Un échec compte aussi comme un appel (et sa durée entre dans l'histogramme)
+    public void echec(long debutNanos) {
+        latences.enregistrer(System.nanoTime() - debutNanos);
+        nbErreurs.increment();
+    }
+
+    public void attenteConnexion(long nanos) {
+        attentesConnexion.enregistrer(nanos);
+    }
+
+    // --- LECTURE (JMX, rapports) ---
+
+    @Override public long getNbAppels() { return latences.getNombre(); }
+    @Override public long getNbErreurs() { return nbErreurs.sum(); }
+    @Override public long getLignesLues() { return lignesLues.sum(); }
+    @Override public long getLignesEcrites() { return lignesEcrites.sum(); }
+
+    @Override public double getLatenceMoyenneMicros() { return latences.getMoyenne() / 1_000; }
+    @Override public long getLatenceP50Micros() { return enMicros(latences.getPercentile(0.50)); }
+    @Override public long getLatenceP99Micros() { return enMicros(latences.getPercentile(0.99)); }
+    @Override public long getLatenceP999Micros() { return enMicros(latences.getPercentile(0.999)); }
+    @Override public long getLatenceMaxMicros() { return enMicros(latences.getMax()); }
+
+    @Override public long getNbEmpruntsConnexion() { return attentesConnexion.getNombre(); }
+    @Override public double getAttenteConnexionMoyenneMicros() { return attentesConnexion.getMoyenne() / 1_000; }
+    @Override public long getAttenteConnexionP99Micros() { return enMicros(attentesConnexion.getPercentile(0.99)); }
+    @Override public long getAttenteConnexionMaxMicros() { return enMicros(attentesConnexion.getMax()); }
+
+    @Override
+    public double getAppelsParSeconde() {
+        double secondes = (System.nanoTime() - debutComptage) / 1e9;
+        return secondes <= 0 ? 0 : getNbAppels() / secondes;
+    }
+
+    @Override
+    public void reinitialiser() {
+        latences.reinitialiser();
+        attentesConnexion.reinitialiser();
+        nbErreurs.reset();
+        lignesLues.reset();
+        lignesEcrites.reset();
+        debutComptage = System.nanoTime();
+    }
+
+    private static long enMicros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-7s %-32s appels=%-7d erreurs=%-4d p50=%-7dµs p99=%-7dµs p999=%-7dµs max=%-7dµs "
+                        + "lignes(lues=%d, écrites=%d) attente connexion p99=%dµs",
+                couche, nom, getNbAppels(), getNbErreurs(),
+                getLatenceP50Micros(), getLatenceP99Micros(), getLatenceP999Micros(), getLatenceMaxMicros(),
+                getLignesLues(), getLignesEcrites(), getAttenteConnexionP99Micros());
+    }
+}
@@ -0,0 +1,33 @@
+package com.bibliotech.metriques;
+
+/**
+ * Ce que JMX montre pour une opération (jconsole / VisualVM : onglet "MBeans", domaine com.bibliotech).
+ * Convention JMX "standard MBean" : l'interface porte le nom de la classe + "MBean",
+ * chaque getXxx() devient un attribut en lecture, les autres méthodes des opérations.
+ * Durées en microsecondes.
+ */
+public interface MetriquesOperationMBean {
+
+    long getNbAppels();
+    long getNbErreurs();
+    long getLignesLues();
+    long getLignesEcrites();
+
+    // Durée totale de l'opération (attente de connexion comprise)
+    double getLatenceMoyenneMicros();
+    long getLatenceP50Micros();
+    long getLatenceP99Micros();
+    long getLatenceP999Micros();
+    long getLatenceMaxMicros();
+
+    // Temps passé à attendre une connexion du pool
+    long getNbEmpruntsConnexion();
+    double getAttenteConnexionMoyenneMicros();
+    long getAttenteConnexionP99Micros();
+    long getAttenteConnexionMaxMicros();
+
+    // Appels par seconde depuis la création (ou la dernière remise à zéro)
+    double getAppelsParSeconde();
+
+    void reinitialiser();
+}
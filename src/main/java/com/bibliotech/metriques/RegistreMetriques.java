@@ -0,0 +1,65 @@
+package com.bibliotech.metriques;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registre de toutes les opérations mesurées, publiées en JMX sous :
+ *   com.bibliotech:type=Metriques,couche=<couche>,operation=<nom>
+ *
+ * Pour les consulter en local : lancer jconsole (ou VisualVM), se connecter
+ * au processus Java, onglet "MBeans".
+ */
+public final class RegistreMetriques {
+
+    private static final String DOMAINE = "com.bibliotech";
+
+    private static final ConcurrentHashMap<String, MetriquesOperation> OPERATIONS = new ConcurrentHashMap<>();
+
+    private RegistreMetriques() {
+    }
+
+    /**
+     * Renvoie (en la créant au premier appel) l'opération "couche / nom".
+     * À appeler UNE fois, dans un champ static final : pas dans le chemin chaud.
+     */
+    public static MetriquesOperation operation(String couche, String nom) {
+        return OPERATIONS.computeIfAbsent(couche + "/" + nom, cle -> {
+            MetriquesOperation metriques = new MetriquesOperation(couche, nom);
+            publier(metriques);
+            return metriques;
+        });
+    }
+
+    // Toutes les opérations, triées par couche puis par nom (pour un rapport console)
+    public static List<MetriquesOperation> toutes() {
+        List<MetriquesOperation> liste = new ArrayList<>(OPERATIONS.values());
+        liste.sort(Comparator.comparing(MetriquesOperation::getCouche).thenComparing(MetriquesOperation::getNom));
+        return liste;
+    }
+
+    public static void reinitialiserTout() {
+        OPERATIONS.values().forEach(MetriquesOperation::reinitialiser);
+    }
+
+    private static void publier(MetriquesOperation metriques) {
+        try {
+            MBeanServer serveur = ManagementFactory.getPlatformMBeanServer();
+            ObjectName nomJmx = new ObjectName(DOMAINE + ":type=Metriques"
+                    + ",couche=" + metriques.getCouche()
+                    + ",operation=" + metriques.getNom());
+            if (!serveur.isRegistered(nomJmx)) {
+                serveur.registerMBean(metriques, nomJmx);
+            }
+        } catch (JMException e) {
+            // Les mesures restent disponibles via toutes(), seule la publication JMX est perdue
+            System.err.println("⚠️ Métriques non publiées en JMX (" + metriques.getNom() + ") : " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.bibliotech.model;
+
+import java.time.LocalDateTime;
+
+public class Emprunt {
+    private final int idLivre;
+    private final String emprunteur;
+    private final LocalDateTime dateEmprunt;
+    private final LocalDateTime dateRetour; // null tant que le livre n'est pas rendu
+
+    // Un nouvel emprunt (pas encore rendu)
+    public Emprunt(int idLivre, String emprunteur, LocalDateTime dateEmprunt) {
+        this(idLivre, emprunteur, dateEmprunt, null);
+    }
+
+    public Emprunt(int idLivre, String emprunteur, LocalDateTime dateEmprunt, LocalDateTime dateRetour) {
+        this.idLivre = idLivre;
+        this.emprunteur = emprunteur;
+        this.dateEmprunt = dateEmprunt;
+        this.dateRetour = dateRetour;
+    }
+
+    // Getters (pas de setters : un emprunt lu en base ne change plus)
+    public int getIdLivre() { return idLivre; }
+    public String getEmprunteur() { return emprunteur; }
+    public LocalDateTime getDateEmprunt() { return dateEmprunt; }
+    public LocalDateTime getDateRetour() { return dateRetour; }
+    public boolean estEnCours() { return dateRetour == null; }
+
+    @Override
+    public String toString() {
+        return "Emprunt: livre " + idLivre + " par " + emprunteur + " le " + dateEmprunt
+                + (dateRetour == null ? " [EN COURS]" : " [RENDU le " + dateRetour + "]");
+    }
+}
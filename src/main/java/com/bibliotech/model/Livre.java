@@ -1,11 +1,18 @@
 package com.bibliotech.model;
 
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
 public class Livre {
     private int id;
     private String titre;
     private Auteur auteur; // Association : Le livre "connaît" son auteur
     private Categorie categorie;
-    private StatutEmprunt statut;
+    // volatile : plusieurs threads se disputent les emprunts du même livre (voir changerStatut)
+    private volatile StatutEmprunt statut;
+
+    // Compare-and-set sur le champ "statut" sans créer d'AtomicReference par livre
+    private static final AtomicReferenceFieldUpdater<Livre, StatutEmprunt> STATUT =
+            AtomicReferenceFieldUpdater.newUpdater(Livre.class, StatutEmprunt.class, "statut");
 
     // Constructeur pour récupérer depuis la base (avec ID)
     public Livre(int id, String titre, Auteur auteur, Categorie categorie) {
@@ -26,11 +33,19 @@ public class Livre {
 
     // Getters et Setters
     public int getId() { return id; }
+    public void setId(int id) { this.id = id; } // Utile pour récupérer l'ID généré par MySQL
     public String getTitre() { return titre; }
     public Auteur getAuteur() { return auteur; }
     public Categorie getCategorie() { return categorie; }
     public StatutEmprunt getStatut() { return statut; }
 
+    // Passe de "attendu" à "nouveau" seulement si le statut vaut toujours "attendu" (opération atomique).
+    // 100 threads tentent DISPONIBLE -> EMPRUNTE en même temps : un seul reçoit true.
+    // Pas de setter : un simple "statut = x" écraserait le EN_TRANSITION d'un emprunt en cours.
+    public boolean changerStatut(StatutEmprunt attendu, StatutEmprunt nouveau) {
+        return STATUT.compareAndSet(this, attendu, nouveau);
+    }
+
     @Override
     public String toString() {
         return "Livre: " + titre + " | Auteur: " + auteur + " | Catégorie: " + categorie + " [" + statut + "]";
@@ -1,5 +1,8 @@
 package com.bibliotech.model;
 
 public enum StatutEmprunt {
-	DISPONIBLE, EMPRUNTE 
+	DISPONIBLE, EMPRUNTE,
+	// Passager (quelques microsecondes) : un emprunt ou un retour de ce livre est en train d'être
+	// déposé dans la file d'écriture. Garantit que les mouvements d'un même livre partent en base dans l'ordre.
+	EN_TRANSITION
 }
@@ -2,7 +2,9 @@ package com.bibliotech.service;
 
 import com.bibliotech.model.Livre;
 import com.bibliotech.model.Auteur;
+import com.bibliotech.dao.ResultatLot;
 import com.bibliotech.exception.BibliothequeException;
+import java.util.Collection;
 import java.util.List;
 
 public interface ActionBibliotheque {
@@ -10,4 +12,8 @@ public interface ActionBibliotheque {
     void sauvegarderLivre(Livre livre) throws BibliothequeException;
     List<Livre> chargerTousLesLivres() throws BibliothequeException;
     void sauvegarderAuteur(Auteur auteur) throws BibliothequeException;
+
+    // Versions "par lots" pour les imports massifs
+    ResultatLot<Livre> sauvegarderLivres(Collection<Livre> livres) throws BibliothequeException;
+    ResultatLot<Auteur> sauvegarderAuteurs(Collection<Auteur> auteurs) throws BibliothequeException;
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Livre;
+import com.bibliotech.model.Auteur;
+import com.bibliotech.dao.ResultatLot;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+// Version "non bloquante" de ActionBibliotheque :
+// chaque méthode rend la main tout de suite et renvoie un CompletableFuture.
+// En cas d'échec, le future se termine avec une BibliothequeException.
+// future.cancel(true) interrompt l'opération si elle est encore en cours.
+public interface ActionBibliothequeAsync {
+    CompletableFuture<Void> sauvegarderLivre(Livre livre);
+    CompletableFuture<List<Livre>> chargerTousLesLivres();
+    CompletableFuture<Void> sauvegarderAuteur(Auteur auteur);
+
+    CompletableFuture<ResultatLot<Livre>> sauvegarderLivres(Collection<Livre> livres);
+    CompletableFuture<ResultatLot<Auteur>> sauvegarderAuteurs(Collection<Auteur> auteurs);
+
+    // Pratique pour lancer des milliers de recherches en parallèle
+    CompletableFuture<Auteur> chercherAuteurParId(int id);
+}
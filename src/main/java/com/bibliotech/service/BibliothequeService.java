@@ -3,24 +3,114 @@ package com.bibliotech.service;
 import com.bibliotech.model.Livre;
 import com.bibliotech.model.Auteur;
 import com.bibliotech.model.Categorie;
+import com.bibliotech.model.Emprunt;
+import com.bibliotech.model.StatutEmprunt;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import com.bibliotech.dao.LivreDAO;
 import com.bibliotech.dao.AuteurDAO;
+import com.bibliotech.dao.DatabaseConnection;
+import com.bibliotech.dao.EcritureDifferee;
+import com.bibliotech.dao.EmpruntDAO;
+import com.bibliotech.dao.MouvementEmprunt;
+import com.bibliotech.dao.ResultatLot;
 import com.bibliotech.exception.BibliothequeException;
+import com.bibliotech.exception.FluxInterrompuException;
+import com.bibliotech.exception.LimiteDepasseeException;
+import com.bibliotech.exportation.ExportateurCatalogue;
+import com.bibliotech.exportation.FiltreExport;
+import com.bibliotech.exportation.FormatExport;
+import com.bibliotech.exportation.RapportExport;
+import com.bibliotech.importation.FormatImport;
+import com.bibliotech.importation.ImportateurCatalogue;
+import com.bibliotech.importation.RapportImport;
+import com.bibliotech.instantane.ContenuInstantane;
+import com.bibliotech.instantane.DemarrageCatalogue;
+import com.bibliotech.instantane.EnTeteInstantane;
+import com.bibliotech.instantane.FichierInstantane;
+import com.bibliotech.instantane.JournalDeltas;
+import com.bibliotech.journal.JournalAsync;
+import com.bibliotech.journal.Niveau;
+import com.bibliotech.metriques.MetriquesOperation;
+import com.bibliotech.metriques.RegistreMetriques;
 import java.sql.SQLException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 
-import java.util.concurrent.Semaphore;
 
 public class BibliothequeService implements ActionBibliotheque {
 	
 	// On instancie les DAO une seule fois pour tout le service
 	private LivreDAO livreDAO = new LivreDAO();
     private AuteurDAO auteurDAO = new AuteurDAO();
+    private EmpruntDAO empruntDAO = new EmpruntDAO();
     
-    // On crée un Sémaphore : seulement 2 threads peuvent "passer" en même temps
-    private final Semaphore semaphore = new Semaphore(3);
+    // Cache des auteurs par ID : les auteurs changent rarement et on relit souvent les mêmes
+    // 10 000 auteurs max, rechargés au bout de 10 minutes, "ID inconnu" mémorisé aussi
+    private final CacheLRU<Integer, Auteur> cacheAuteurs = new CacheLRU<>(10_000, 10 * 60_000, true);
+    
+    // Copie mémoire du catalogue avec ses index (catégorie, titre, auteur).
+    // Chargée une seule fois depuis la base, puis tenue à jour par sauvegarderLivre(s).
+    private final CatalogueEnMemoire catalogue = new CatalogueEnMemoire();
+    private volatile boolean catalogueCharge = false;
+    
+    // Journal des livres ajoutés depuis le dernier instantané (null = pas d'instantané utilisé)
+    private volatile JournalDeltas journalDeltas;
+    private Path fichierInstantane;
+    
+    // Emprunts et retours acceptés en mémoire, écrits en base par lots (créée au premier emprunt)
+    private final Object verrouEmprunts = new Object();
+    private volatile EcritureDifferee<MouvementEmprunt> ecritureEmprunts;
+    // Qui a emprunté quoi (modifié uniquement par le thread qui tient le livre EN_TRANSITION)
+    private final ConcurrentHashMap<Integer, Emprunt> empruntsEnCours = new ConcurrentHashMap<>();
+    
+    // Mode "écriture différée" des livres et auteurs (null = désactivé, voir activerEcritureDifferee)
+    private volatile EcritureDifferee<Livre> ecritureLivres;
+    private volatile EcritureDifferee<Auteur> ecritureAuteurs;
+    
+    // Comptes de livres pour les tableaux de bord (désactivé par défaut, voir setDureeCacheCompteursMs)
+    private final CompteurLivres compteurLivres = new CompteurLivres(0);
+    
+    // Limiteur adaptatif (remplace l'ancien Semaphore(3) figé) :
+    // départ à 3 accès simultanés, puis entre 1 et 50 selon la latence mesurée (cible : 500 ms).
+    // Au plus 100 demandes en attente, refusées après 30 s d'attente.
+    private final LimiteurAdaptatif limiteur = new LimiteurAdaptatif(3, 1, 50, 100, 30_000, 500);
+    
+    // Métriques côté service (cache, validation et conversion d'erreurs compris), visibles en JMX.
+    // Le détail par requête SQL est dans les métriques "dao".
+    private static final MetriquesOperation M_SAUVEGARDER_AUTEUR = RegistreMetriques.operation("service", "sauvegarderAuteur");
+    private static final MetriquesOperation M_SAUVEGARDER_AUTEURS = RegistreMetriques.operation("service", "sauvegarderAuteurs");
+    private static final MetriquesOperation M_CHARGER_AUTEURS = RegistreMetriques.operation("service", "chargerTousLesAuteurs");
+    private static final MetriquesOperation M_CHERCHER_AUTEUR = RegistreMetriques.operation("service", "chercherAuteurParId");
+    private static final MetriquesOperation M_AUTEURS_AVEC_LIVRES = RegistreMetriques.operation("service", "listerAuteursAvecLivres");
+    private static final MetriquesOperation M_SAUVEGARDER_LIVRE = RegistreMetriques.operation("service", "sauvegarderLivre");
+    private static final MetriquesOperation M_SAUVEGARDER_LIVRES = RegistreMetriques.operation("service", "sauvegarderLivres");
+    private static final MetriquesOperation M_CHARGER_LIVRES = RegistreMetriques.operation("service", "chargerTousLesLivres");
+    private static final MetriquesOperation M_COMPTER_CATEGORIES = RegistreMetriques.operation("service", "compterLivresParCategorie");
+    private static final MetriquesOperation M_PAGE_LIVRES = RegistreMetriques.operation("service", "pageDeLivres");
+    private static final MetriquesOperation M_PAGE_AUTEURS = RegistreMetriques.operation("service", "pageDAuteurs");
+    private static final MetriquesOperation M_PAGE_AUTEURS_LIVRES = RegistreMetriques.operation("service", "pageDAuteursAvecLivres");
+    private static final MetriquesOperation M_EMPRUNTER = RegistreMetriques.operation("service", "emprunterLivre");
+    private static final MetriquesOperation M_RENDRE = RegistreMetriques.operation("service", "rendreLivre");
+    
+    // Journal asynchrone pour les méthodes multi-threads : un System.out.println par étape
+    // obligeait tous les threads à faire la queue devant la console (PrintStream synchronisé)
+    private static final JournalAsync JOURNAL = JournalAsync.getInstance();
     
     
 //============================================================================//
@@ -34,44 +124,119 @@ public class BibliothequeService implements ActionBibliotheque {
      * Validation métier : Le nom est obligatoire.
      */
     public void sauvegarderAuteur(Auteur auteur) throws BibliothequeException {
-        if (auteur.getNom() == null || auteur.getNom().trim().isEmpty()) {
-            throw new BibliothequeException("⚠️ Erreur métier : Le nom de l'auteur est obligatoire !");
+        String erreur = validerAuteur(auteur);
+        if (erreur != null) {
+            throw new BibliothequeException(erreur);
+        }
+        long debut = System.nanoTime();
+        if (ecritureAuteurs != null) {
+            // Mode différé : même résultat, mais la transaction est partagée avec les autres appelants
+            attendreCommit(sauvegarderAuteurDiffere(auteur), M_SAUVEGARDER_AUTEUR, debut);
+            return;
         }
         try {
             auteurDAO.ajouterAuteur(auteur);
+            // Le nouvel auteur remplace une éventuelle entrée "ID inconnu" dans le cache
+            cacheAuteurs.mettre(auteur.getId(), auteur);
         } catch (SQLException e) {
+            M_SAUVEGARDER_AUTEUR.echec(debut);
             throw new BibliothequeException("❌ Erreur technique lors de l'ajout de l'auteur.", e);
         }
+        M_SAUVEGARDER_AUTEUR.succes(debut);
+    }
+
+    /**
+     * Sauvegarde plusieurs auteurs en une fois (insertion par lots).
+     * Mêmes règles que sauvegarderAuteur : un auteur sans nom est refusé,
+     * mais il n'empêche pas les autres d'être insérés (il apparaît dans les échecs).
+     */
+    public ResultatLot<Auteur> sauvegarderAuteurs(Collection<Auteur> auteurs) throws BibliothequeException {
+        ResultatLot<Auteur> resultat = sauvegarderParLots(auteurs, this::validerAuteur, auteurDAO::ajouterAuteurs,
+                "❌ Erreur technique lors de l'ajout des auteurs.", M_SAUVEGARDER_AUTEURS);
+        // Seuls les auteurs réellement insérés vont dans le cache
+        Set<Auteur> refuses = Collections.newSetFromMap(new IdentityHashMap<>());
+        resultat.getEchecs().forEach(e -> refuses.add(e.element()));
+        for (Auteur a : auteurs) {
+            if (a != null && !refuses.contains(a) && a.getId() > 0) {
+                cacheAuteurs.mettre(a.getId(), a);
+            }
+        }
+        return resultat;
+    }
+
+    // Règle métier : Le nom est obligatoire. Renvoie le message d'erreur, ou null si tout va bien.
+    private String validerAuteur(Auteur auteur) {
+        if (auteur == null || auteur.getNom() == null || auteur.getNom().trim().isEmpty()) {
+            return "⚠️ Erreur métier : Le nom de l'auteur est obligatoire !";
+        }
+        return null;
     }
 
     /**
      * Récupère tous les auteurs.
      */
     public List<Auteur> chargerTousLesAuteurs() throws BibliothequeException {
+        long debut = System.nanoTime();
         try {
-            return auteurDAO.listerTousLesAuteurs();
+            List<Auteur> auteurs = auteurDAO.listerTousLesAuteurs();
+            M_CHARGER_AUTEURS.succes(debut);
+            return auteurs;
         } catch (SQLException e) {
+            M_CHARGER_AUTEURS.echec(debut);
             throw new BibliothequeException("❌ Impossible de charger la liste des auteurs.", e);
         }
     }
 
+    /**
+     * Chaque auteur avec ses livres (triés par ID), en UNE requête : plus de boucle
+     * "pour chaque auteur, filtrer tous les livres" ni de requête par auteur.
+     * inclureSansLivre = false : les auteurs sans aucun livre sont écartés par MySQL.
+     */
+    public Map<Auteur, List<Livre>> listerAuteursAvecLivres(boolean inclureSansLivre) throws BibliothequeException {
+        long debut = System.nanoTime();
+        try {
+            Map<Auteur, List<Livre>> resultat = auteurDAO.listerAuteursAvecLivres(inclureSansLivre);
+            M_AUTEURS_AVEC_LIVRES.succes(debut, resultat.size(), 0);
+            return resultat;
+        } catch (SQLException e) {
+            M_AUTEURS_AVEC_LIVRES.echec(debut);
+            throw new BibliothequeException("❌ Impossible de charger les auteurs avec leurs livres.", e);
+        }
+    }
+
+    // Par défaut, tous les auteurs (ceux sans livre ont une liste vide)
+    public Map<Auteur, List<Livre>> listerAuteursAvecLivres() throws BibliothequeException {
+        return listerAuteursAvecLivres(true);
+    }
+
     /**
      * Trouve un auteur précis. 
      * Si l'auteur n'existe pas, on lance une exception plutôt que de renvoyer null 
      * (C'est plus propre en architecture Service).
+     * On passe d'abord par le cache : la base n'est interrogée qu'en cas d'absence.
      */
     public Auteur chercherAuteurParId(int id) throws BibliothequeException {
+        long debut = System.nanoTime();
         try {
-            Auteur a = auteurDAO.trouverAuteurParId(id);
+            Auteur a = cacheAuteurs.obtenir(id, auteurDAO::trouverAuteurParId);
+            // Un ID inconnu est une réponse normale (pas une erreur technique) : compté comme succès
+            M_CHERCHER_AUTEUR.succes(debut);
             if (a == null) {
                 throw new BibliothequeException("⚠️ Aucun auteur trouvé avec l'ID : " + id);
             }
             return a;
         } catch (SQLException e) {
+            M_CHERCHER_AUTEUR.echec(debut);
             throw new BibliothequeException("❌ Erreur lors de la recherche de l'auteur ID: " + id, e);
         }
     }
     
+
+    // Compteurs du cache des auteurs (succès / échecs / évictions) pour bien le dimensionner
+    public CacheLRU.StatistiquesCache getStatistiquesCacheAuteurs() {
+        return cacheAuteurs.getStatistiques();
+    }
+    
   
  // --- PARTIE LIVRE ---
     
@@ -79,20 +244,125 @@ public class BibliothequeService implements ActionBibliotheque {
     // pour encapsuler une erreur SQL et ajouter une validation métier.
     public void sauvegarderLivre(Livre livre) throws BibliothequeException {
         // Validation métier : on ne veut pas de titre vide
-        if (livre.getTitre() == null || livre.getTitre().isEmpty()) {
-            throw new BibliothequeException("Le titre ne peut pas être vide !");
+        String erreur = validerLivre(livre);
+        if (erreur != null) {
+            throw new BibliothequeException(erreur);
         }
         
+        long debut = System.nanoTime();
+        if (ecritureLivres != null) {
+            // Même contrat qu'en mode immédiat : mêmes messages, échec compté même sur une validation
+            CompletableFuture<Livre> fin;
+            try {
+                fin = sauvegarderLivreDiffere(livre);
+            } catch (BibliothequeException e) {
+                M_SAUVEGARDER_LIVRE.echec(debut);
+                throw e;
+            }
+            attendreCommit(fin, M_SAUVEGARDER_LIVRE, debut);
+            return;
+        }
         try {
-            livreDAO.ajouterLivre(livre);
+            // Protection contre les doublons assurée par la base (contrainte unique) :
+            // pas de "synchronized", les ajouts de titres différents restent parallèles
+            if (!livreDAO.ajouterLivreSiAbsent(livre)) {
+                M_SAUVEGARDER_LIVRE.echec(debut);
+                throw new BibliothequeException(messageLivreExistant(livre));
+            }
+            compteurLivres.incrementer(livre.getCategorie(), 1);
+            // Mise à jour incrémentale des index (même si le catalogue n'est pas encore chargé :
+            // le chargement ignorera ce livre, déjà présent)
+            catalogue.ajouter(livre);
+            noterDeltas(List.of(livre));
         } catch (SQLException e) {
+            M_SAUVEGARDER_LIVRE.echec(debut);
             // On transforme l'erreur SQL technique en erreur métier
             throw new BibliothequeException("Erreur lors de la sauvegarde en base", e);
         }
+        M_SAUVEGARDER_LIVRE.succes(debut);
+    }
+
+    private static String messageLivreExistant(Livre livre) {
+        return "Erreur : Le livre '" + livre.getTitre() + "' existe déjà !";
+    }
+
+    // Version "par lots" : les livres invalides sont écartés et signalés dans le résultat,
+    // les autres partent en base par tranches (une transaction par tranche).
+    public ResultatLot<Livre> sauvegarderLivres(Collection<Livre> livres) throws BibliothequeException {
+        ResultatLot<Livre> resultat = sauvegarderParLots(livres, this::validerLivre, livreDAO::ajouterLivres,
+                "Erreur lors de la sauvegarde en base", M_SAUVEGARDER_LIVRES);
+        // Seuls les livres réellement insérés (ID généré) entrent dans le catalogue mémoire
+        Set<Livre> refuses = Collections.newSetFromMap(new IdentityHashMap<>());
+        resultat.getEchecs().forEach(e -> refuses.add(e.element()));
+        List<Livre> inseres = livres.stream()
+                .filter(l -> l != null && !refuses.contains(l) && l.getId() > 0)
+                .toList();
+        catalogue.ajouterTous(inseres);
+        inseres.forEach(l -> compteurLivres.incrementer(l.getCategorie(), 1));
+        noterDeltas(inseres);
+        return resultat;
+    }
+
+    // Règle métier : on ne veut pas de titre vide. Renvoie le message d'erreur, ou null.
+    private String validerLivre(Livre livre) {
+        if (livre == null || livre.getTitre() == null || livre.getTitre().isEmpty()) {
+            return "Le titre ne peut pas être vide !";
+        }
+        return null;
+    }
+
+    // L'appel DAO "par lots" (ajouterLivres / ajouterAuteurs)
+    @FunctionalInterface
+    private interface InsertionParLots<T> {
+        ResultatLot<T> inserer(Collection<T> elements) throws SQLException;
+    }
+
+    // Logique commune aux sauvegardes par lots :
+    // 1. on valide chaque élément (les refusés deviennent des échecs),
+    // 2. on envoie les valides au DAO,
+    // 3. on remet les positions des échecs DAO dans la numérotation d'origine.
+    private <T> ResultatLot<T> sauvegarderParLots(Collection<T> elements, Function<T, String> validation,
+                                                  InsertionParLots<T> dao, String messageErreur,
+                                                  MetriquesOperation metriques)
+            throws BibliothequeException {
+        if (elements == null) {
+            throw new BibliothequeException("La collection à sauvegarder ne peut pas être nulle !");
+        }
+        List<T> valides = new ArrayList<>();
+        List<Integer> positionsValides = new ArrayList<>();
+        List<ResultatLot.Echec<T>> echecs = new ArrayList<>();
+
+        int position = 0;
+        for (T element : elements) {
+            String erreur = validation.apply(element);
+            if (erreur == null) {
+                valides.add(element);
+                positionsValides.add(position);
+            } else {
+                echecs.add(new ResultatLot.Echec<>(position, element, erreur));
+            }
+            position++;
+        }
+
+        long debut = System.nanoTime();
+        try {
+            ResultatLot<T> resultatDAO = dao.inserer(valides);
+            for (ResultatLot.Echec<T> e : resultatDAO.getEchecs()) {
+                echecs.add(new ResultatLot.Echec<>(positionsValides.get(e.position()), e.element(), e.raison()));
+            }
+            echecs.sort(Comparator.comparingInt(ResultatLot.Echec::position));
+            metriques.succes(debut, 0, resultatDAO.getNbInseres());
+            return new ResultatLot<>(resultatDAO.getNbInseres(), echecs);
+        } catch (SQLException e) {
+            metriques.echec(debut);
+            throw new BibliothequeException(messageErreur, e);
+        }
     }
     
     
     // VERSION POUR TESTER LE MULTI THREADING AVEC SYNCHRONIZATION
+    // (Remplacée par la contrainte unique sur le titre : voir LivreDAO.ajouterLivreSiAbsent.
+    //  Cette version sérialise TOUS les ajouts et relit toute la table à chaque fois.)
 // ============================================================================//
 //	  				  MULTI-THREADING AVEC SYNCHRONIZE                         //
 //=============================================================================//
@@ -127,13 +397,899 @@ public class BibliothequeService implements ActionBibliotheque {
     
     // Récupère les livres depuis la base.
     public List<Livre> chargerTousLesLivres() throws BibliothequeException {
+        long debut = System.nanoTime();
         try {
-            return livreDAO.listerTousLesLivres();
+            List<Livre> livres = livreDAO.listerTousLesLivres();
+            M_CHARGER_LIVRES.succes(debut, livres.size(), 0);
+            return livres;
         } catch (SQLException e) {
+            M_CHARGER_LIVRES.echec(debut);
             throw new BibliothequeException("Impossible de charger la bibliothèque", e);
         }
     }
 
+    // Ouvre un flux de livres lu directement depuis le curseur MySQL (rien n'est chargé d'avance).
+    // ⚠️ À utiliser dans un try-with-resources : fermer le flux rend la connexion.
+    public Stream<Livre> streamerLivres() throws BibliothequeException {
+        try {
+            return livreDAO.streamerLivres();
+        } catch (SQLException e) {
+            throw new BibliothequeException("Impossible d'ouvrir le flux de la bibliothèque", e);
+        }
+    }
+
+
+//============================================================================//
+			// ÉCRITURE DIFFÉRÉE (validation groupée des sauvegardes) //
+//============================================================================//
+
+    /**
+     * Active le mode différé pour sauvegarderLivre / sauvegarderAuteur.
+     *
+     * Sans lui : une sauvegarde = une transaction = un fsync du journal InnoDB au commit.
+     * Sous une rafale d'écritures, MySQL passe son temps à attendre le disque.
+     * Avec lui : la validation reste immédiate, puis l'élément part dans une file bornée ;
+     * un thread d'écriture regroupe jusqu'à "tailleLot" éléments (ou ce qui est arrivé en "delaiMaxMs")
+     * dans UNE transaction multi-lignes : un seul commit pour tout le lot.
+     *
+     * File pleine : l'appelant attend (la base impose son rythme). Arrêt : tout ce qui est en file est écrit.
+     */
+    public synchronized void activerEcritureDifferee(int capacite, int tailleLot, long delaiMaxMs) {
+        desactiverEcritureDifferee();
+        // Tout le lot dans une seule transaction (tranche = taille du lot)
+        ecritureAuteurs = new EcritureDifferee<>("auteurs", capacite, tailleLot, delaiMaxMs,
+                lot -> auteurDAO.ajouterAuteurs(lot, lot.size()));
+        ecritureLivres = new EcritureDifferee<>("livres", capacite, tailleLot, delaiMaxMs,
+                lot -> livreDAO.ajouterLivres(lot, lot.size()));
+    }
+
+    // Réglages par défaut : 10 000 sauvegardes en file, lots de 500, 5 ms d'attente max pour remplir un lot
+    public void activerEcritureDifferee() {
+        activerEcritureDifferee(10_000, 500, 5);
+    }
+
+    // Écrit tout ce qui est en file, puis revient aux sauvegardes immédiates
+    public synchronized void desactiverEcritureDifferee() {
+        EcritureDifferee<Livre> livres = ecritureLivres;
+        EcritureDifferee<Auteur> auteurs = ecritureAuteurs;
+        ecritureLivres = null;
+        ecritureAuteurs = null;
+        if (auteurs != null) {
+            auteurs.fermer();
+        }
+        if (livres != null) {
+            livres.fermer();
+        }
+    }
+
+    public boolean isEcritureDiffereeActive() {
+        return ecritureLivres != null;
+    }
+
+    /**
+     * Valide tout de suite, puis confie le livre à l'écriture différée.
+     * Le future se termine quand la transaction de son lot est validée (ID généré recopié dans le livre,
+     * livre ajouté au catalogue mémoire), ou en erreur (BibliothequeException) si sa ligne est refusée.
+     * Mode différé désactivé : sauvegarde immédiate, future déjà terminé.
+     * ⚠️ L'auteur doit déjà avoir son ID : attendre le future de sauvegarderAuteurDiffere d'abord.
+     */
+    public CompletableFuture<Livre> sauvegarderLivreDiffere(Livre livre) throws BibliothequeException {
+        String erreur = validerLivre(livre);
+        if (erreur == null && (livre.getAuteur() == null || livre.getAuteur().getId() <= 0)) {
+            erreur = "L'auteur du livre '" + livre.getTitre() + "' doit être enregistré avant le livre !";
+        }
+        if (erreur != null) {
+            throw new BibliothequeException(erreur);
+        }
+        EcritureDifferee<Livre> ecriture = ecritureLivres;
+        if (ecriture == null) {
+            sauvegarderLivre(livre);
+            return CompletableFuture.completedFuture(livre);
+        }
+        // Titre déjà en base : même message qu'en mode immédiat (pas le "Duplicate entry" brut de MySQL)
+        return deposer(ecriture, livre, "du livre '" + livre.getTitre() + "'",
+                raison -> LivreDAO.estRefusTitreEnDoublon(raison) ? messageLivreExistant(livre) : null).thenApply(l -> {
+            // Comme sauvegarderLivre : compteurs, catalogue mémoire, journal de deltas
+            compteurLivres.incrementer(l.getCategorie(), 1);
+            catalogue.ajouter(l);
+            noterDeltas(List.of(l));
+            return l;
+        });
+    }
+
+    // Même principe pour un auteur (l'ID généré est recopié dans l'objet avant la fin du future)
+    public CompletableFuture<Auteur> sauvegarderAuteurDiffere(Auteur auteur) throws BibliothequeException {
+        String erreur = validerAuteur(auteur);
+        if (erreur != null) {
+            throw new BibliothequeException(erreur);
+        }
+        EcritureDifferee<Auteur> ecriture = ecritureAuteurs;
+        if (ecriture == null) {
+            sauvegarderAuteur(auteur);
+            return CompletableFuture.completedFuture(auteur);
+        }
+        return deposer(ecriture, auteur, "de l'auteur " + auteur.getNom(), raison -> null).thenApply(a -> {
+            cacheAuteurs.mettre(a.getId(), a);
+            return a;
+        });
+    }
+
+    // Dépose l'élément ; l'erreur SQL d'un refus devient une BibliothequeException dans le future.
+    // messageMetier : raison SQL du refus -> message métier à la place du message générique (null = aucun)
+    private static <T> CompletableFuture<T> deposer(EcritureDifferee<T> ecriture, T element, String description,
+                                                    Function<String, String> messageMetier)
+            throws BibliothequeException {
+        CompletableFuture<T> fin;
+        try {
+            fin = ecriture.soumettre(element);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BibliothequeException("Interrompu avant la sauvegarde " + description, e);
+        } catch (IllegalStateException e) {
+            throw new BibliothequeException("Écriture différée arrêtée : sauvegarde " + description + " refusée", e);
+        }
+        return fin.handle((resultat, erreur) -> {
+            if (erreur != null) {
+                String message = messageMetier.apply(erreur.getMessage());
+                throw new CompletionException(message != null ? new BibliothequeException(message, erreur)
+                        : new BibliothequeException(
+                                "Erreur lors de la sauvegarde en base " + description + " : " + erreur.getMessage(), erreur));
+            }
+            return resultat;
+        });
+    }
+
+    // Version bloquante : l'appelant attend le commit du lot qui contient sa sauvegarde
+    private static void attendreCommit(CompletableFuture<?> fin, MetriquesOperation metriques, long debut)
+            throws BibliothequeException {
+        try {
+            fin.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            metriques.echec(debut);
+            throw new BibliothequeException("Interrompu pendant l'attente de la sauvegarde", e);
+        } catch (ExecutionException e) {
+            metriques.echec(debut);
+            if (e.getCause() instanceof BibliothequeException erreurMetier) {
+                throw erreurMetier;
+            }
+            throw new BibliothequeException("Erreur lors de la sauvegarde en base", e.getCause());
+        }
+        // Le commit a été fait par le thread d'écriture : c'est l'appelant qui doit relire sur la principale
+        DatabaseConnection.noterEcriture();
+        metriques.succes(debut);
+    }
+
+    
+//============================================================================//
+				   // IMPORT EN MASSE (fichiers fournisseurs) //
+//============================================================================//
+
+    // Format déduit de l'extension (.csv ou .jsonl)
+    public RapportImport importerCatalogue(Path fichier) throws BibliothequeException {
+        try {
+            return importerCatalogue(fichier, FormatImport.depuisExtension(fichier));
+        } catch (IllegalArgumentException e) {
+            throw new BibliothequeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Importe un fichier fournisseur complet (lecture NIO + analyse parallèle + insertions par lots).
+     * Si un import précédent du même fichier s'est arrêté en route, il reprend au dernier bloc validé.
+     * Les lignes refusées (format, catégorie inconnue, titre déjà présent...) sont dans le rapport.
+     */
+    public RapportImport importerCatalogue(Path fichier, FormatImport format) throws BibliothequeException {
+        ImportateurCatalogue importateur = new ImportateurCatalogue(livreDAO, auteurDAO);
+        try {
+            // Comme sauvegarderLivres : les livres insérés entrent dans le catalogue et les compteurs
+            return importateur.importer(fichier, format, inseres -> {
+                catalogue.ajouterTous(inseres);
+                inseres.forEach(l -> compteurLivres.incrementer(l.getCategorie(), 1));
+                noterDeltas(inseres);
+            });
+        } catch (IOException e) {
+            throw new BibliothequeException("Import de " + fichier.getFileName() + " interrompu (relancer pour reprendre)", e);
+        } catch (SQLException e) {
+            throw new BibliothequeException("Erreur en base pendant l'import de " + fichier.getFileName()
+                    + " (relancer pour reprendre)", e);
+        }
+    }
+
+
+	
+//============================================================================//
+				   // EXPORT (curseur en flux -> fichiers) //
+//============================================================================//
+
+    // Tout le catalogue dans un seul fichier, non compressé
+    public RapportExport exporterCatalogue(Path base, FormatExport format) throws BibliothequeException {
+        return exporterCatalogue(base, format, FiltreExport.tous(), 1, false);
+    }
+
+    /**
+     * Export de nuit : les livres sont lus en flux depuis MySQL et écrits directement dans
+     * le(s) fichier(s), sans passer par chargerTousLesLivres() (mémoire constante).
+     * nbFichiers > 1 : lignes réparties à tour de rôle, un fichier par consommateur.
+     */
+    public RapportExport exporterCatalogue(Path base, FormatExport format, FiltreExport filtre,
+                                           int nbFichiers, boolean gzip) throws BibliothequeException {
+        try {
+            return new ExportateurCatalogue(livreDAO).exporter(base, format, filtre, nbFichiers, gzip);
+        } catch (IOException e) {
+            throw new BibliothequeException("Impossible d'écrire l'export " + base.getFileName(), e);
+        } catch (SQLException e) {
+            throw new BibliothequeException("Impossible de lire le catalogue pour l'export", e);
+        }
+    }
+
+	
+//============================================================================//
+					   // COMPTAGES (COUNT côté MySQL) //
+//============================================================================//
+
+    // Nombre total de livres, sans charger un seul livre
+    public long compterLivres() throws BibliothequeException {
+        if (compteurLivres.estActif()) {
+            // Le total est la somme des catégories : une seule requête remplit tout le cache
+            return compterLivresParCategorie().values().stream().mapToLong(Long::longValue).sum();
+        }
+        try {
+            return livreDAO.compterLivres();
+        } catch (SQLException e) {
+            throw new BibliothequeException("Impossible de compter les livres", e);
+        }
+    }
+
+    // Nombre de livres pour chaque catégorie (GROUP BY côté MySQL)
+    public Map<Categorie, Long> compterLivresParCategorie() throws BibliothequeException {
+        long debut = System.nanoTime();
+        Map<Categorie, Long> enCache = compteurLivres.lire();
+        if (enCache != null) {
+            M_COMPTER_CATEGORIES.succes(debut);
+            return enCache;
+        }
+        try {
+            Map<Categorie, Long> comptes = livreDAO.compterLivresParCategorie();
+            compteurLivres.memoriser(comptes);
+            M_COMPTER_CATEGORIES.succes(debut);
+            return Collections.unmodifiableMap(comptes);
+        } catch (SQLException e) {
+            M_COMPTER_CATEGORIES.echec(debut);
+            throw new BibliothequeException("Impossible de compter les livres par catégorie", e);
+        }
+    }
+
+    // Active le cache des comptes : pendant "dureeMs", les comptes sont servis depuis la mémoire
+    // (et incrémentés à chaque sauvegarde). 0 = toujours interroger la base.
+    public void setDureeCacheCompteursMs(long dureeMs) {
+        compteurLivres.setDureeMs(dureeMs);
+    }
+
+    
+//============================================================================//
+				   // CATALOGUE EN MÉMOIRE (index secondaires) //
+//============================================================================//
+
+    // Le catalogue est chargé depuis la base au premier appel seulement.
+    // Ensuite, chaque lecture est un simple accès mémoire, sans verrou.
+    public CatalogueEnMemoire.Instantane instantaneCatalogue() throws BibliothequeException {
+        if (!catalogueCharge) {
+            synchronized (catalogue) {
+                if (!catalogueCharge) {
+                    chargerCatalogue();
+                    catalogueCharge = true;
+                }
+            }
+        }
+        return catalogue.instantane();
+    }
+
+    // Relit la base pour y prendre les livres ajoutés par d'autres applications
+    public void rafraichirCatalogue() throws BibliothequeException {
+        synchronized (catalogue) {
+            chargerCatalogue();
+            catalogueCharge = true;
+        }
+    }
+
+    // Livres lus en base avant chaque ajout au catalogue
+    private static final int TAILLE_PAQUET_CATALOGUE = 1000;
+
+    // Les livres déjà connus (même ID) sont ignorés par le catalogue.
+    // Lecture par paquets : le verrou d'écriture du catalogue n'est pris que pour ranger un paquet
+    // déjà en mémoire, jamais pendant la lecture MySQL (sauvegarderLivre, emprunts... n'attendent pas).
+    private void chargerCatalogue() throws BibliothequeException {
+        try (Stream<Livre> flux = streamerLivres()) {
+            List<Livre> paquet = new ArrayList<>(TAILLE_PAQUET_CATALOGUE);
+            Iterator<Livre> it = flux.iterator();
+            while (it.hasNext()) {
+                paquet.add(it.next());
+                if (paquet.size() == TAILLE_PAQUET_CATALOGUE) {
+                    catalogue.ajouterTous(paquet);
+                    paquet.clear();
+                }
+            }
+            catalogue.ajouterTous(paquet);
+        } catch (FluxInterrompuException e) {
+            throw new BibliothequeException("Impossible de charger le catalogue en mémoire", e);
+        }
+    }
+
+    // O(résultat) au lieu de O(catalogue) + un aller-retour en base
+    public List<Livre> filtrerParCategorie(Categorie cible) throws BibliothequeException {
+        return instantaneCatalogue().parCategorie(cible);
+    }
+
+    public Set<Categorie> obtenirCategoriesUniques() throws BibliothequeException {
+        return instantaneCatalogue().categories();
+    }
+
+    // Recherche par titre exact : renvoie null si aucun livre ne porte ce titre
+    public Livre chercherLivreParTitre(String titre) throws BibliothequeException {
+        return instantaneCatalogue().parTitre(titre);
+    }
+
+    public List<Livre> chercherLivresParAuteur(int idAuteur) throws BibliothequeException {
+        return instantaneCatalogue().parAuteur(idAuteur);
+    }
+
+    // Recherche par mots-clés dans les titres, via l'index inversé :
+    // "evenement" trouve "Événement", "JAVA" trouve "Le Guide du Java".
+    // Par défaut, le titre doit contenir TOUS les mots (ET).
+    public List<Livre> rechercherParMotCle(String... motsCles) throws BibliothequeException {
+        return rechercherParMotCle(OperateurRecherche.ET, motsCles);
+    }
+
+    public List<Livre> rechercherParMotCle(OperateurRecherche operateur, String... motsCles) throws BibliothequeException {
+        return instantaneCatalogue().parMotsCles(operateur, motsCles);
+    }
+
+    // Autocomplétion : les k premiers titres qui commencent par "prefixe" (accents et majuscules ignorés)
+    public List<Livre> autocompleterTitre(String prefixe, int k) throws BibliothequeException {
+        return instantaneCatalogue().titresCommencantPar(prefixe, k);
+    }
+
+    // Les k premiers livres par ordre alphabétique : O(k), l'index est déjà trié.
+    // Accents et majuscules ignorés, comme l'autocomplétion (≠ ordre de trierLivresParTitre)
+    public List<Livre> premiersLivresParTitre(int k) throws BibliothequeException {
+        return instantaneCatalogue().triesParTitre().limit(k).toList();
+    }
+
+    // Les livres dont le titre est entre "de" (inclus) et "a" (exclu), déjà triés
+    public List<Livre> livresParTitreEntre(String de, String a) throws BibliothequeException {
+        return instantaneCatalogue().titresEntre(de, a).toList();
+    }
+
+//============================================================================//
+				  // INSTANTANÉ DU CATALOGUE (démarrage à froid) //
+//============================================================================//
+
+    /**
+     * Démarre le catalogue mémoire depuis un instantané binaire au lieu de MySQL :
+     *   1. projection du fichier (mmap) + vérification des CRC, puis relecture du journal de deltas
+     *   2. le catalogue répond tout de suite (catalogueCharge = true)
+     *   3. en arrière-plan, les livres ajoutés en base depuis (ID > plus grand ID connu) sont chargés
+     * Instantané absent, abîmé ou d'un autre format : démarrage classique depuis MySQL,
+     * puis écriture d'un instantané neuf pour le démarrage suivant.
+     * Les ajouts suivants (sauvegarderLivre(s), import) sont notés dans le journal de deltas.
+     */
+    public DemarrageCatalogue demarrerDepuisInstantane(Path fichier) throws BibliothequeException {
+        long debutMs = System.currentTimeMillis();
+        synchronized (catalogue) {
+            fermerJournalDeltas();
+            ContenuInstantane contenu;
+            JournalDeltas deltas;
+            try {
+                contenu = FichierInstantane.charger(fichier);
+                deltas = JournalDeltas.ouvrir(JournalDeltas.fichierPour(fichier),
+                        contenu.enTete().identifiant(), contenu.auteurs());
+            } catch (IOException e) {
+                JOURNAL.avertissement("BibliothequeService.demarrerDepuisInstantane",
+                        "⚠️ Instantané inutilisable, chargement depuis MySQL", e.getMessage());
+                chargerCatalogue();
+                catalogueCharge = true;
+                int nbLivres = catalogue.instantane().taille();
+                ecrireInstantaneCatalogue(fichier);
+                return new DemarrageCatalogue(false, nbLivres, 0, System.currentTimeMillis() - debutMs,
+                        CompletableFuture.completedFuture(0));
+            }
+
+            catalogue.ajouterTous(contenu.livres());
+            catalogue.ajouterTous(deltas.getLivresRelus());
+            catalogueCharge = true;
+            journalDeltas = deltas;
+            fichierInstantane = fichier;
+            long dureeMs = System.currentTimeMillis() - debutMs;
+
+            CompletableFuture<Integer> rattrapage = new CompletableFuture<>();
+            Thread t = new Thread(() -> rattraper(deltas, rattrapage), "rattrapage-catalogue");
+            t.setDaemon(true);
+            t.start();
+            return new DemarrageCatalogue(true, contenu.livres().size(), deltas.getLivresRelus().size(),
+                    dureeMs, rattrapage);
+        }
+    }
+
+    // IDs lus par aller-retour pendant le rattrapage
+    private static final int TAILLE_PAGE_RATTRAPAGE = 5000;
+
+    /**
+     * Charge les livres présents en base mais absents de l'instantané et du journal de deltas :
+     * ajoutés par d'autres applications, delta non écrit (erreur disque, arrêt brutal entre le commit
+     * MySQL et le journal), ou ID AUTO_INCREMENT plus petit validé APRÈS un plus grand.
+     * On compare donc TOUS les IDs de la base à ceux du catalogue (pas seulement "après l'ID max") :
+     * parcours par clé de la clé primaire, seuls les livres manquants sont lus en entier.
+     */
+    private void rattraper(JournalDeltas deltas, CompletableFuture<Integer> resultat) {
+        long debut = System.nanoTime();
+        List<Livre> nouveaux = new ArrayList<>();
+        try {
+            int apresId = 0;
+            int[] ids;
+            do {
+                ids = livreDAO.listerIdsLivres(apresId, TAILLE_PAGE_RATTRAPAGE);
+                int[] manquants = new int[ids.length];
+                int nbManquants = 0;
+                for (int id : ids) {
+                    if (catalogue.livreParId(id) == null) {
+                        manquants[nbManquants++] = id;
+                    }
+                }
+                for (Livre l : livreDAO.listerLivresParIds(Arrays.copyOf(manquants, nbManquants))) {
+                    if (catalogue.ajouter(l)) {
+                        nouveaux.add(l);
+                    }
+                }
+                if (ids.length > 0) {
+                    apresId = ids[ids.length - 1];
+                }
+            } while (ids.length == TAILLE_PAGE_RATTRAPAGE);
+        } catch (SQLException | RuntimeException e) {
+            JOURNAL.erreur("BibliothequeService.rattraper", "❌ Rattrapage depuis MySQL interrompu", e.getMessage());
+            resultat.completeExceptionally(new BibliothequeException("Rattrapage du catalogue interrompu", e));
+            return;
+        }
+        // Notés dans le journal : le prochain démarrage n'aura pas à les relire en base
+        if (!nouveaux.isEmpty() && journalDeltas == deltas) {
+            noterDeltas(nouveaux);
+        }
+        JOURNAL.info("BibliothequeService.rattraper", "✅ Catalogue rattrapé depuis MySQL",
+                nouveaux.size() + " livre(s) absent(s) de l'instantané", -1, System.nanoTime() - debut);
+        resultat.complete(nouveaux.size());
+    }
+
+    /**
+     * Écrit l'instantané du catalogue mémoire (chargé depuis MySQL si besoin).
+     * Si c'est l'instantané utilisé au démarrage, son journal de deltas repart de zéro.
+     */
+    public EnTeteInstantane ecrireInstantaneCatalogue(Path fichier) throws BibliothequeException {
+        CatalogueEnMemoire.Instantane vue = instantaneCatalogue();
+        try {
+            EnTeteInstantane enTete = FichierInstantane.ecrire(fichier, vue.livres());
+            JournalDeltas deltas = journalDeltas;
+            if (deltas != null && fichier.equals(fichierInstantane)) {
+                synchronized (deltas) {
+                    deltas.repartirDe(enTete.identifiant());
+                    // Les livres ajoutés pendant l'écriture ne sont pas dans l'instantané : on les garde
+                    List<Livre> tous = catalogue.instantane().livres();
+                    if (tous.size() > vue.taille()) {
+                        deltas.ajouter(tous.subList(vue.taille(), tous.size()));
+                    }
+                }
+            } else if (journalDeltas == null) {
+                // Premier instantané : les ajouts suivants sont notés dans son journal
+                synchronized (catalogue) {
+                    journalDeltas = JournalDeltas.ouvrir(JournalDeltas.fichierPour(fichier), enTete.identifiant(),
+                            new HashMap<>());
+                    fichierInstantane = fichier;
+                    List<Livre> tous = catalogue.instantane().livres();
+                    if (tous.size() > vue.taille()) {
+                        journalDeltas.ajouter(tous.subList(vue.taille(), tous.size()));
+                    }
+                }
+            }
+            return enTete;
+        } catch (IOException e) {
+            throw new BibliothequeException("Impossible d'écrire l'instantané " + fichier.getFileName(), e);
+        }
+    }
+
+    // Nombre de livres notés dans le journal de deltas depuis le dernier instantané (-1 = pas de journal)
+    public long getNbDeltasCatalogue() {
+        JournalDeltas deltas = journalDeltas;
+        return deltas == null ? -1 : deltas.getNbEnregistrements();
+    }
+
+    // Un delta perdu n'est pas grave : MySQL reste la référence, et le rattrapage du prochain démarrage
+    // compare tous les IDs de la base au catalogue (il retrouve donc aussi les IDs plus petits que le max)
+    private void noterDeltas(Collection<Livre> livres) {
+        JournalDeltas deltas = journalDeltas;
+        if (deltas == null || livres.isEmpty()) {
+            return;
+        }
+        try {
+            deltas.ajouter(livres);
+        } catch (IOException e) {
+            JOURNAL.avertissement("BibliothequeService.noterDeltas",
+                    "⚠️ Delta non écrit (rattrapé depuis MySQL au prochain démarrage)", e.getMessage());
+        }
+    }
+
+    private void fermerJournalDeltas() {
+        JournalDeltas deltas = journalDeltas;
+        journalDeltas = null;
+        fichierInstantane = null;
+        if (deltas != null) {
+            try {
+                deltas.close();
+            } catch (IOException e) {
+                // Rien de plus à faire : tout ce qui a été écrit est déjà dans le fichier
+            }
+        }
+    }
+
+//============================================================================//
+				  // EMPRUNTS (course sans verrou + écriture différée) //
+//============================================================================//
+
+    /**
+     * Emprunte un livre du catalogue. Renvoie false s'il n'est pas disponible.
+     *
+     * La course est tranchée EN MÉMOIRE par un compare-and-set sur le statut du livre :
+     * 500 threads qui veulent le même livre au même instant -> un seul passe DISPONIBLE -> EN_TRANSITION,
+     * les autres reçoivent false tout de suite. Aucun verrou, aucune ligne verrouillée en base pendant la course.
+     * Le gagnant dépose son emprunt dans l'écriture différée (INSERT groupé avec d'autres, un peu plus tard),
+     * PUIS passe le livre à EMPRUNTE : le retour de ce livre ne peut commencer qu'après, il sera donc
+     * derrière l'emprunt dans la file (sinon la base pourrait recevoir deux emprunts avant le retour).
+     */
+    public boolean emprunterLivre(int idLivre, String emprunteur) throws BibliothequeException {
+        if (emprunteur == null || emprunteur.isBlank()) {
+            throw new BibliothequeException("L'emprunteur ne peut pas être vide !");
+        }
+        EcritureDifferee<MouvementEmprunt> ecriture = preparerEmprunts();
+        Livre livre = livreDuCatalogue(idLivre);
+        long debut = System.nanoTime();
+
+        if (!livre.changerStatut(StatutEmprunt.DISPONIBLE, StatutEmprunt.EN_TRANSITION)) {
+            M_EMPRUNTER.succes(debut);
+            return false; // Course perdue (ou livre déjà sorti)
+        }
+        // Le livre est à nous jusqu'à la sortie de EN_TRANSITION : personne d'autre ne touche à son emprunt en cours
+        Emprunt emprunt = new Emprunt(idLivre, emprunteur.trim(), LocalDateTime.now());
+        empruntsEnCours.put(idLivre, emprunt);
+        try {
+            deposer(ecriture, MouvementEmprunt.emprunt(emprunt));
+        } catch (BibliothequeException e) {
+            empruntsEnCours.remove(idLivre);
+            livre.changerStatut(StatutEmprunt.EN_TRANSITION, StatutEmprunt.DISPONIBLE);
+            M_EMPRUNTER.echec(debut);
+            throw e;
+        }
+        livre.changerStatut(StatutEmprunt.EN_TRANSITION, StatutEmprunt.EMPRUNTE);
+        M_EMPRUNTER.succes(debut);
+        return true;
+    }
+
+    // Rend un livre. Renvoie false s'il n'était pas emprunté (ou si un autre thread est en train de le rendre).
+    public boolean rendreLivre(int idLivre) throws BibliothequeException {
+        EcritureDifferee<MouvementEmprunt> ecriture = preparerEmprunts();
+        Livre livre = livreDuCatalogue(idLivre);
+        long debut = System.nanoTime();
+
+        if (!livre.changerStatut(StatutEmprunt.EMPRUNTE, StatutEmprunt.EN_TRANSITION)) {
+            M_RENDRE.succes(debut);
+            return false;
+        }
+        Emprunt emprunt = empruntsEnCours.remove(idLivre);
+        try {
+            deposer(ecriture, MouvementEmprunt.retour(emprunt, LocalDateTime.now()));
+        } catch (BibliothequeException e) {
+            empruntsEnCours.put(idLivre, emprunt);
+            livre.changerStatut(StatutEmprunt.EN_TRANSITION, StatutEmprunt.EMPRUNTE);
+            M_RENDRE.echec(debut);
+            throw e;
+        }
+        livre.changerStatut(StatutEmprunt.EN_TRANSITION, StatutEmprunt.DISPONIBLE);
+        M_RENDRE.succes(debut);
+        return true;
+    }
+
+    // L'emprunt en cours de ce livre (qui, depuis quand), ou null s'il est disponible
+    public Emprunt empruntEnCours(int idLivre) throws BibliothequeException {
+        preparerEmprunts();
+        return empruntsEnCours.get(idLivre);
+    }
+
+    /**
+     * Dépose le mouvement dans la file d'écriture (attend si la file est pleine).
+     * Si la base le refuse plus tard (panne, ou emprunt en cours enregistré par une autre application :
+     * index unique uk_emprunt_en_cours), on le journalise sans toucher à la mémoire : le livre a pu
+     * changer de mains depuis, et le défaire pourrait créer un double emprunt. Le mouvement suivant
+     * du livre (ou le prochain démarrage, qui relit la base) remet les choses d'aplomb.
+     */
+    private void deposer(EcritureDifferee<MouvementEmprunt> ecriture, MouvementEmprunt mouvement)
+            throws BibliothequeException {
+        try {
+            ecriture.soumettre(mouvement).whenComplete((m, erreur) -> {
+                if (erreur != null) {
+                    JOURNAL.erreur("BibliothequeService.emprunts", "❌ " + mouvement.type() + " refusé en base (livre "
+                            + mouvement.idLivre() + ", " + mouvement.emprunteur() + ")", erreur.getMessage());
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BibliothequeException("Interrompu avant l'enregistrement du mouvement", e);
+        } catch (IllegalStateException e) {
+            throw new BibliothequeException("Les emprunts sont fermés (arrêt en cours)", e);
+        }
+    }
+
+    private Livre livreDuCatalogue(int idLivre) throws BibliothequeException {
+        Livre livre = catalogue.livreParId(idLivre);
+        if (livre == null) {
+            throw new BibliothequeException("Livre inconnu (id=" + idLivre + ")");
+        }
+        return livre;
+    }
+
+    // Au premier emprunt : catalogue chargé, livres déjà sortis (d'après la base) remis à EMPRUNTE,
+    // puis démarrage de l'écriture différée. Ensuite : une simple lecture volatile.
+    private EcritureDifferee<MouvementEmprunt> preparerEmprunts() throws BibliothequeException {
+        EcritureDifferee<MouvementEmprunt> ecriture = ecritureEmprunts;
+        if (ecriture != null) {
+            return ecriture;
+        }
+        instantaneCatalogue();
+        synchronized (verrouEmprunts) {
+            if (ecritureEmprunts == null) {
+                try {
+                    for (Emprunt e : empruntDAO.listerEmpruntsEnCours()) {
+                        Livre livre = catalogue.livreParId(e.getIdLivre());
+                        // Aucun emprunt en mémoire avant la fin de ce chargement : le livre est encore DISPONIBLE
+                        if (livre != null && livre.changerStatut(StatutEmprunt.DISPONIBLE, StatutEmprunt.EMPRUNTE)) {
+                            empruntsEnCours.put(e.getIdLivre(), e);
+                        }
+                    }
+                } catch (SQLException e) {
+                    throw new BibliothequeException("Impossible de lire les emprunts en cours", e);
+                }
+                // File de 10 000 mouvements, lots de 500 au plus, 10 ms d'attente max pour remplir un lot
+                ecritureEmprunts = new EcritureDifferee<>("emprunts", 10_000, 500, 10, empruntDAO::enregistrerMouvements);
+            }
+            return ecritureEmprunts;
+        }
+    }
+
+    // Attend que tous les emprunts et retours acceptés jusqu'ici soient écrits en base
+    public void attendreEcrituresEmprunts() throws BibliothequeException {
+        EcritureDifferee<MouvementEmprunt> ecriture = ecritureEmprunts;
+        if (ecriture == null) {
+            return;
+        }
+        try {
+            ecriture.attendre();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BibliothequeException("Interrompu pendant l'attente des écritures d'emprunts", e);
+        }
+    }
+
+    // Les emprunts en cours d'après la base (les mouvements encore en file n'y sont pas)
+    public List<Emprunt> chargerEmpruntsEnCours() throws BibliothequeException {
+        try {
+            return empruntDAO.listerEmpruntsEnCours();
+        } catch (SQLException e) {
+            throw new BibliothequeException("Impossible de lire les emprunts en cours", e);
+        }
+    }
+
+    // Nombre de lignes d'emprunt en base pour ces livres (emprunts en cours + rendus)
+    public long compterEmpruntsEnregistres(int... idsLivres) throws BibliothequeException {
+        try {
+            return empruntDAO.compterEmprunts(idsLivres);
+        } catch (SQLException e) {
+            throw new BibliothequeException("Impossible de compter les emprunts", e);
+        }
+    }
+
+    // Mouvements acceptés en mémoire mais refusés par MySQL (ex : 2e emprunt en cours du même livre)
+    public long getNbMouvementsEmpruntsRefuses() {
+        EcritureDifferee<MouvementEmprunt> ecriture = ecritureEmprunts;
+        return ecriture == null ? 0 : ecriture.getNbRefuses();
+    }
+
+    // Nombre de transactions d'emprunts écrites et taille moyenne des lots
+    public String getStatistiquesEcrituresEmprunts() {
+        EcritureDifferee<MouvementEmprunt> ecriture = ecritureEmprunts;
+        return ecriture == null ? "aucun emprunt"
+                : String.format("%d mouvements en %d transaction(s) (%.1f par lot), %d refusé(s), %d en attente",
+                        ecriture.getNbTraites(), ecriture.getNbLots(), ecriture.getTailleMoyenneLots(),
+                        ecriture.getNbRefuses(), ecriture.getNbEnAttente());
+    }
+
+    
+//============================================================================//
+				  // CATALOGUE EN COLONNES (tableaux primitifs) //
+//============================================================================//
+
+    // Construit la version compacte du catalogue (à partir du catalogue mémoire)
+    public CatalogueColonnes construireCatalogueColonnes() throws BibliothequeException {
+        return new CatalogueColonnes(instantaneCatalogue().livres());
+    }
+
+    // Filtre sur un tableau de byte : seuls les livres retenus deviennent des objets
+    public List<Livre> filtrerParCategorie(CatalogueColonnes catalogue, Categorie cible) {
+        int[] positions = catalogue.positionsParCategorie(cible);
+        List<Livre> resultat = new ArrayList<>(positions.length);
+        for (int i : positions) {
+            resultat.add(catalogue.materialiser(i));
+        }
+        return resultat;
+    }
+
+    public Set<Categorie> obtenirCategoriesUniques(CatalogueColonnes catalogue) {
+        return catalogue.categoriesPresentes();
+    }
+
+    // Comptage en un seul passage sur les colonnes (pas de Livre, pas de boxing dans la boucle)
+    public Map<Categorie, Long> compterLivresParCategorie(CatalogueColonnes catalogue) {
+        int[] comptes = catalogue.compterToutesCategories();
+        Map<Categorie, Long> resultat = new EnumMap<>(Categorie.class);
+        for (Categorie c : Categorie.values()) {
+            resultat.put(c, (long) comptes[c.ordinal()]);
+        }
+        return resultat;
+    }
+
+    // Les titres viennent du dictionnaire : aucune nouvelle chaîne n'est créée
+    public List<String> obtenirSeulementLesTitres(CatalogueColonnes catalogue) {
+        List<String> titres = new ArrayList<>(catalogue.taille());
+        for (int i = 0; i < catalogue.taille(); i++) {
+            titres.add(catalogue.titre(i));
+        }
+        return titres;
+    }
+
+    
+//============================================================================//
+				  // PAGINATION (par clé, avec jeton de suite) //
+//============================================================================//
+
+    // Taille maximale d'une page : au-delà, mieux vaut utiliser streamerLivres()
+    private static final int TAILLE_PAGE_MAX = 1000;
+
+    /**
+     * Renvoie une page de livres dans l'ordre demandé.
+     * jeton = null pour la première page, puis page.getJetonSuivant() pour les suivantes.
+     * Le jeton doit être réutilisé avec le MÊME ordre de tri.
+     */
+    public Page<Livre> pageDeLivres(TriLivres tri, String jeton, int taille) throws BibliothequeException {
+        verifierTaillePage(taille);
+        String[] cle = decoderJeton(jeton, tri.name());
+        int apresId = (cle == null) ? 0 : lireIdJeton(cle[0]);
+        String apresValeur = (cle == null) ? null : cle[1];
+
+        long debut = System.nanoTime();
+        try {
+            // On demande UN élément de plus : s'il existe, il y a une page suivante
+            List<Livre> livres = switch (tri) {
+                case PAR_ID -> livreDAO.listerLivres(apresId, taille + 1);
+                case PAR_TITRE -> livreDAO.listerLivresParTitre(apresValeur, apresId, taille + 1);
+                case PAR_CATEGORIE -> livreDAO.listerLivresParCategorie(
+                        apresValeur == null ? null : lireCategorieJeton(apresValeur), apresId, taille + 1);
+            };
+            M_PAGE_LIVRES.succes(debut, livres.size(), 0);
+            if (livres.size() <= taille) {
+                return new Page<>(livres, null);
+            }
+            List<Livre> page = livres.subList(0, taille);
+            Livre dernier = page.get(taille - 1);
+            String valeur = switch (tri) {
+                case PAR_ID -> "";
+                case PAR_TITRE -> dernier.getTitre();
+                case PAR_CATEGORIE -> dernier.getCategorie().name();
+            };
+            return new Page<>(page, encoderJeton(tri.name(), dernier.getId(), valeur));
+        } catch (SQLException e) {
+            M_PAGE_LIVRES.echec(debut);
+            throw new BibliothequeException("Impossible de charger la page de livres", e);
+        }
+    }
+
+    // Même principe pour les auteurs (triés par ID)
+    public Page<Auteur> pageDAuteurs(String jeton, int taille) throws BibliothequeException {
+        verifierTaillePage(taille);
+        String[] cle = decoderJeton(jeton, "AUTEUR");
+        int apresId = (cle == null) ? 0 : lireIdJeton(cle[0]);
+
+        long debut = System.nanoTime();
+        try {
+            List<Auteur> auteurs = auteurDAO.listerAuteurs(apresId, taille + 1);
+            M_PAGE_AUTEURS.succes(debut, auteurs.size(), 0);
+            if (auteurs.size() <= taille) {
+                return new Page<>(auteurs, null);
+            }
+            List<Auteur> page = auteurs.subList(0, taille);
+            return new Page<>(page, encoderJeton("AUTEUR", page.get(taille - 1).getId(), ""));
+        } catch (SQLException e) {
+            M_PAGE_AUTEURS.echec(debut);
+            throw new BibliothequeException("❌ Impossible de charger la page d'auteurs.", e);
+        }
+    }
+
+    // Auteurs avec leurs livres : "taille" compte les AUTEURS (un auteur n'est jamais coupé en deux pages)
+    public Page<Map.Entry<Auteur, List<Livre>>> pageDAuteursAvecLivres(String jeton, int taille, boolean inclureSansLivre)
+            throws BibliothequeException {
+        verifierTaillePage(taille);
+        // Le filtre fait partie du jeton : on ne change pas de filtre au milieu d'un parcours
+        String tri = inclureSansLivre ? "AUTEUR_LIVRES" : "AUTEUR_AVEC_LIVRES";
+        String[] cle = decoderJeton(jeton, tri);
+        int apresId = (cle == null) ? 0 : lireIdJeton(cle[0]);
+
+        long debut = System.nanoTime();
+        try {
+            List<Map.Entry<Auteur, List<Livre>>> auteurs = new ArrayList<>(
+                    auteurDAO.listerAuteursAvecLivres(apresId, taille + 1, inclureSansLivre).entrySet());
+            M_PAGE_AUTEURS_LIVRES.succes(debut, auteurs.size(), 0);
+            if (auteurs.size() <= taille) {
+                return new Page<>(auteurs, null);
+            }
+            List<Map.Entry<Auteur, List<Livre>>> page = auteurs.subList(0, taille);
+            return new Page<>(page, encoderJeton(tri, page.get(taille - 1).getKey().getId(), ""));
+        } catch (SQLException e) {
+            M_PAGE_AUTEURS_LIVRES.echec(debut);
+            throw new BibliothequeException("❌ Impossible de charger la page d'auteurs avec leurs livres.", e);
+        }
+    }
+
+    private void verifierTaillePage(int taille) throws BibliothequeException {
+        if (taille <= 0 || taille > TAILLE_PAGE_MAX) {
+            throw new BibliothequeException("La taille de page doit être entre 1 et " + TAILLE_PAGE_MAX + " : " + taille);
+        }
+    }
+
+    // Le jeton contient "tri:dernierId:derniereValeur", encodé en Base64 (sûr dans une URL)
+    private String encoderJeton(String tri, int dernierId, String derniereValeur) {
+        String brut = tri + ":" + dernierId + ":" + derniereValeur;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(brut.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Renvoie {dernierId, derniereValeur}, ou null si pas de jeton (première page)
+    private String[] decoderJeton(String jeton, String triAttendu) throws BibliothequeException {
+        if (jeton == null) {
+            return null;
+        }
+        String brut;
+        try {
+            brut = new String(Base64.getUrlDecoder().decode(jeton), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new BibliothequeException("Jeton de pagination invalide : " + jeton, e);
+        }
+        // limit 3 : la valeur (un titre) peut elle-même contenir des ":"
+        String[] morceaux = brut.split(":", 3);
+        if (morceaux.length != 3 || !morceaux[0].equals(triAttendu)) {
+            throw new BibliothequeException("Jeton de pagination invalide pour le tri " + triAttendu + " : " + jeton);
+        }
+        return new String[] { morceaux[1], morceaux[2] };
+    }
+
+    private int lireIdJeton(String id) throws BibliothequeException {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException e) {
+            throw new BibliothequeException("Jeton de pagination invalide (ID) : " + id, e);
+        }
+    }
+
+    private Categorie lireCategorieJeton(String categorie) throws BibliothequeException {
+        try {
+            return Categorie.valueOf(categorie);
+        } catch (IllegalArgumentException e) {
+            throw new BibliothequeException("Jeton de pagination invalide (catégorie) : " + categorie, e);
+        }
+    }
+
 	
 //============================================================================//
 					// METHODES VERSIONS COLLECTIONS //
@@ -176,6 +1332,10 @@ public class BibliothequeService implements ActionBibliotheque {
     // 4. CONCEPT : TRIE (Collection avec Comparator)
     // tri alphabétique par Titre
     public void trierLivresParTitre(List<Livre> tousLesLivres) {
+        Comparator<Livre> parTitre = (l1, l2) -> l1.getTitre().compareToIgnoreCase(l2.getTitre());
+        if (trierEnParallele(tousLesLivres, parTitre)) {
+            return;
+        }
         // Collections.sort prend la liste et un "comparateur"
         Collections.sort(tousLesLivres, new Comparator<Livre>() {
             @Override
@@ -192,6 +1352,9 @@ public class BibliothequeService implements ActionBibliotheque {
     
     // tri Numerique Par ID du Plus Recent au plus ancien
     public void trierLivresParId(List<Livre> tousLesLivres) {
+        if (trierEnParallele(tousLesLivres, (l1, l2) -> Integer.compare(l2.getId(), l1.getId()))) {
+            return;
+        }
         Collections.sort(tousLesLivres, new Comparator<Livre>() {
             @Override
             public int compare(Livre l1, Livre l2) {
@@ -201,6 +1364,84 @@ public class BibliothequeService implements ActionBibliotheque {
         });
     }
     
+//============================================================================//
+				   // MODE PARALLÈLE (Fork/Join) //
+//============================================================================//
+
+    // Le mode parallèle : un seuil + un ForkJoinPool DÉDIÉ (pas le pool commun de la JVM,
+    // partagé avec tout le reste de l'application). null = mode désactivé.
+    private record ModeParallele(int seuil, ForkJoinPool pool) { }
+    private volatile ModeParallele modeParallele = null;
+
+    /**
+     * Active le mode parallèle : les opérations sur une liste d'au moins "seuil" livres
+     * (filtre, set, index, tris, suppression par mot-clé) sont réparties sur tous les cœurs.
+     * En dessous du seuil, le découpage coûterait plus cher qu'il ne rapporte.
+     * (Voir ParalleleBenchmark pour mesurer le point de bascule sur la machine cible.)
+     */
+    public void activerModeParallele(int seuil) {
+        activerModeParallele(seuil, Runtime.getRuntime().availableProcessors());
+    }
+
+    public synchronized void activerModeParallele(int seuil, int parallelisme) {
+        desactiverModeParallele();
+        modeParallele = new ModeParallele(seuil, new ForkJoinPool(parallelisme));
+    }
+
+    public synchronized void desactiverModeParallele() {
+        ModeParallele ancien = modeParallele;
+        modeParallele = null;
+        if (ancien != null) {
+            // Les tâches en cours se terminent normalement ; un appel qui avait déjà lu l'ancien mode
+            // voit sa tâche refusée et repasse en séquentiel (voir executerDans)
+            ancien.pool().shutdown();
+        }
+    }
+
+    // Le pool à utiliser pour une liste de cette taille, ou null = rester séquentiel
+    private ForkJoinPool poolSiParallele(int taille) {
+        ModeParallele mode = modeParallele; // Une seule lecture : seuil et pool restent cohérents
+        return (mode != null && taille >= mode.seuil()) ? mode.pool() : null;
+    }
+
+    // Lance "parallele" DANS le pool (ses flux parallèles s'y découpent). Si le mode vient d'être
+    // désactivé entre poolSiParallele() et ici, le pool arrêté refuse la tâche : on fait alors
+    // "sequentiel" dans le thread appelant, comme si le mode n'avait jamais été actif.
+    private static <T> T executerDans(ForkJoinPool pool, Supplier<T> parallele, Supplier<T> sequentiel) {
+        ForkJoinTask<T> tache;
+        try {
+            tache = pool.submit(parallele::get);
+        } catch (RejectedExecutionException e) {
+            return sequentiel.get();
+        }
+        return tache.join();
+    }
+
+    // Tri en place en parallèle : on trie un tableau (tri fusion parallèle) puis on le recopie.
+    // Renvoie false si le mode parallèle ne s'applique pas (l'appelant trie lui-même).
+    private boolean trierEnParallele(List<Livre> livres, Comparator<Livre> comparateur) {
+        ForkJoinPool pool = poolSiParallele(livres.size());
+        if (pool == null) {
+            return false;
+        }
+        // Appelé DEPUIS un thread du pool, parallelSort découpe son travail dans CE pool
+        Livre[] tableau = executerDans(pool, () -> {
+            Livre[] t = livres.toArray(new Livre[0]);
+            Arrays.parallelSort(t, comparateur);
+            return t;
+        }, () -> null);
+        if (tableau == null) {
+            return false; // Mode désactivé entre-temps
+        }
+        ListIterator<Livre> it = livres.listIterator();
+        for (Livre l : tableau) {
+            it.next();
+            it.set(l);
+        }
+        return true;
+    }
+
+
 //============================================================================//
     				   // METHODES VERSIONS STREAMS //
 //============================================================================//
@@ -211,14 +1452,39 @@ public class BibliothequeService implements ActionBibliotheque {
     // 2. On garde seulement si la condition est vraie (.filter)
     // 3. On remet tout dans une liste (.toList)
     public List<Livre> filtrerParCategorieStream(List<Livre> tousLesLivres, Categorie cible) {
-        return tousLesLivres.stream()
+        ForkJoinPool pool = poolSiParallele(tousLesLivres.size());
+        if (pool != null) {
+            // .toList() d'un flux parallèle garde l'ordre d'origine
+            return executerDans(pool, () -> filtrerParCategorieStream(tousLesLivres.parallelStream(), cible),
+                    () -> filtrerParCategorieStream(tousLesLivres.stream(), cible));
+        }
+        return filtrerParCategorieStream(tousLesLivres.stream(), cible);
+    }
+
+    // Même chose, mais directement sur un flux (ex : service.streamerLivres()).
+    // Seuls les livres retenus sont gardés en mémoire.
+    // Le flux est consommé mais pas fermé : c'est à l'appelant de le fermer.
+    public List<Livre> filtrerParCategorieStream(Stream<Livre> livres, Categorie cible) {
+        return livres
                 .filter(l -> l.getCategorie() == cible)
                 .toList(); // Si tu as une erreur ici (Java < 16), dis-le moi !
     }
     
 	// VERSION MODERNE 2 : LE STREAM (Set / Unicité)
     public Set<Categorie> obtenirCategoriesUniquesStream(List<Livre> tousLesLivres) {
-        return tousLesLivres.stream()
+        ForkJoinPool pool = poolSiParallele(tousLesLivres.size());
+        if (pool != null) {
+            // Chaque thread remplit son propre EnumSet, puis on les fusionne (aucun partage)
+            return executerDans(pool, () -> tousLesLivres.parallelStream()
+                    .map(Livre::getCategorie)
+                    .collect(Collectors.toCollection(() -> EnumSet.noneOf(Categorie.class))),
+                    () -> obtenirCategoriesUniquesStream(tousLesLivres.stream()));
+        }
+        return obtenirCategoriesUniquesStream(tousLesLivres.stream());
+    }
+
+    public Set<Categorie> obtenirCategoriesUniquesStream(Stream<Livre> livres) {
+        return livres
                 .map(Livre::getCategorie) // 1. On extrait toutes les catégories (avec doublons)
                 .collect(Collectors.toSet()); // 2. On les collecte dans un Set (les doublons disparaissent !)
     }
@@ -226,7 +1492,19 @@ public class BibliothequeService implements ActionBibliotheque {
     // VERSION MODERNE 3.1 : LE STREAM (Map / Indexation)
     // Trouve un Livre Par Son Titre
     public Map<String, Livre> indexerLivresParTitreStream(List<Livre> tousLesLivres) {
-        return tousLesLivres.stream()
+        ForkJoinPool pool = poolSiParallele(tousLesLivres.size());
+        if (pool != null) {
+            // toConcurrentMap : tous les threads écrivent dans la MÊME ConcurrentHashMap
+            // (au lieu de construire une HashMap par thread puis de les fusionner)
+            return executerDans(pool, () -> tousLesLivres.parallelStream()
+                    .collect(Collectors.toConcurrentMap(Livre::getTitre, l -> l)),
+                    () -> indexerLivresParTitreStream(tousLesLivres.stream()));
+        }
+        return indexerLivresParTitreStream(tousLesLivres.stream());
+    }
+
+    public Map<String, Livre> indexerLivresParTitreStream(Stream<Livre> livres) {
+        return livres
                 .collect(Collectors.toMap(
                     Livre::getTitre, 
                     l -> l
@@ -236,7 +1514,11 @@ public class BibliothequeService implements ActionBibliotheque {
     // VERSION MODERNE 3.2 : LE STREAM (Map / Transformation)
     // Transforme une List<Livre> en List<String>
     public List<String> obtenirSeulementLesTitres(List<Livre> tousLesLivres) {
-        return tousLesLivres.stream()
+        return obtenirSeulementLesTitres(tousLesLivres.stream());
+    }
+
+    public List<String> obtenirSeulementLesTitres(Stream<Livre> livres) {
+        return livres
                 .map(l -> l.getTitre()) // Pour chaque livre l, on extrait son titre
                 .toList();
     }
@@ -244,14 +1526,33 @@ public class BibliothequeService implements ActionBibliotheque {
     // VERSION MODERNE : LE STREAM (Tri)
     // Trie par titre (A-Z) et renvoie une NOUVELLE liste (ne touche pas l'originale)
     public List<Livre> trierLivresParTitreStream(List<Livre> tousLesLivres) {
-        return tousLesLivres.stream()
+        ForkJoinPool pool = poolSiParallele(tousLesLivres.size());
+        if (pool != null) {
+            return executerDans(pool, () -> trierLivresParTitreStream(tousLesLivres.parallelStream()),
+                    () -> trierLivresParTitreStream(tousLesLivres.stream()));
+        }
+        return trierLivresParTitreStream(tousLesLivres.stream());
+    }
+
+    // Un tri a besoin de voir tous les éléments : seul le résultat trié est construit
+    public List<Livre> trierLivresParTitreStream(Stream<Livre> livres) {
+        return livres
                 .sorted(Comparator.comparing(Livre::getTitre))
                 .toList();
     }
     
     // Trie par ID (Du Plus Recent au Plus Ancien) et renvoie une NOUVELLE liste (ne touche pas l'originale)
     public List<Livre> trierLivresParNumeroIDStream(List<Livre> tousLesLivres) {
-        return tousLesLivres.stream()
+        ForkJoinPool pool = poolSiParallele(tousLesLivres.size());
+        if (pool != null) {
+            return executerDans(pool, () -> trierLivresParNumeroIDStream(tousLesLivres.parallelStream()),
+                    () -> trierLivresParNumeroIDStream(tousLesLivres.stream()));
+        }
+        return trierLivresParNumeroIDStream(tousLesLivres.stream());
+    }
+
+    public List<Livre> trierLivresParNumeroIDStream(Stream<Livre> livres) {
+        return livres
                 .sorted(Comparator.comparing(Livre::getId).reversed())
                 .toList();
     }
@@ -265,59 +1566,151 @@ public class BibliothequeService implements ActionBibliotheque {
 	* Utilise la méthode removeIf() qui accepte une Lambda (Predicate).
 	*/
 	public void supprimerLivresParMotCle(List<Livre> livres, String motCle) {
-	// La lambda 'l -> ...' définit la condition de suppression
-	livres.removeIf(l -> l.getTitre().toLowerCase().contains(motCle.toLowerCase()));
+	ForkJoinPool pool = poolSiParallele(livres.size());
+	if (pool != null && livres instanceof RandomAccess) {
+	    supprimerLivresParMotCleParallele(livres, motCle, pool);
+	    return;
+	}
+	// La lambda 'l -> ...' définit la condition de suppression (mot-clé mis en minuscules une seule fois)
+	String cle = motCle.toLowerCase();
+	livres.removeIf(l -> l.getTitre().toLowerCase().contains(cle));
+	}
+
+	/**
+	* Variante qui s'appuie sur l'index inversé du catalogue au lieu de parcourir les titres.
+	* Un livre de la liste est reconnu par son ID dans le résultat de l'index (recherche binaire,
+	* aucune allocation) : ça marche aussi pour les copies lues en base (chargerTousLesLivres()).
+	* Seuls les livres que le catalogue ne connaît pas (ID 0 = pas encore sauvegardé, ou ajouté en base
+	* par une autre application) sont vérifiés sur LEUR titre, découpé avec les mêmes règles (MotsCles).
+	* ⚠️ On cherche des MOTS entiers, sans accents ni majuscules ("java" retire "Le Guide du Java",
+	* mais pas "JavaScript"), alors que supprimerLivresParMotCle cherche un morceau de texte.
+	* ⚠️ Une copie dont le titre a été modifié en mémoire est jugée sur le titre du catalogue.
+	*/
+	public void supprimerLivresParMotCleIndexe(List<Livre> livres, String motCle) throws BibliothequeException {
+	Set<String> mots = MotsCles.decouper(motCle);
+	if (mots.isEmpty()) {
+	    return;
+	}
+	List<Livre> trouves = rechercherParMotCle(motCle);
+	// Objets du catalogue sans ID (jamais sauvegardés) : reconnus par identité
+	Set<Livre> trouvesSansId = Collections.newSetFromMap(new IdentityHashMap<>());
+	int[] idsTrouves = new int[trouves.size()];
+	int nbIds = 0;
+	for (Livre l : trouves) {
+	    if (l.getId() > 0) {
+	        idsTrouves[nbIds++] = l.getId();
+	    } else {
+	        trouvesSansId.add(l);
+	    }
+	}
+	int[] ids = Arrays.copyOf(idsTrouves, nbIds);
+	Arrays.sort(ids);
+	livres.removeIf(l -> {
+	    if (l.getId() > 0 && catalogue.livreParId(l.getId()) != null) {
+	        return Arrays.binarySearch(ids, l.getId()) >= 0;
+	    }
+	    return trouvesSansId.contains(l) || MotsCles.decouper(l.getTitre()).containsAll(mots);
+	});
+	}
+
+	// Version parallèle, en place :
+	// 1. en parallèle, on marque les livres à supprimer (chaque thread écrit dans SES cases)
+	// 2. en un seul passage, on tasse les survivants au début de la liste, puis on coupe la fin
+	private void supprimerLivresParMotCleParallele(List<Livre> livres, String motCle, ForkJoinPool pool) {
+	    int taille = livres.size();
+	    String cle = motCle.toLowerCase();
+	    boolean[] aSupprimer = new boolean[taille];
+	    IntConsumer marquer = i -> aSupprimer[i] = livres.get(i).getTitre().toLowerCase().contains(cle);
+	    executerDans(pool, () -> {
+	        IntStream.range(0, taille).parallel().forEach(marquer);
+	        return null;
+	    }, () -> {
+	        IntStream.range(0, taille).forEach(marquer);
+	        return null;
+	    });
+
+	    int j = 0;
+	    for (int i = 0; i < taille; i++) {
+	        if (!aSupprimer[i]) {
+	            livres.set(j++, livres.get(i));
+	        }
+	    }
+	    livres.subList(j, taille).clear();
 	}
 	
 // ============================================================================//
-//  					MULTI-THREADING AVEC SEMAPHORE                         //
+//  			MULTI-THREADING AVEC LIMITEUR ADAPTATIF                     //
 //=============================================================================//
 
     // Nouvelle méthode pour simuler une consultation "lourde"
 	public void consulterLivresSimultane(String nomUtilisateur) {
-	    try {
-	        System.out.println("👤 [" + nomUtilisateur + "] attend un accès à la base...");
+	    String operation = "consulterLivresSimultane";
+	    JOURNAL.info(operation, "👤 attend un accès à la base...", nomUtilisateur, -1, -1);
+	    long debut = System.nanoTime();
+	    
+	    // --- DÉBUT DE LA ZONE PROTÉGÉE ---
+	    // Le try-with-resources rend la place au limiteur, même en cas d'erreur
+	    try (LimiteurAdaptatif.Jeton jeton = limiteur.acquerir()) {
 	        
-	        // --- DÉBUT DE LA ZONE PROTÉGÉE ---
-	        semaphore.acquire(); 
+	        // durée = temps d'attente du limiteur
+	        JOURNAL.info(operation, "✅ ACCÈS ACCORDÉ !", nomUtilisateur, -1, System.nanoTime() - debut);
 	        
-	        System.out.println("✅ [" + nomUtilisateur + "] ACCÈS ACCORDÉ !");
-	        
-	        // ACTION RÉELLE SUR LA BASE : On compte les livres
-	        int nbLivres = livreDAO.listerTousLesLivres().size();
-	        System.out.println("📊 [" + nomUtilisateur + "] Lecture DB en cours... Nombre de livres trouvés : " + nbLivres);
+	        // ACTION RÉELLE SUR LA BASE : On compte les livres (COUNT(*) côté MySQL)
+	        long debutLecture = System.nanoTime();
+	        long nbLivres = compterLivres();
+	        // La latence mesurée par le limiteur s'arrête ici (la requête est finie)
+	        jeton.succes();
+	        // On ne construit la chaîne que si l'événement sera vraiment écrit
+	        if (JOURNAL.estActif(Niveau.INFO)) {
+	            JOURNAL.deposer(Niveau.INFO, operation, "📊 Lecture DB terminée",
+	                    nomUtilisateur + " : " + nbLivres + " livres trouvés", -1, System.nanoTime() - debutLecture);
+	        }
 
-	        // On garde le sleep de 2s pour que TU puisses voir le blocage à l'écran
-	        // sinon MySQL répond trop vite (0.001s) et on ne voit pas le Sémaphore agir.
+	        // On garde le sleep pour que TU puisses voir le blocage à l'écran
+	        // sinon MySQL répond trop vite (0.001s) et on ne voit pas le limiteur agir.
 	        Thread.sleep(10000); 
 	        
-	        System.out.println("📖 [" + nomUtilisateur + "] a fini sa lecture.");
+	        JOURNAL.info(operation, "📖 a fini sa lecture.", nomUtilisateur, -1, -1);
+	        JOURNAL.info(operation, "🔓 libère la connexion.", nomUtilisateur, -1, System.nanoTime() - debut);
+	        // --- FIN DE LA ZONE PROTÉGÉE ---
 	        
+	    } catch (LimiteDepasseeException e) {
+	        // Refus rapide : la base est saturée, on ne reste pas bloqué indéfiniment
+	        JOURNAL.avertissement(operation, "⛔ refusé", nomUtilisateur + " : " + e.getMessage());
+	    } catch (InterruptedException e) {
+	        Thread.currentThread().interrupt();
+	        JOURNAL.erreur(operation, "❌ interrompu pendant l'attente.", nomUtilisateur);
 	    } catch (Exception e) {
-	        System.err.println("❌ Erreur pour " + nomUtilisateur + " : " + e.getMessage());
-	    } finally {
-	        // --- FIN DE LA ZONE PROTÉGÉE ---
-	        System.out.println("🔓 [" + nomUtilisateur + "] libère la connexion.");
-	        semaphore.release();
+	        JOURNAL.erreur(operation, "❌ Erreur", nomUtilisateur + " : " + e.getMessage());
 	    }
 	}
+
+    // Limite actuelle, appels en cours, file d'attente, refus...
+    public LimiteurAdaptatif.StatistiquesLimiteur getStatistiquesLimiteur() {
+        return limiteur.getStatistiques();
+    }
  
 // ============================================================================//
 //							MULTI-THREADING SIMPLE                             //
 //=============================================================================//
     public void recupererTotalLivresLentement(String nomThread) {
         try {
-            System.out.println("⏳ [" + nomThread + "] Connexion à la base de données...");
+            JOURNAL.info("recupererTotalLivresLentement", "⏳ Connexion à la base de données...", nomThread, -1, -1);
+            long debut = System.nanoTime();
             
             // On simule une connexion qui prend 2 secondes
             Thread.sleep(2000); 
             
             // On fait une vraie action SQL
-            int total = livreDAO.listerTousLesLivres().size();
+            long total = compterLivres();
             
-            System.out.println("✅ [" + nomThread + "] Terminé ! Total trouvé : " + total + " livres.");
+            // durée = attente simulée + requête
+            if (JOURNAL.estActif(Niveau.INFO)) {
+                JOURNAL.deposer(Niveau.INFO, "recupererTotalLivresLentement", "✅ Terminé !", nomThread + " : " + total + " livres",
+                        -1, System.nanoTime() - debut);
+            }
         } catch (Exception e) {
-            System.err.println("Erreur : " + e.getMessage());
+            JOURNAL.erreur("recupererTotalLivresLentement", "Erreur", nomThread + " : " + e.getMessage());
         }
     }    
 }
\ No newline at end of file
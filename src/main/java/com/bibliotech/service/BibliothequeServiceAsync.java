@@ -0,0 +1,176 @@
+package com.bibliotech.service;
+
+import com.bibliotech.dao.DatabaseConnection;
+import com.bibliotech.dao.ResultatLot;
+import com.bibliotech.exception.BibliothequeException;
+import com.bibliotech.model.Auteur;
+import com.bibliotech.model.Livre;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implémentation asynchrone : elle délègue au BibliothequeService (bloquant)
+ * mais exécute chaque appel sur un exécuteur séparé.
+ *
+ * Par défaut : un thread VIRTUEL par tâche (Java 21+). Un thread virtuel bloqué sur JDBC
+ * ne coûte presque rien, on peut donc en lancer des milliers.
+ * Mais la base, elle, ne supporte pas des milliers de requêtes à la fois :
+ * un Sémaphore limite le nombre d'appels "en vol" (les autres attendent leur tour).
+ *
+ * Répliques en lecture : "lire ses propres écritures" est suivi par thread, et chaque tâche tourne
+ * sur un thread différent. L'instance retient donc la dernière écriture faite par ses tâches (ou par
+ * le thread qui soumet) et la transmet à chaque nouvelle tâche : une lecture lancée après la fin
+ * d'une sauvegarde de CETTE instance va sur la principale. Une instance = un client.
+ */
+public class BibliothequeServiceAsync implements ActionBibliothequeAsync, AutoCloseable {
+
+    // Aligné sur la taille max du pool de connexions
+    public static final int MAX_EN_VOL_DEFAUT = 10;
+
+    private final BibliothequeService service;
+    private final ExecutorService executeur;
+    private final boolean executeurInterne; // true = c'est nous qui l'avons créé, on le fermera
+    private final Semaphore enVol;
+    private final AtomicLong derniereEcriture = new AtomicLong(); // System.nanoTime(), 0 = jamais
+
+    // Exécuteur par défaut : threads virtuels
+    public BibliothequeServiceAsync(BibliothequeService service) {
+        this(service, Executors.newVirtualThreadPerTaskExecutor(), MAX_EN_VOL_DEFAUT, true);
+    }
+
+    // Exécuteur fourni par l'appelant (il reste responsable de sa fermeture)
+    public BibliothequeServiceAsync(BibliothequeService service, ExecutorService executeur, int maxEnVol) {
+        this(service, executeur, maxEnVol, false);
+    }
+
+    private BibliothequeServiceAsync(BibliothequeService service, ExecutorService executeur,
+                                     int maxEnVol, boolean executeurInterne) {
+        if (maxEnVol <= 0) {
+            throw new IllegalArgumentException("Le nombre d'appels en vol doit être positif : " + maxEnVol);
+        }
+        this.service = service;
+        this.executeur = executeur;
+        this.executeurInterne = executeurInterne;
+        this.enVol = new Semaphore(maxEnVol, true);
+    }
+
+    @Override
+    public CompletableFuture<Void> sauvegarderLivre(Livre livre) {
+        return executer("sauvegarde du livre", () -> {
+            service.sauvegarderLivre(livre);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<List<Livre>> chargerTousLesLivres() {
+        return executer("chargement des livres", service::chargerTousLesLivres);
+    }
+
+    @Override
+    public CompletableFuture<Void> sauvegarderAuteur(Auteur auteur) {
+        return executer("sauvegarde de l'auteur", () -> {
+            service.sauvegarderAuteur(auteur);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<ResultatLot<Livre>> sauvegarderLivres(Collection<Livre> livres) {
+        return executer("sauvegarde des livres", () -> service.sauvegarderLivres(livres));
+    }
+
+    @Override
+    public CompletableFuture<ResultatLot<Auteur>> sauvegarderAuteurs(Collection<Auteur> auteurs) {
+        return executer("sauvegarde des auteurs", () -> service.sauvegarderAuteurs(auteurs));
+    }
+
+    @Override
+    public CompletableFuture<Auteur> chercherAuteurParId(int id) {
+        return executer("recherche de l'auteur ID " + id, () -> service.chercherAuteurParId(id));
+    }
+
+    // Nombre d'appels qui attendent une place pour aller en base
+    public int getNbEnAttente() {
+        return enVol.getQueueLength();
+    }
+
+    // Ferme l'exécuteur s'il a été créé par nous (les tâches en cours se terminent)
+    @Override
+    public void close() {
+        if (executeurInterne) {
+            executeur.close();
+        }
+    }
+
+    // Une opération bloquante du service
+    @FunctionalInterface
+    private interface Tache<T> {
+        T executer() throws BibliothequeException;
+    }
+
+    private <T> CompletableFuture<T> executer(String operation, Tache<T> tache) {
+        CompletableFuture<T> resultat = new CompletableFuture<>();
+        noterEcriture(DatabaseConnection.getDerniereEcriture()); // Écriture faite par le thread appelant lui-même
+        Future<?> execution;
+        try {
+            execution = executeur.submit(() -> {
+                if (resultat.isDone()) {
+                    return; // Annulé avant même d'avoir démarré
+                }
+                try {
+                    enVol.acquire();
+                } catch (InterruptedException e) {
+                    resultat.completeExceptionally(new BibliothequeException("Opération annulée : " + operation, e));
+                    return;
+                }
+                DatabaseConnection.reprendreEcriture(derniereEcriture.get());
+                T valeur = null;
+                Throwable erreur = null;
+                try {
+                    valeur = tache.executer();
+                } catch (BibliothequeException e) {
+                    erreur = e;
+                } catch (Throwable e) {
+                    // Toute autre erreur (y compris inattendue) est emballée
+                    erreur = new BibliothequeException("Erreur pendant : " + operation, e);
+                } finally {
+                    // AVANT de terminer le future : une lecture enchaînée dessus doit déjà savoir
+                    // qu'on a écrit (même en cas d'échec, un lot a pu être écrit en partie)
+                    noterEcriture(DatabaseConnection.getDerniereEcriture());
+                    enVol.release();
+                }
+                if (erreur != null) {
+                    resultat.completeExceptionally(erreur);
+                } else {
+                    resultat.complete(valeur);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            resultat.completeExceptionally(new BibliothequeException("Service asynchrone arrêté : " + operation, e));
+            return resultat;
+        }
+
+        // CompletableFuture.cancel() n'interrompt pas le thread : on le fait nous-mêmes
+        resultat.whenComplete((valeur, erreur) -> {
+            if (resultat.isCancelled()) {
+                execution.cancel(true);
+            }
+        });
+        return resultat;
+    }
+
+    // Garde la plus récente des deux (comparaison de nanoTime par différence)
+    private void noterEcriture(long instant) {
+        if (instant != 0) {
+            derniereEcriture.accumulateAndGet(instant, (a, b) -> (a == 0 || b - a > 0) ? b : a);
+        }
+    }
+}
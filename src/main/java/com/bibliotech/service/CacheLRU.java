@@ -0,0 +1,144 @@
+package com.bibliotech.service;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Petit cache mémoire borné, placé devant un accès base ("read-through").
+ * - LRU : quand le cache est plein, on retire l'élément utilisé il y a le plus longtemps
+ * - TTL optionnel : une entrée trop vieille est rechargée depuis la base
+ * - Cache négatif optionnel : on retient aussi "cette clé n'existe pas" (valeur null)
+ */
+public class CacheLRU<K, V> {
+
+    // Le chargement depuis la base en cas d'absence dans le cache
+    @FunctionalInterface
+    public interface Chargeur<K, V> {
+        V charger(K cle) throws SQLException;
+    }
+
+    private final int capaciteMax;
+    private final long ttlMs; // 0 = pas d'expiration
+    private final boolean cacheNegatif;
+
+    // accessOrder = true : chaque get() remet l'entrée en fin de liste
+    // => l'entrée "la plus ancienne" est la moins récemment utilisée
+    private final LinkedHashMap<K, Entree<V>> entrees;
+
+    // Augmentée à chaque mettre / invalider / vider (protégée par le même verrou que la map).
+    // Un chargement fait hors verrou n'est gardé que si elle n'a pas bougé entre-temps.
+    private long generation;
+
+    // Compteurs (protégés par le même verrou que la map)
+    private long nbSucces;
+    private long nbEchecs;
+    private long nbEvictions;
+    private long nbExpirations;
+
+    public CacheLRU(int capaciteMax, long ttlMs, boolean cacheNegatif) {
+        if (capaciteMax <= 0) {
+            throw new IllegalArgumentException("La capacité du cache doit être positive : " + capaciteMax);
+        }
+        this.capaciteMax = capaciteMax;
+        this.ttlMs = ttlMs;
+        this.cacheNegatif = cacheNegatif;
+        this.entrees = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entree<V>> plusAncienne) {
+                if (size() > CacheLRU.this.capaciteMax) {
+                    nbEvictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Renvoie la valeur en cache, ou la charge via le chargeur (puis la garde).
+     * Renvoie null si la clé n'existe pas en base.
+     * Le chargement se fait HORS du verrou : une requête lente ne bloque pas les autres lecteurs.
+     * Si le cache a été modifié pendant ce chargement (mettre / invalider), la valeur chargée est
+     * renvoyée mais PAS gardée : elle peut être plus ancienne que ce qui vient d'être mis
+     * (ex : "auteur inconnu" lu sur une réplique en retard, juste après sauvegarderAuteur).
+     */
+    public V obtenir(K cle, Chargeur<K, V> chargeur) throws SQLException {
+        long generationAvant;
+        synchronized (this) {
+            Entree<V> entree = entrees.get(cle);
+            if (entree != null) {
+                if (!entree.estExpiree(ttlMs)) {
+                    nbSucces++;
+                    return entree.valeur;
+                }
+                entrees.remove(cle);
+                nbExpirations++;
+            }
+            nbEchecs++;
+            generationAvant = generation;
+        }
+
+        V valeur = chargeur.charger(cle);
+        if (valeur != null || cacheNegatif) {
+            synchronized (this) {
+                if (generation == generationAvant) {
+                    entrees.put(cle, new Entree<>(valeur));
+                }
+            }
+        }
+        return valeur;
+    }
+
+    // Ajoute ou remplace une valeur (ex : juste après une insertion en base)
+    public synchronized void mettre(K cle, V valeur) {
+        entrees.put(cle, new Entree<>(valeur));
+        generation++;
+    }
+
+    // Retire une clé (ex : la donnée a changé en base)
+    public synchronized void invalider(K cle) {
+        entrees.remove(cle);
+        generation++;
+    }
+
+    public synchronized void vider() {
+        entrees.clear();
+        generation++;
+    }
+
+    public synchronized StatistiquesCache getStatistiques() {
+        return new StatistiquesCache(nbSucces, nbEchecs, nbEvictions, nbExpirations, entrees.size(), capaciteMax);
+    }
+
+    // Une valeur + sa date d'entrée dans le cache
+    private static class Entree<V> {
+        final V valeur;
+        final long creation = System.currentTimeMillis();
+
+        Entree(V valeur) {
+            this.valeur = valeur;
+        }
+
+        boolean estExpiree(long ttlMs) {
+            return ttlMs > 0 && System.currentTimeMillis() - creation > ttlMs;
+        }
+    }
+
+    // Photo des compteurs du cache (pour le dimensionner)
+    public record StatistiquesCache(long succes, long echecs, long evictions, long expirations,
+                                    int taille, int capacite) {
+        public double tauxSucces() {
+            long total = succes + echecs;
+            return total == 0 ? 0 : (double) succes / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Cache[taille=%d/%d, succès=%d, échecs=%d, évictions=%d, expirations=%d, taux=%.1f%%]",
+                    taille, capacite, succes, echecs, evictions, expirations, tauxSucces() * 100);
+        }
+    }
+}
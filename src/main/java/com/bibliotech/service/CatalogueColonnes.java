@@ -0,0 +1,189 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Auteur;
+import com.bibliotech.model.Categorie;
+import com.bibliotech.model.Livre;
+import com.bibliotech.model.StatutEmprunt;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Catalogue stocké "en colonnes" : au lieu d'un objet Livre par livre
+ * (en-tête d'objet + références vers Auteur, Categorie, StatutEmprunt, String...),
+ * on garde un tableau primitif par champ :
+ *
+ *   ids[i]          int     l'ID du livre n°i
+ *   categories[i]   byte    ordinal de sa Categorie
+ *   statuts[i]      byte    ordinal de son StatutEmprunt
+ *   idsAuteurs[i]   int     l'ID de son auteur
+ *   codesTitres[i]  int     position de son titre dans le dictionnaire (titres en double stockés une fois)
+ *
+ * Environ 14 octets par livre (+ les titres distincts), et presque rien à parcourir pour le GC.
+ * Le catalogue est construit une fois puis n'est plus modifié : il peut être lu par plusieurs threads.
+ */
+public class CatalogueColonnes {
+
+    private static final Categorie[] CATEGORIES = Categorie.values();
+    private static final StatutEmprunt[] STATUTS = StatutEmprunt.values();
+
+    private final int taille;
+    private final int[] ids;
+    private final byte[] categories;
+    private final byte[] statuts;
+    private final int[] idsAuteurs;
+    private final int[] codesTitres;
+    private final String[] dictionnaireTitres;
+    private final Map<Integer, Auteur> auteurs; // Un seul objet par auteur
+
+    public CatalogueColonnes(Collection<Livre> livres) {
+        this.taille = livres.size();
+        this.ids = new int[taille];
+        this.categories = new byte[taille];
+        this.statuts = new byte[taille];
+        this.idsAuteurs = new int[taille];
+        this.codesTitres = new int[taille];
+        this.auteurs = new HashMap<>();
+
+        Map<String, Integer> codes = new HashMap<>();
+        int i = 0;
+        for (Livre l : livres) {
+            ids[i] = l.getId();
+            categories[i] = (byte) l.getCategorie().ordinal();
+            statuts[i] = (byte) l.getStatut().ordinal();
+            idsAuteurs[i] = l.getAuteur().getId();
+            auteurs.putIfAbsent(l.getAuteur().getId(), l.getAuteur());
+            codesTitres[i] = codes.computeIfAbsent(l.getTitre(), t -> codes.size());
+            i++;
+        }
+        this.dictionnaireTitres = new String[codes.size()];
+        codes.forEach((titre, code) -> dictionnaireTitres[code] = titre);
+    }
+
+    public int taille() { return taille; }
+    public int nbTitresDistincts() { return dictionnaireTitres.length; }
+
+    // --- ACCÈS PAR POSITION (sans créer d'objet) ---
+    public int id(int i) { return ids[i]; }
+    public Categorie categorie(int i) { return CATEGORIES[categories[i]]; }
+    public StatutEmprunt statut(int i) { return STATUTS[statuts[i]]; }
+    public int idAuteur(int i) { return idsAuteurs[i]; }
+    public String titre(int i) { return dictionnaireTitres[codesTitres[i]]; }
+    public Auteur auteur(int i) { return auteurs.get(idsAuteurs[i]); }
+
+    // --- OPÉRATIONS PRIMITIVES (aucun boxing, un simple parcours de tableau) ---
+
+    // Positions des livres de la catégorie (pas d'objet Livre créé)
+    public int[] positionsParCategorie(Categorie cible) {
+        byte code = (byte) cible.ordinal();
+        int[] resultat = new int[compterParCategorie(cible)];
+        int k = 0;
+        for (int i = 0; i < taille; i++) {
+            if (categories[i] == code) {
+                resultat[k++] = i;
+            }
+        }
+        return resultat;
+    }
+
+    public int compterParCategorie(Categorie cible) {
+        byte code = (byte) cible.ordinal();
+        int nb = 0;
+        for (int i = 0; i < taille; i++) {
+            if (categories[i] == code) {
+                nb++;
+            }
+        }
+        return nb;
+    }
+
+    // Nombre de livres par catégorie en un seul passage : comptes[categorie.ordinal()]
+    public int[] compterToutesCategories() {
+        int[] comptes = new int[CATEGORIES.length];
+        for (int i = 0; i < taille; i++) {
+            comptes[categories[i]]++;
+        }
+        return comptes;
+    }
+
+    public Set<Categorie> categoriesPresentes() {
+        Set<Categorie> presentes = EnumSet.noneOf(Categorie.class);
+        int[] comptes = compterToutesCategories();
+        for (int c = 0; c < comptes.length; c++) {
+            if (comptes[c] > 0) {
+                presentes.add(CATEGORIES[c]);
+            }
+        }
+        return presentes;
+    }
+
+    public int[] positionsParAuteur(int idAuteur) {
+        int[] resultat = new int[16];
+        int k = 0;
+        for (int i = 0; i < taille; i++) {
+            if (idsAuteurs[i] == idAuteur) {
+                if (k == resultat.length) {
+                    resultat = Arrays.copyOf(resultat, k * 2);
+                }
+                resultat[k++] = i;
+            }
+        }
+        return Arrays.copyOf(resultat, k);
+    }
+
+    // --- VUES "POIDS MOUCHE" ---
+
+    // Un vrai Livre indépendant (à garder ou à modifier), avec le statut de la colonne
+    public Livre materialiser(int i) {
+        Livre livre = new Livre(id(i), titre(i), auteur(i), categorie(i));
+        livre.changerStatut(StatutEmprunt.DISPONIBLE, statut(i)); // Neuf, donc encore DISPONIBLE : ne peut pas échouer
+        return livre;
+    }
+
+    /**
+     * Parcourt tout le catalogue avec UN SEUL objet Livre réutilisé (flyweight) :
+     * aucune allocation par livre. ⚠️ Ne pas garder la référence reçue : elle change
+     * de contenu à l'élément suivant (utiliser materialiser(i) pour garder un livre).
+     */
+    public void pourChaque(Consumer<Livre> action) {
+        VueLivre vue = new VueLivre();
+        for (int i = 0; i < taille; i++) {
+            vue.position = i;
+            action.accept(vue);
+        }
+    }
+
+    // Un Livre dont les getters lisent les colonnes à la position courante
+    private class VueLivre extends Livre {
+        int position;
+
+        VueLivre() {
+            super(0, null, null, null);
+        }
+
+        @Override public int getId() { return ids[position]; }
+        @Override public String getTitre() { return titre(position); }
+        @Override public Auteur getAuteur() { return auteur(position); }
+        @Override public Categorie getCategorie() { return categorie(position); }
+        @Override public StatutEmprunt getStatut() { return statut(position); }
+
+        @Override
+        public void setId(int id) {
+            throw new UnsupportedOperationException("Vue en lecture seule : utiliser materialiser()");
+        }
+
+        @Override
+        public boolean changerStatut(StatutEmprunt attendu, StatutEmprunt nouveau) {
+            throw new UnsupportedOperationException("Vue en lecture seule : utiliser materialiser()");
+        }
+
+        @Override
+        public String toString() {
+            return "Livre: " + getTitre() + " | Auteur: " + getAuteur() + " | Catégorie: " + getCategorie() + " [" + getStatut() + "]";
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Categorie;
+import com.bibliotech.model.Livre;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Copie mémoire du catalogue, avec des index secondaires tenus à jour à chaque ajout :
+ * - par catégorie (EnumMap)
+ * - par titre
+ * - par auteur (ID)
+ * - par ID de livre
+ * - par mot-clé du titre (index inversé, sans accents ni majuscules)
+ * - titres triés (autocomplétion, plages de titres)
+ *
+ * Principe "versionné" : chaque livre reçoit un numéro d'ordre (version) à son ajout.
+ * Les index sont en "ajout seul" : un livre ajouté n'est jamais déplacé ni retiré.
+ * Un lecteur prend un Instantane (= un numéro de version) et ne voit que les livres
+ * ajoutés AVANT ce numéro : sa vue est cohérente sur tous les index, sans aucun verrou.
+ * Seuls les écrivains se synchronisent entre eux.
+ */
+public class CatalogueEnMemoire {
+
+    private final Object verrouEcriture = new Object();
+
+    // Nombre de livres publiés = version du prochain livre.
+    // "volatile" : écrite APRÈS la mise à jour des index, elle publie tout le reste.
+    private volatile long version;
+
+    private final JournalLivres tous = new JournalLivres();
+    private final EnumMap<Categorie, JournalLivres> parCategorie = new EnumMap<>(Categorie.class);
+    private final ConcurrentHashMap<String, EntreeTitre> parTitre = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, JournalLivres> parAuteur = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Livre> parId = new ConcurrentHashMap<>();
+    // Index inversé : mot-clé normalisé du titre -> livres qui le contiennent
+    private final ConcurrentHashMap<String, JournalLivres> parMotCle = new ConcurrentHashMap<>();
+    // Index TRIÉ des titres (sans accents ni majuscules) : préfixes, plages, parcours déjà trié.
+    // La skip-list garde l'ordre à chaque ajout (O(log n)) et se lit sans verrou.
+    private final ConcurrentSkipListMap<CleTitre, Livre> titresTries = new ConcurrentSkipListMap<>();
+
+    public CatalogueEnMemoire() {
+        // Une entrée par catégorie dès le départ : l'EnumMap n'est plus jamais modifiée ensuite
+        for (Categorie c : Categorie.values()) {
+            parCategorie.put(c, new JournalLivres());
+        }
+    }
+
+    // AJOUT D'UN LIVRE (O(1) amorti)
+    // Un livre déjà présent (même ID) est ignoré : renvoie false.
+    public boolean ajouter(Livre livre) {
+        synchronized (verrouEcriture) {
+            long v = version;
+            if (!ajouterSansPublier(livre, v)) {
+                return false;
+            }
+            version = v + 1;
+            return true;
+        }
+    }
+
+    // AJOUT DE PLUSIEURS LIVRES : les lecteurs les voient apparaître tous ensemble
+    // Le verrou d'écriture est tenu pendant tout le parcours : passer une collection déjà en mémoire, pas un flux lu en base
+    public int ajouterTous(Iterable<Livre> livres) {
+        synchronized (verrouEcriture) {
+            long v = version;
+            int nbAjoutes = 0;
+            for (Livre livre : livres) {
+                if (ajouterSansPublier(livre, v + nbAjoutes)) {
+                    nbAjoutes++;
+                }
+            }
+            version = v + nbAjoutes;
+            return nbAjoutes;
+        }
+    }
+
+    // À appeler sous verrouEcriture. Ne publie PAS la version : c'est l'appelant qui le fait,
+    // une fois tous les index à jour.
+    private boolean ajouterSansPublier(Livre livre, long seq) {
+        if (livre.getId() > 0 && parId.putIfAbsent(livre.getId(), livre) != null) {
+            return false;
+        }
+        tous.ajouter(livre, seq);
+        parCategorie.get(livre.getCategorie()).ajouter(livre, seq);
+        parAuteur.computeIfAbsent(livre.getAuteur().getId(), id -> new JournalLivres()).ajouter(livre, seq);
+        // Le nouveau livre passe devant les éventuels homonymes (chaînage)
+        parTitre.compute(livre.getTitre(), (titre, precedente) -> new EntreeTitre(seq, livre, precedente));
+        titresTries.put(new CleTitre(MotsCles.normaliser(livre.getTitre()), seq), livre);
+        for (String mot : MotsCles.decouper(livre.getTitre())) {
+            parMotCle.computeIfAbsent(mot, m -> new JournalLivres()).ajouter(livre, seq);
+        }
+        return true;
+    }
+
+    // Le livre (l'objet partagé par tous les index) qui porte cet ID, ou null.
+    // Lu sans verrou ; un livre en cours d'ajout peut déjà être visible ici.
+    public Livre livreParId(int id) {
+        return parId.get(id);
+    }
+
+    // Vue figée et cohérente du catalogue, obtenue sans verrou
+    public Instantane instantane() {
+        return new Instantane(version);
+    }
+
+    public class Instantane {
+        private final long version;
+
+        private Instantane(long version) {
+            this.version = version;
+        }
+
+        public long getVersion() { return version; }
+        public int taille() { return (int) version; }
+
+        // Tous les livres, dans l'ordre d'ajout
+        public List<Livre> livres() {
+            return tous.jusqua(version);
+        }
+
+        // O(résultat) : la liste de la catégorie est déjà prête
+        public List<Livre> parCategorie(Categorie categorie) {
+            return parCategorie.get(categorie).jusqua(version);
+        }
+
+        public List<Livre> parAuteur(int idAuteur) {
+            JournalLivres journal = parAuteur.get(idAuteur);
+            return journal == null ? List.of() : journal.jusqua(version);
+        }
+
+        // Le dernier livre ajouté avec ce titre exact, ou null
+        public Livre parTitre(String titre) {
+            EntreeTitre entree = parTitre.get(titre);
+            while (entree != null && entree.seq >= version) {
+                entree = entree.precedente; // Ajouté après notre instantané : invisible pour nous
+            }
+            return entree == null ? null : entree.livre;
+        }
+
+        /**
+         * Recherche par mots-clés dans les titres (sans accents ni majuscules).
+         * ET : intersection des listes de chaque mot. Elles sont triées par numéro d'ajout : on parcourt
+         *      la plus courte et on cherche chaque numéro dans les autres (dichotomie qui ne revient
+         *      jamais en arrière). Aucun titre redécoupé, aucune allocation par livre.
+         * OU : on fusionne les listes (sans doublon, ordre d'ajout).
+         */
+        public List<Livre> parMotsCles(OperateurRecherche operateur, String... motsCles) {
+            Set<String> mots = new LinkedHashSet<>();
+            for (String motCle : motsCles) {
+                mots.addAll(MotsCles.decouper(motCle));
+            }
+            if (mots.isEmpty()) {
+                return List.of();
+            }
+
+            if (operateur == OperateurRecherche.OU) {
+                Set<Livre> resultat = Collections.newSetFromMap(new IdentityHashMap<>());
+                List<Livre> ordonne = new ArrayList<>();
+                for (String mot : mots) {
+                    for (Livre l : livresDuMot(mot)) {
+                        if (resultat.add(l)) {
+                            ordonne.add(l);
+                        }
+                    }
+                }
+                return ordonne;
+            }
+
+            // ET : le mot le plus rare donne la liste la plus courte à parcourir
+            List<Tranche> tranches = new ArrayList<>(mots.size());
+            for (String mot : mots) {
+                JournalLivres journal = parMotCle.get(mot);
+                if (journal == null) {
+                    return List.of(); // Un mot absent de tous les titres : aucun livre ne les a tous
+                }
+                tranches.add(journal.tranche(version));
+            }
+            tranches.sort(Comparator.comparingInt(Tranche::fin));
+            Tranche plusCourte = tranches.get(0);
+            int[] positions = new int[tranches.size()]; // Où reprendre la recherche dans chaque liste
+            List<Livre> resultat = new ArrayList<>();
+            for (int i = 0; i < plusCourte.fin(); i++) {
+                long seq = plusCourte.seqs()[i];
+                boolean partout = true;
+                for (int m = 1; m < tranches.size() && partout; m++) {
+                    Tranche autre = tranches.get(m);
+                    int k = Arrays.binarySearch(autre.seqs(), positions[m], autre.fin(), seq);
+                    positions[m] = (k >= 0) ? k + 1 : -(k + 1);
+                    partout = k >= 0;
+                }
+                if (partout) {
+                    resultat.add(plusCourte.livres()[i]);
+                }
+            }
+            return resultat;
+        }
+
+        private List<Livre> livresDuMot(String mot) {
+            JournalLivres journal = parMotCle.get(mot);
+            return journal == null ? List.of() : journal.jusqua(version);
+        }
+
+        // Tous les livres triés par titre (A-Z, sans tenir compte des accents ni des majuscules).
+        // Le flux est paresseux : .limit(k) ne lit que k entrées, sans aucun tri à faire.
+        // ⚠️ Pas le même ordre que trierLivresParTitre (compareToIgnoreCase : "Émile" après "Zola")
+        // ni que trierLivresParTitreStream (majuscules avant minuscules) : ici "Émile" est rangé avec "emile".
+        public Stream<Livre> triesParTitre() {
+            return visibles(titresTries);
+        }
+
+        // Autocomplétion : les k premiers titres (dans l'ordre alphabétique) qui commencent par "prefixe"
+        public List<Livre> titresCommencantPar(String prefixe, int k) {
+            String debut = MotsCles.normaliser(prefixe);
+            // La clé porte déjà le titre normalisé : on s'arrête dessus sans renormaliser chaque titre
+            return titresTries.tailMap(new CleTitre(debut, Long.MIN_VALUE)).entrySet().stream()
+                    .takeWhile(e -> e.getKey().titre().startsWith(debut))
+                    .filter(e -> e.getKey().seq() < version)
+                    .map(Map.Entry::getValue)
+                    .limit(k)
+                    .toList();
+        }
+
+        // Les titres compris entre "de" (inclus) et "a" (exclu), dans l'ordre alphabétique
+        public Stream<Livre> titresEntre(String de, String a) {
+            return visibles(titresTries.subMap(
+                    new CleTitre(MotsCles.normaliser(de), Long.MIN_VALUE),
+                    new CleTitre(MotsCles.normaliser(a), Long.MIN_VALUE)));
+        }
+
+        // On saute les livres ajoutés après l'instantané
+        private Stream<Livre> visibles(SortedMap<CleTitre, Livre> vue) {
+            return vue.entrySet().stream()
+                    .filter(e -> e.getKey().seq() < version)
+                    .map(Map.Entry::getValue);
+        }
+
+        // Les catégories qui ont au moins un livre
+        public Set<Categorie> categories() {
+            Set<Categorie> categories = EnumSet.noneOf(Categorie.class);
+            for (Categorie c : Categorie.values()) {
+                if (!parCategorie.get(c).jusqua(version).isEmpty()) {
+                    categories.add(c);
+                }
+            }
+            return categories;
+        }
+    }
+
+    // Clé de l'index trié : le titre normalisé, puis le numéro d'ajout (pour garder les homonymes)
+    private record CleTitre(String titre, long seq) implements Comparable<CleTitre> {
+        @Override
+        public int compareTo(CleTitre autre) {
+            int c = titre.compareTo(autre.titre);
+            return (c != 0) ? c : Long.compare(seq, autre.seq);
+        }
+    }
+
+    // Partie visible d'une JournalLivres : livres et numéros d'ajout (croissants) des cases [0, fin)
+    private record Tranche(Livre[] livres, long[] seqs, int fin) { }
+
+    // Un titre -> le livre le plus récent + les homonymes plus anciens (immuable)
+    private static final class EntreeTitre {
+        final long seq;
+        final Livre livre;
+        final EntreeTitre precedente;
+
+        EntreeTitre(long seq, Livre livre, EntreeTitre precedente) {
+            this.seq = seq;
+            this.livre = livre;
+            this.precedente = precedente;
+        }
+    }
+
+    /**
+     * Liste en "ajout seul" : un seul écrivain à la fois, lecteurs sans verrou.
+     * Quand le tableau est plein, on en crée un plus grand : les lecteurs qui tiennent
+     * encore l'ancien tableau continuent de lire des cases qui ne bougeront plus.
+     */
+    private static final class JournalLivres {
+
+        // Les deux tableaux sont remplacés ensemble pour rester alignés
+        private static final class Tableaux {
+            final Livre[] livres;
+            final long[] seqs;
+
+            Tableaux(int capacite) {
+                this.livres = new Livre[capacite];
+                this.seqs = new long[capacite];
+            }
+        }
+
+        private volatile Tableaux tableaux = new Tableaux(16);
+        private volatile int taille;
+
+        void ajouter(Livre livre, long seq) {
+            Tableaux t = tableaux;
+            int n = taille;
+            if (n == t.livres.length) {
+                Tableaux plusGrand = new Tableaux(n * 2);
+                System.arraycopy(t.livres, 0, plusGrand.livres, 0, n);
+                System.arraycopy(t.seqs, 0, plusGrand.seqs, 0, n);
+                tableaux = plusGrand;
+                t = plusGrand;
+            }
+            t.livres[n] = livre;
+            t.seqs[n] = seq;
+            taille = n + 1; // Écriture volatile : publie la case remplie
+        }
+
+        // Les livres ajoutés avant "version" (vue non modifiable, sans copie)
+        List<Livre> jusqua(long version) {
+            Tranche t = tranche(version);
+            return Collections.unmodifiableList(Arrays.asList(t.livres()).subList(0, t.fin()));
+        }
+
+        // Les cases [0, fin) ajoutées avant "version", avec leurs numéros (tableaux partagés, à lire seulement)
+        Tranche tranche(long version) {
+            int n = taille;          // On lit la taille D'ABORD...
+            Tableaux t = tableaux;   // ...puis le tableau : il contient forcément ces n cases
+            // Les numéros sont croissants : recherche dichotomique de la coupure
+            int k = Arrays.binarySearch(t.seqs, 0, n, version);
+            return new Tranche(t.livres, t.seqs, (k >= 0) ? k : -(k + 1));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.bibliotech.service;
+
+import com.bibliotech.model.Categorie;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Compteurs de livres gardés en mémoire pendant une courte durée.
+ * Un tableau de bord qui rafraîchit souvent ne touche plus la base :
+ * la valeur est relue au plus une fois par "dureeMs", et entre-temps
+ * chaque insertion faite par le service l'incrémente directement.
+ */
+class CompteurLivres {
+
+    private long dureeMs; // 0 = désactivé (chaque appel va en base)
+
+    // Derniers comptes connus (null = rien en cache)
+    private EnumMap<Categorie, Long> comptes;
+    private long horodatage;
+
+    CompteurLivres(long dureeMs) {
+        this.dureeMs = dureeMs;
+    }
+
+    synchronized void setDureeMs(long dureeMs) {
+        this.dureeMs = dureeMs;
+        this.comptes = null;
+    }
+
+    synchronized boolean estActif() {
+        return dureeMs > 0;
+    }
+
+    // Les comptes en cache s'ils sont encore frais, sinon null (il faut relire la base)
+    synchronized Map<Categorie, Long> lire() {
+        if (comptes == null || dureeMs <= 0 || System.currentTimeMillis() - horodatage > dureeMs) {
+            return null;
+        }
+        return Collections.unmodifiableMap(new EnumMap<>(comptes));
+    }
+
+    // On garde une valeur fraîchement lue en base
+    synchronized void memoriser(Map<Categorie, Long> comptesBase) {
+        if (dureeMs <= 0) {
+            return;
+        }
+        this.comptes = new EnumMap<>(comptesBase);
+        this.horodatage = System.currentTimeMillis();
+    }
+
+    // Appelé après chaque insertion réussie : le cache reste juste sans retourner en base
+    synchronized void incrementer(Categorie categorie, long nb) {
+        if (comptes != null) {
+            comptes.merge(categorie, nb, Long::sum);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.bibliotech.service;
+
+import com.bibliotech.exception.LimiteDepasseeException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limiteur de concurrence ADAPTATIF (algorithme AIMD, comme le contrôle de congestion TCP).
+ * Contrairement à un Semaphore(3) figé, le nombre de places s'ajuste tout seul :
+ * - requête rapide (latence sous la cible) : +1/limite  -> la limite monte doucement
+ * - requête lente ou en erreur            : x0.9       -> la limite redescend vite
+ * Les demandes en trop attendent dans une file bornée, avec un délai max :
+ * au-delà, elles sont refusées tout de suite (LimiteDepasseeException) au lieu de bloquer.
+ */
+public class LimiteurAdaptatif {
+
+    private static final double FACTEUR_BAISSE = 0.9;
+    private static final double LISSAGE_LATENCE = 0.1; // Poids d'une nouvelle mesure dans la moyenne
+
+    private final int limiteMin;
+    private final int limiteMax;
+    private final int fileMax;
+    private final long delaiAttenteNanos;
+    private final long latenceCibleNanos;
+
+    private final ReentrantLock verrou = new ReentrantLock(true);
+    private final Condition placeLibre = verrou.newCondition();
+
+    // État protégé par "verrou"
+    private double limite;
+    private int enVol;
+    private int enAttente;
+    private long nbAcceptes;
+    private long nbRejets;
+    private double latenceMoyenneNanos;
+
+    public LimiteurAdaptatif(int limiteInitiale, int limiteMin, int limiteMax,
+                             int fileMax, long delaiAttenteMs, long latenceCibleMs) {
+        if (limiteMin <= 0 || limiteMin > limiteInitiale || limiteInitiale > limiteMax) {
+            throw new IllegalArgumentException("Limites invalides : min=" + limiteMin
+                    + ", initiale=" + limiteInitiale + ", max=" + limiteMax);
+        }
+        this.limite = limiteInitiale;
+        this.limiteMin = limiteMin;
+        this.limiteMax = limiteMax;
+        this.fileMax = fileMax;
+        this.delaiAttenteNanos = TimeUnit.MILLISECONDS.toNanos(delaiAttenteMs);
+        this.latenceCibleNanos = TimeUnit.MILLISECONDS.toNanos(latenceCibleMs);
+    }
+
+    /**
+     * Demande une place. À utiliser avec try-with-resources :
+     *   try (Jeton jeton = limiteur.acquerir()) { ...; jeton.succes(); }
+     * Un jeton fermé sans succes() compte comme un échec (la limite baisse).
+     */
+    public Jeton acquerir() throws LimiteDepasseeException, InterruptedException {
+        verrou.lockInterruptibly();
+        try {
+            if (enVol < (int) limite) {
+                return accorder();
+            }
+            if (enAttente >= fileMax) {
+                nbRejets++;
+                throw new LimiteDepasseeException("⛔ File d'attente pleine (" + fileMax + " demandes), réessayez plus tard.");
+            }
+            enAttente++;
+            try {
+                long reste = delaiAttenteNanos;
+                while (enVol >= (int) limite) {
+                    if (reste <= 0) {
+                        nbRejets++;
+                        throw new LimiteDepasseeException("⛔ Aucune place libérée après "
+                                + TimeUnit.NANOSECONDS.toMillis(delaiAttenteNanos) + " ms, réessayez plus tard.");
+                    }
+                    reste = placeLibre.awaitNanos(reste);
+                }
+                return accorder();
+            } finally {
+                enAttente--;
+            }
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    // À appeler sous verrou
+    private Jeton accorder() {
+        enVol++;
+        nbAcceptes++;
+        return new Jeton(System.nanoTime());
+    }
+
+    private void liberer(long latenceNanos, boolean succes) {
+        verrou.lock();
+        try {
+            // On n'augmente que si la limite était vraiment atteinte :
+            // sinon un service peu chargé ferait grimper la limite sans raison
+            boolean limiteAtteinte = enVol >= (int) limite;
+            enVol--;
+
+            latenceMoyenneNanos = (latenceMoyenneNanos == 0)
+                    ? latenceNanos
+                    : latenceMoyenneNanos + LISSAGE_LATENCE * (latenceNanos - latenceMoyenneNanos);
+
+            if (!succes || latenceNanos > latenceCibleNanos) {
+                limite = Math.max(limiteMin, limite * FACTEUR_BAISSE);
+            } else if (limiteAtteinte) {
+                limite = Math.min(limiteMax, limite + 1.0 / limite);
+            }
+            // Une place s'est libérée (peut-être plusieurs si la limite a monté)
+            placeLibre.signalAll();
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    public StatistiquesLimiteur getStatistiques() {
+        verrou.lock();
+        try {
+            return new StatistiquesLimiteur((int) limite, enVol, enAttente, nbAcceptes, nbRejets,
+                    latenceMoyenneNanos / 1_000_000.0);
+        } finally {
+            verrou.unlock();
+        }
+    }
+
+    // Une place obtenue : à rendre UNE fois (close)
+    public class Jeton implements AutoCloseable {
+        private final long debut;
+        private long fin; // 0 = succes() pas encore appelé
+        private boolean rendu;
+
+        private Jeton(long debut) {
+            this.debut = debut;
+        }
+
+        // L'opération protégée s'est bien passée : la latence mesurée s'arrête ICI
+        // (ce qui suit, jusqu'au close(), n'est pas compté comme du temps de requête)
+        public void succes() {
+            if (fin == 0) {
+                fin = System.nanoTime();
+            }
+        }
+
+        @Override
+        public void close() {
+            if (!rendu) {
+                rendu = true;
+                boolean succes = fin != 0;
+                liberer((succes ? fin : System.nanoTime()) - debut, succes);
+            }
+        }
+    }
+
+    // Photo des compteurs du limiteur
+    public record StatistiquesLimiteur(int limite, int enVol, int enAttente,
+                                       long acceptes, long rejets, double latenceMoyenneMs) {
+        @Override
+        public String toString() {
+            return String.format("Limiteur[limite=%d, enVol=%d, enAttente=%d, acceptés=%d, rejetés=%d, latence=%.1f ms]",
+                    limite, enVol, enAttente, acceptes, rejets, latenceMoyenneMs);
+        }
+    }
+}
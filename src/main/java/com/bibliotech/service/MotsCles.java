@@ -0,0 +1,44 @@
+package com.bibliotech.service;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Découpage d'un titre en mots-clés "normalisés" pour l'index inversé :
+ * - sans accents   : "Événement" -> "evenement"
+ * - en minuscules  : "JAVA" -> "java"
+ * - découpé sur tout ce qui n'est ni lettre ni chiffre (espaces, apostrophes, tirets...)
+ * Les mots d'une seule lettre (élisions du français : l', d', j'...) sont ignorés.
+ */
+public final class MotsCles {
+
+    // Les "marques" Unicode = les accents séparés de leur lettre après la décomposition NFD
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATEURS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private MotsCles() {
+    }
+
+    // "L'Étranger" -> "l'etranger"
+    public static String normaliser(String texte) {
+        String sansAccents = ACCENTS.matcher(Normalizer.normalize(texte, Normalizer.Form.NFD)).replaceAll("");
+        return sansAccents.toLowerCase(Locale.ROOT);
+    }
+
+    // "L'Étranger et l'étranger" -> [etranger, et]  (sans doublon, dans l'ordre)
+    public static Set<String> decouper(String texte) {
+        Set<String> mots = new LinkedHashSet<>();
+        if (texte == null) {
+            return mots;
+        }
+        for (String mot : SEPARATEURS.split(normaliser(texte))) {
+            if (mot.length() > 1) {
+                mots.add(mot);
+            }
+        }
+        return mots;
+    }
+}
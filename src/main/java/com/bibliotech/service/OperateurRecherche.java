@@ -0,0 +1,7 @@
+package com.bibliotech.service;
+
+// Combinaison des mots-clés d'une recherche :
+// ET = le titre contient TOUS les mots, OU = au moins UN des mots
+public enum OperateurRecherche {
+	ET, OU
+}
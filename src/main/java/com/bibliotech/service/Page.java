@@ -0,0 +1,28 @@
+package com.bibliotech.service;
+
+import java.util.List;
+
+/**
+ * Une page de résultats + le "jeton" qui permet de demander la page suivante.
+ * Le jeton est opaque pour l'appelant : il suffit de le renvoyer tel quel.
+ * S'il vaut null, c'est la dernière page.
+ */
+public class Page<T> {
+
+    private final List<T> elements;
+    private final String jetonSuivant;
+
+    public Page(List<T> elements, String jetonSuivant) {
+        this.elements = List.copyOf(elements);
+        this.jetonSuivant = jetonSuivant;
+    }
+
+    public List<T> getElements() { return elements; }
+    public String getJetonSuivant() { return jetonSuivant; }
+    public boolean aUneSuite() { return jetonSuivant != null; }
+
+    @Override
+    public String toString() {
+        return "Page[" + elements.size() + " éléments" + (aUneSuite() ? ", suite disponible" : ", dernière page") + "]";
+    }
+}
@@ -0,0 +1,6 @@
+package com.bibliotech.service;
+
+// Les ordres de tri disponibles pour la pagination des livres
+public enum TriLivres {
+	PAR_ID, PAR_TITRE, PAR_CATEGORIE
+}
@@ -0,0 +1,71 @@
+-- ============================================================================
+--  BiblioTech - Schéma de la base bibliotech_db (MySQL 8)
+-- ============================================================================
+
+CREATE DATABASE IF NOT EXISTS bibliotech_db
+    CHARACTER SET utf8mb4 COLLATE utf8mb4_0900_ai_ci;
+
+USE bibliotech_db;
+
+-- --- AUTEUR ---
+CREATE TABLE IF NOT EXISTS auteur (
+    id      INT          NOT NULL AUTO_INCREMENT,
+    nom     VARCHAR(100) NOT NULL,
+    prenom  VARCHAR(100),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+-- --- LIVRE ---
+-- categorie contient le nom de l'enum Java (Categorie.name())
+-- titre_normalise est calculé par MySQL : l'index unique interdit deux livres de même titre
+-- (sans tenir compte de la casse ni des espaces autour), sans aucun verrou côté Java.
+-- idx_livre_titre_id / idx_livre_categorie_id : pagination par clé (voir plus bas).
+CREATE TABLE IF NOT EXISTS livre (
+    id               INT          NOT NULL AUTO_INCREMENT,
+    titre            VARCHAR(255) NOT NULL,
+    categorie        VARCHAR(20)  NOT NULL,
+    id_auteur        INT          NOT NULL,
+    titre_normalise  VARCHAR(255) AS (LOWER(TRIM(titre))) STORED,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_livre_titre_normalise (titre_normalise),
+    KEY idx_livre_titre_id (titre, id),
+    KEY idx_livre_categorie_id (categorie, id),
+    CONSTRAINT fk_livre_auteur FOREIGN KEY (id_auteur) REFERENCES auteur (id)
+) ENGINE = InnoDB;
+
+-- Pour une base existante (supprimer d'abord les doublons éventuels) :
+-- ALTER TABLE livre
+--     ADD COLUMN titre_normalise VARCHAR(255) AS (LOWER(TRIM(titre))) STORED,
+--     ADD UNIQUE KEY uk_livre_titre_normalise (titre_normalise);
+
+-- --- EMPRUNT ---
+-- Une ligne par emprunt ; date_retour reste NULL tant que le livre n'est pas rendu.
+-- id_livre_en_cours vaut id_livre pour un emprunt en cours, NULL sinon (MySQL accepte plusieurs NULL
+-- dans un index unique) : la base refuse deux emprunts en cours du même livre.
+-- C'est le filet de sécurité ; la course entre emprunteurs est tranchée en mémoire (BibliothequeService).
+CREATE TABLE IF NOT EXISTS emprunt (
+    id                 INT          NOT NULL AUTO_INCREMENT,
+    id_livre           INT          NOT NULL,
+    emprunteur         VARCHAR(100) NOT NULL,
+    date_emprunt       DATETIME(3)  NOT NULL,
+    date_retour        DATETIME(3),
+    id_livre_en_cours  INT AS (IF(date_retour IS NULL, id_livre, NULL)) STORED,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_emprunt_en_cours (id_livre_en_cours),
+    KEY idx_emprunt_livre (id_livre),
+    CONSTRAINT fk_emprunt_livre FOREIGN KEY (id_livre) REFERENCES livre (id)
+) ENGINE = InnoDB;
+
+
+-- ============================================================================
+--  INDEX DE PAGINATION (LivreDAO.listerLivresParTitre / listerLivresParCategorie)
+--  La pagination par clé lit "WHERE col > ? OR (col = ? AND id > ?) ORDER BY col, id LIMIT ?" :
+--  l'index composite (col, id) permet de sauter directement à la bonne page (plage sur l'index).
+--  (La pagination par ID utilise simplement la clé primaire.)
+--  Ils sont déclarés dans CREATE TABLE livre : ce script peut être relancé sans erreur.
+--  Pour une base existante créée sans eux (MySQL 8 n'a pas de CREATE INDEX IF NOT EXISTS) :
+-- ============================================================================
+-- ALTER TABLE livre
+--     ADD KEY idx_livre_titre_id (titre, id),
+--     ADD KEY idx_livre_categorie_id (categorie, id);
+